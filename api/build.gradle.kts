@@ -56,3 +56,28 @@ mavenPublishing {
     // Skip signing for local tasks
     tasks.withType<Sign>().configureEach { onlyIf { !gradle.taskGraph.allTasks.any { it is PublishToMavenLocal } } }
 }
+
+// Classes replacing their Java 8 variant on Java 11 and newer, packaged as a multi-release jar
+val java11: SourceSet by sourceSets.creating {
+    java.srcDir("src/main/java11")
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+tasks {
+    named<JavaCompile>(java11.compileJavaTaskName) {
+        options.encoding = Charsets.UTF_8.name()
+        options.compilerArgs.addAll(arrayListOf("-Xlint:all", "-Xlint:-processing", "-Xdiags:verbose"))
+        options.release.set(11)
+    }
+
+    listOf("jar", "shadowJar").forEach { name ->
+        named<Jar>(name) {
+            into("META-INF/versions/11") {
+                from(java11.output)
+            }
+            manifest {
+                attributes("Multi-Release" to "true")
+            }
+        }
+    }
+}
@@ -3,10 +3,12 @@ package io.github.milkdrinkers.crate;
 import io.github.milkdrinkers.crate.internal.FileType;
 import io.github.milkdrinkers.crate.internal.FlatFile;
 import io.github.milkdrinkers.crate.internal.provider.InputStreamProvider;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
 import io.github.milkdrinkers.crate.internal.settings.ConfigSetting;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
 import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
 import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.StringPool;
 import io.github.milkdrinkers.crate.util.Valid;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,6 +20,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 
 /**
  * Abstract builder class for creating configuration file instances.
@@ -88,6 +91,31 @@ public abstract class AbstractConfigurationBuilder<T extends AbstractConfigurati
      */
     private @Nullable Consumer<FlatFile> reloadCallback = null;
 
+    /**
+     * Whether reading the file is deferred until it is first accessed.
+     */
+    private boolean lazy = false;
+
+    /**
+     * Optional pool deduplicating the keys and short string values read from the file.
+     */
+    private @Nullable StringPool stringPool = null;
+
+    /**
+     * Whether the configuration is frozen into an immutable structure after loading.
+     */
+    private boolean readOnly = false;
+
+    /**
+     * How the file is compressed on disk.
+     */
+    private Compression compression = Compression.NONE;
+
+    /**
+     * The level compressed files are written with.
+     */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
     /**
      * Constructs a new configuration builder.
      *
@@ -383,6 +411,111 @@ public abstract class AbstractConfigurationBuilder<T extends AbstractConfigurati
         return self();
     }
 
+    /**
+     * Configures whether the configuration file is read on creation or on first access.
+     * <p>
+     * When enabled, building the configuration only creates the file handle and the file
+     * is parsed by the first operation reading or writing its data. This keeps creating
+     * large numbers of rarely accessed files cheap. The deferred read happens exactly once,
+     * even when the first accesses come from multiple threads.
+     * </p>
+     *
+     * @param lazy true to defer reading the file until it is first accessed
+     * @return this builder instance for method chaining
+     * @since 4.0.0
+     */
+    public T lazy(final boolean lazy) {
+        this.lazy = lazy;
+        return self();
+    }
+
+    /**
+     * Configures whether the keys and short string values read from the file are interned
+     * in the {@link StringPool#shared() shared pool}.
+     * <p>
+     * When many files share the same schema, for example one file per player, interning lets
+     * all of them reference a single instance of every key and common value instead of
+     * holding their own copies.
+     * </p>
+     *
+     * @param internStrings true to intern strings in the shared pool
+     * @return this builder instance for method chaining
+     * @since 4.0.0
+     */
+    public T internStrings(final boolean internStrings) {
+        this.stringPool = internStrings ? StringPool.shared() : null;
+        return self();
+    }
+
+    /**
+     * Configures the pool the keys and short string values read from the file are interned in.
+     *
+     * @param stringPool the pool to intern strings in, or null to disable interning
+     * @return this builder instance for method chaining
+     * @see #internStrings(boolean)
+     * @since 4.0.0
+     */
+    public T stringPool(@Nullable final StringPool stringPool) {
+        this.stringPool = stringPool;
+        return self();
+    }
+
+    /**
+     * Configures whether the configuration is read-only.
+     * <p>
+     * A read-only configuration compiles its data into an immutable structure where every path,
+     * nested or not, is resolved by a single hash lookup. Any attempt to modify it throws. This suits
+     * configurations that are never changed by the application, typically combined with
+     * {@link ReloadSetting#MANUALLY}.
+     * </p>
+     *
+     * @param readOnly true to make the configuration read-only
+     * @return this builder instance for method chaining
+     * @since 4.0.0
+     */
+    public T readOnly(final boolean readOnly) {
+        this.readOnly = readOnly;
+        return self();
+    }
+
+    /**
+     * Configures whether the file is stored compressed.
+     * <p>
+     * A compressed file is compressed while it is written and decompressed while it is read, and its
+     * name carries the extension of the compression, e.g. {@code config.yml.gz}. Large data files
+     * shrink to a fraction of their size, which makes reading and writing them on slow disks faster.
+     * Single values of compressed YAML files can't be patched in place, so every change rewrites
+     * the whole file.
+     * </p>
+     *
+     * @param compression the compression to store the file with
+     * @return this builder instance for method chaining
+     * @throws IllegalArgumentException if compression is null
+     * @since 4.0.0
+     */
+    public T compression(@NonNull final Compression compression) {
+        Valid.notNull(compression, "Compression cannot be null");
+        this.compression = compression;
+        return self();
+    }
+
+    /**
+     * Configures the level compressed files are written with, trading speed for size.
+     *
+     * @param compressionLevel the level between 0 (no compression) and 9 (best compression),
+     *                         or -1 for the default level
+     * @return this builder instance for method chaining
+     * @throws IllegalArgumentException if the level is out of range
+     * @see #compression(Compression)
+     * @since 4.0.0
+     */
+    public T compressionLevel(final int compressionLevel) {
+        Valid.checkBoolean(Compression.isValidLevel(compressionLevel),
+            "Compression level must be between 0 and 9, or -1 for the default level");
+        this.compressionLevel = compressionLevel;
+        return self();
+    }
+
     // ====================================================================================================
     // Protected Accessor Methods
     // ====================================================================================================
@@ -499,6 +632,76 @@ public abstract class AbstractConfigurationBuilder<T extends AbstractConfigurati
         return reloadCallback;
     }
 
+    /**
+     * Returns whether reading the file is deferred until it is first accessed.
+     * <p>
+     * This method is intended for use by subclass implementations during
+     * the configuration creation process.
+     * </p>
+     *
+     * @return true if the file should be read lazily
+     * @since 4.0.0
+     */
+    protected boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Gets the pool strings read from the file are interned in.
+     * <p>
+     * This method is intended for use by subclass implementations during
+     * the configuration creation process.
+     * </p>
+     *
+     * @return the string pool, or null if interning is disabled
+     * @since 4.0.0
+     */
+    protected @Nullable StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /**
+     * Gets whether the configuration is read-only.
+     * <p>
+     * This method is intended for use by subclass implementations during
+     * the configuration creation process.
+     * </p>
+     *
+     * @return true if the configuration should be read-only
+     * @since 4.0.0
+     */
+    protected boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Gets how the file is compressed on disk.
+     * <p>
+     * This method is intended for use by subclass implementations during
+     * the configuration creation process.
+     * </p>
+     *
+     * @return the compression
+     * @since 4.0.0
+     */
+    protected Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Gets the level compressed files are written with.
+     * <p>
+     * This method is intended for use by subclass implementations during
+     * the configuration creation process.
+     * </p>
+     *
+     * @return the compression level
+     * @since 4.0.0
+     */
+    protected int getCompressionLevel() {
+        return compressionLevel;
+    }
+
     /**
      * Returns the file type this builder handles.
      * <p>
@@ -559,6 +762,12 @@ public abstract class AbstractConfigurationBuilder<T extends AbstractConfigurati
      */
     private String ensureExtension(String filename) {
         String extension = "." + fileType.getExtension();
-        return filename.endsWith(extension) ? filename : filename + extension;
+        // A name like 'config.yml.gz' already carries the extension in front of the compression
+        for (final Compression value : Compression.values()) {
+            if (filename.endsWith(extension + value.getExtension())) {
+                return filename;
+            }
+        }
+        return filename + extension;
     }
 }
@@ -0,0 +1,484 @@
+package io.github.milkdrinkers.crate.backup;
+
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.metrics.BlockingIoDetector;
+import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.Valid;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Backs up a directory into a zip archive.
+ * <p>
+ * Files are read and deflated in parallel on an executor, each into its own buffer, while the
+ * calling thread appends the finished entries to the archive in order. Files larger than 8 MiB
+ * aren't buffered but deflated on the calling thread straight into the archive.
+ * </p>
+ * <p>
+ * With a manifest, a run records the size, modification time and checksum of every file next to
+ * the position of its entry in the archive. The next run copies the compressed data of files that
+ * haven't changed from that archive instead of reading and compressing them again: files with the
+ * same size and modification time are not read at all, files with a new modification time are read
+ * to compare their checksum. This also works if every run writes a new archive, e.g. one per day,
+ * as long as the previous archive is still in place.
+ * </p>
+ * <p>
+ * The archive is written next to its target first and replaces the target once complete, so a
+ * failed run never leaves a partial archive behind. A file that can't be read doesn't abort the
+ * run, it is recorded in {@link BackupResult#getFailures()} instead.
+ * </p>
+ * <pre>{@code
+ * BackupResult result = BackupEngine.builder(new File("plugins/MyPlugin"), new File("backups/2025-05-01.zip"))
+ *     .manifest(new File("backups/MyPlugin.manifest"))
+ *     .build()
+ *     .run();
+ * }</pre>
+ *
+ * @since 4.0.0
+ */
+public final class BackupEngine {
+    private static final int LARGE_FILE = 8 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File sourceDirectory;
+    private final File archive;
+    @Nullable
+    private final File manifest;
+    private final Executor executor;
+    private final int parallelism;
+    private final int level;
+
+    private BackupEngine(final Builder builder) {
+        this.sourceDirectory = builder.sourceDirectory;
+        this.archive = builder.archive;
+        this.manifest = builder.manifest;
+        this.executor = builder.executor;
+        this.parallelism = builder.parallelism;
+        this.level = builder.level;
+    }
+
+    /**
+     * Creates a builder for a backup of a directory.
+     *
+     * @param sourceDirectory The directory to back up, including its subdirectories
+     * @param archive         The zip archive to write, replaced if it exists
+     * @return A new builder
+     */
+    public static Builder builder(@NonNull final File sourceDirectory, @NonNull final File archive) {
+        return new Builder(sourceDirectory, archive);
+    }
+
+    /**
+     * Backs up the directory, blocking until the archive is written.
+     *
+     * @return The result of the run
+     */
+    public BackupResult run() {
+        final File partial = new File(this.archive.getPath() + ".part");
+        final long blocking = BlockingIoDetector.begin();
+        final long start = System.nanoTime();
+        try {
+            final List<Path> files = discover(partial);
+            final BackupManifest previous = this.manifest == null
+                ? null
+                : BackupManifest.read(this.manifest, this.sourceDirectory);
+
+            final File parent = this.archive.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+
+            final Run run = new Run(previous);
+            try (FileChannel out = FileChannel.open(
+                partial.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+                 FileChannel source = previous == null
+                     ? null
+                     : FileChannel.open(previous.archive.toPath(), StandardOpenOption.READ)) {
+                run.write(files, new ZipArchiveWriter(out), source);
+                out.force(true);
+            }
+
+            try {
+                Files.move(partial.toPath(), this.archive.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException ex) {
+                Files.move(partial.toPath(), this.archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (this.manifest != null) {
+                BackupManifest.of(this.sourceDirectory, this.archive, run.records, run.times).write(this.manifest);
+            }
+
+            return new BackupResult(
+                this.archive,
+                run.records.size(),
+                run.reused,
+                Collections.unmodifiableMap(run.failures),
+                System.nanoTime() - start);
+        } catch (final IOException | RuntimeException ex) {
+            partial.delete();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while backing up '" + this.sourceDirectory.getName() + "' to '" + this.archive.getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(this.archive) + "'");
+        } finally {
+            BlockingIoDetector.end(blocking, "backup", this.archive);
+        }
+    }
+
+    // Lists the files to back up, sorted by path so archives of unchanged directories are identical
+    private List<Path> discover(final File partial) throws IOException {
+        final Set<Path> excluded = new HashSet<>();
+        excluded.add(normalize(this.archive));
+        excluded.add(normalize(partial));
+        if (this.manifest != null) {
+            excluded.add(normalize(this.manifest));
+            excluded.add(normalize(new File(this.manifest.getPath() + ".part")));
+        }
+
+        try (Stream<Path> walk = Files.walk(this.sourceDirectory.toPath())) {
+            return walk
+                .filter(Files::isRegularFile)
+                .filter(path -> !excluded.contains(path.toAbsolutePath().normalize()))
+                .sorted(Comparator.comparing(this::entryPath))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static Path normalize(final File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    // Entry paths always use forward slashes, whatever the platform's separator
+    private String entryPath(final Path file) {
+        final Path relative = this.sourceDirectory.toPath().relativize(file);
+        final StringBuilder out = new StringBuilder();
+        for (final Path element : relative) {
+            if (out.length() > 0) {
+                out.append('/');
+            }
+            out.append(element);
+        }
+        return out.toString();
+    }
+
+    private final class Run {
+        @Nullable
+        private final BackupManifest previous;
+        private final List<ZipArchiveWriter.Record> records = new ArrayList<>();
+        private final Map<String, Long> times = new HashMap<>();
+        private final Map<File, Throwable> failures = new LinkedHashMap<>();
+        private int reused;
+
+        private Run(@Nullable final BackupManifest previous) {
+            this.previous = previous;
+        }
+
+        // Keeps up to parallelism files in preparation, appending them to the archive in order
+        private void write(final List<Path> files, final ZipArchiveWriter zip, @Nullable final FileChannel source)
+            throws IOException {
+            final Deque<CompletableFuture<Prepared>> pending = new ArrayDeque<>();
+            int next = 0;
+            while (next < files.size() || !pending.isEmpty()) {
+                while (next < files.size() && pending.size() < BackupEngine.this.parallelism) {
+                    final Path file = files.get(next++);
+                    pending.add(CompletableFuture.supplyAsync(() -> prepare(file), BackupEngine.this.executor));
+                }
+                append(pending.poll().join(), zip, source);
+            }
+            zip.finish();
+            this.records.addAll(zip.getRecords());
+        }
+
+        private Prepared prepare(final Path file) {
+            final Prepared prepared = new Prepared(file, entryPath(file));
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                prepared.size = attributes.size();
+                prepared.lastModified = attributes.lastModifiedTime().toMillis();
+                final BackupManifest.Entry entry = this.previous == null ? null : this.previous.entries.get(prepared.path);
+                if (entry != null && entry.size == prepared.size) {
+                    if (entry.lastModified == prepared.lastModified) {
+                        prepared.reuse = entry;
+                        return prepared;
+                    }
+                    if (prepared.size > LARGE_FILE) {
+                        if (checksum(file) == entry.crc) {
+                            prepared.reuse = entry;
+                        }
+                        return prepared;
+                    }
+                }
+                if (prepared.size > LARGE_FILE) {
+                    return prepared;
+                }
+
+                final byte[] bytes = Files.readAllBytes(file);
+                final CRC32 crc = new CRC32();
+                crc.update(bytes, 0, bytes.length);
+                prepared.size = bytes.length;
+                prepared.crc = (int) crc.getValue();
+                if (entry != null && entry.size == prepared.size && entry.crc == prepared.crc) {
+                    prepared.reuse = entry;
+                    return prepared;
+                }
+                deflate(prepared, bytes);
+            } catch (final Throwable throwable) {
+                prepared.error = throwable;
+            }
+            return prepared;
+        }
+
+        private void deflate(final Prepared prepared, final byte[] bytes) {
+            final Deflater deflater = new Deflater(BackupEngine.this.level, true);
+            try {
+                deflater.setInput(bytes);
+                deflater.finish();
+                byte[] out = new byte[bytes.length + (bytes.length >> 3) + 64];
+                int length = 0;
+                while (!deflater.finished()) {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length << 1);
+                    }
+                    length += deflater.deflate(out, length, out.length - length);
+                }
+
+                // Data that doesn't shrink, like already compressed files, is stored as it is
+                if (length >= bytes.length) {
+                    prepared.method = ZipArchiveWriter.STORED;
+                    prepared.data = bytes;
+                    prepared.compressedSize = bytes.length;
+                } else {
+                    prepared.method = ZipArchiveWriter.DEFLATED;
+                    prepared.data = out;
+                    prepared.compressedSize = length;
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private void append(final Prepared prepared, final ZipArchiveWriter zip, @Nullable final FileChannel source)
+            throws IOException {
+            if (prepared.error != null) {
+                fail(prepared, prepared.error);
+                return;
+            }
+
+            final int time = ZipArchiveWriter.dosTime(prepared.lastModified);
+            final BackupManifest.Entry entry = prepared.reuse;
+            if (entry != null && source != null) {
+                final ZipArchiveWriter.Record record = new ZipArchiveWriter.Record(prepared.path, time, entry.method);
+                record.crc = entry.crc;
+                record.size = entry.size;
+                record.compressedSize = entry.compressedSize;
+                if (zip.copy(record, source, entry.offset)) {
+                    this.times.put(prepared.path, prepared.lastModified);
+                    this.reused++;
+                    return;
+                }
+            }
+
+            if (prepared.data != null) {
+                final ZipArchiveWriter.Record record = new ZipArchiveWriter.Record(prepared.path, time, prepared.method);
+                record.crc = prepared.crc;
+                record.size = prepared.size;
+                record.compressedSize = prepared.compressedSize;
+                zip.write(record, prepared.data);
+            } else {
+                stream(prepared, zip, time);
+            }
+            this.times.put(prepared.path, prepared.lastModified);
+        }
+
+        // Deflates a large file, or one whose previous entry couldn't be copied, into the archive
+        private void stream(final Prepared prepared, final ZipArchiveWriter zip, final int time) throws IOException {
+            final InputStream in;
+            try {
+                in = Files.newInputStream(prepared.file);
+            } catch (final IOException ex) {
+                fail(prepared, ex);
+                return;
+            }
+
+            final ZipArchiveWriter.Record record = new ZipArchiveWriter.Record(prepared.path, time, ZipArchiveWriter.DEFLATED);
+            final Deflater deflater = new Deflater(BackupEngine.this.level, true);
+            final CRC32 crc = new CRC32();
+            final byte[] input = new byte[BUFFER_SIZE];
+            final byte[] output = new byte[BUFFER_SIZE];
+            try (InputStream source = in) {
+                zip.begin(record);
+                long size = 0;
+                while (true) {
+                    // Only errors reading the file are failures of the file, errors writing the archive abort the run
+                    final int read;
+                    try {
+                        read = source.read(input);
+                    } catch (final IOException ex) {
+                        zip.discard(record);
+                        fail(prepared, ex);
+                        return;
+                    }
+                    if (read == -1) {
+                        break;
+                    }
+
+                    crc.update(input, 0, read);
+                    size += read;
+                    deflater.setInput(input, 0, read);
+                    while (!deflater.needsInput()) {
+                        zip.writeData(output, deflater.deflate(output));
+                    }
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    zip.writeData(output, deflater.deflate(output));
+                }
+
+                record.crc = (int) crc.getValue();
+                record.size = size;
+                record.compressedSize = deflater.getBytesWritten();
+            } finally {
+                deflater.end();
+            }
+            zip.complete(record);
+        }
+
+        // Files deleted since the directory was listed are skipped
+        private void fail(final Prepared prepared, final Throwable throwable) {
+            if (!(throwable instanceof NoSuchFileException)) {
+                this.failures.put(prepared.file.toFile(), throwable);
+            }
+        }
+    }
+
+    private static int checksum(final Path file) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    // A file ready to be appended: reused from the previous archive, deflated into data, or to be streamed
+    private static final class Prepared {
+        private final Path file;
+        private final String path;
+        private long size;
+        private long lastModified;
+        private int crc;
+        private int method;
+        private long compressedSize;
+        @Nullable
+        private byte[] data;
+        @Nullable
+        private BackupManifest.Entry reuse;
+        @Nullable
+        private Throwable error;
+
+        private Prepared(final Path file, final String path) {
+            this.file = file;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Builder for a {@link BackupEngine}.
+     */
+    public static final class Builder {
+        private final File sourceDirectory;
+        private final File archive;
+        private File manifest;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int level = Deflater.DEFAULT_COMPRESSION;
+
+        private Builder(final File sourceDirectory, final File archive) {
+            this.sourceDirectory = sourceDirectory;
+            this.archive = archive;
+        }
+
+        /**
+         * Sets the manifest that allows a run to copy unchanged files from the archive of the
+         * previous run. Without a manifest, every file is compressed on every run.
+         *
+         * @param manifest The manifest file, read before and replaced after every run, or null
+         * @return this builder instance for method chaining
+         */
+        public Builder manifest(@Nullable final File manifest) {
+            this.manifest = manifest;
+            return this;
+        }
+
+        /**
+         * Sets the executor files are read and deflated on. Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor The executor
+         * @return this builder instance for method chaining
+         */
+        public Builder executor(@NonNull final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files read and deflated concurrently, which also bounds the
+         * number of deflated files buffered in memory. Defaults to the number of available processors.
+         *
+         * @param parallelism The maximum number of files prepared concurrently
+         * @return this builder instance for method chaining
+         */
+        public Builder parallelism(final int parallelism) {
+            Valid.checkBoolean(parallelism > 0, "Parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the deflate compression level. Defaults to {@link Deflater#DEFAULT_COMPRESSION}.
+         *
+         * @param level The compression level from 0 to 9, or -1 for the default level
+         * @return this builder instance for method chaining
+         */
+        public Builder level(final int level) {
+            Valid.checkBoolean(level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+                "Compression level must be between -1 and 9");
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * @return A new engine with the settings of this builder
+         */
+        public BackupEngine build() {
+            return new BackupEngine(this);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.milkdrinkers.crate.backup;
+
+import io.github.milkdrinkers.crate.internal.binary.BinaryDecoder;
+import io.github.milkdrinkers.crate.internal.binary.BinaryEncoder;
+import io.github.milkdrinkers.crate.internal.exceptions.BinaryException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes the entries of the archive written by the last backup of a directory.
+ * <p>
+ * For every entry, the manifest records the size, modification time and CRC32 of the file it was
+ * created from, and where its compressed data is found in the archive. A later backup copies the
+ * compressed data of files that haven't changed instead of compressing them again. The archive
+ * itself is identified by its path, length and modification time, so a manifest is ignored once
+ * its archive was changed, moved or deleted.
+ * </p>
+ * <p>
+ * The file starts with the magic bytes {@code CRBK} and a format version, the rest is written with
+ * {@link BinaryEncoder}.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+final class BackupManifest {
+    private static final int MAGIC = 0x4352424B; // CRBK
+    private static final int VERSION = 1;
+
+    final String source;
+    final File archive;
+    final long archiveLength;
+    final long archiveModified;
+    final Map<String, Entry> entries;
+
+    private BackupManifest(
+        final String source,
+        final File archive,
+        final long archiveLength,
+        final long archiveModified,
+        final Map<String, Entry> entries) {
+        this.source = source;
+        this.archive = archive;
+        this.archiveLength = archiveLength;
+        this.archiveModified = archiveModified;
+        this.entries = entries;
+    }
+
+    /**
+     * Describes a written archive.
+     *
+     * @param source  The backed up directory
+     * @param archive The archive, already in its final place
+     * @param records The entries of the archive
+     * @param times   The modification times of the files of the entries, by entry path
+     * @return The manifest of the archive
+     */
+    static BackupManifest of(
+        final File source,
+        final File archive,
+        final List<ZipArchiveWriter.Record> records,
+        final Map<String, Long> times) {
+        final Map<String, Entry> entries = new HashMap<>(records.size() * 4 / 3 + 1);
+        for (final ZipArchiveWriter.Record record : records) {
+            entries.put(record.path, new Entry(
+                record.size,
+                times.get(record.path),
+                record.crc,
+                record.method,
+                record.compressedSize,
+                record.offset));
+        }
+        return new BackupManifest(
+            source.getAbsolutePath(),
+            archive.getAbsoluteFile(),
+            archive.length(),
+            archive.lastModified(),
+            Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * Reads a manifest. A missing or unreadable manifest only means that the next backup compresses
+     * every file, so it isn't an error.
+     *
+     * @param file   The manifest file
+     * @param source The directory about to be backed up
+     * @return The manifest, or null if it doesn't exist, can't be read, belongs to another directory
+     * or its archive changed since it was written
+     */
+    @Nullable
+    static BackupManifest read(final File file, final File source) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        final BackupManifest manifest;
+        try {
+            final BinaryDecoder decoder = new BinaryDecoder(Files.readAllBytes(file.toPath()));
+            if (decoder.readInt() != MAGIC || decoder.readInt() != VERSION) {
+                return null;
+            }
+
+            final String sourcePath = decoder.readString();
+            final File archive = new File(decoder.readString());
+            final long archiveLength = decoder.readVarLong();
+            final long archiveModified = decoder.readVarLong();
+            final int count = decoder.readVarInt();
+            final Map<String, Entry> entries = new HashMap<>(Math.min(count, 1 << 16) * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                final String path = decoder.readString();
+                entries.put(path, new Entry(
+                    decoder.readVarLong(),
+                    decoder.readVarLong(),
+                    decoder.readInt(),
+                    decoder.readByte(),
+                    decoder.readVarLong(),
+                    decoder.readVarLong()));
+            }
+            manifest = new BackupManifest(sourcePath, archive, archiveLength, archiveModified, Collections.unmodifiableMap(entries));
+        } catch (final IOException | BinaryException ex) {
+            return null;
+        }
+
+        final File archive = manifest.archive;
+        if (!manifest.source.equals(source.getAbsolutePath())
+            || !archive.isFile()
+            || archive.length() != manifest.archiveLength
+            || archive.lastModified() != manifest.archiveModified) {
+            return null;
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest. It's written next to the file first and replaces the file once complete.
+     *
+     * @param file The manifest file
+     */
+    void write(final File file) throws IOException {
+        final BinaryEncoder encoder = new BinaryEncoder();
+        encoder.writeInt(MAGIC).writeInt(VERSION)
+            .writeString(this.source)
+            .writeString(this.archive.getPath())
+            .writeVarLong(this.archiveLength)
+            .writeVarLong(this.archiveModified)
+            .writeVarInt(this.entries.size());
+        for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+            final Entry value = entry.getValue();
+            encoder.writeString(entry.getKey())
+                .writeVarLong(value.size)
+                .writeVarLong(value.lastModified)
+                .writeInt(value.crc)
+                .writeByte(value.method)
+                .writeVarLong(value.compressedSize)
+                .writeVarLong(value.offset);
+        }
+
+        final File partial = new File(file.getPath() + ".part");
+        try (OutputStream out = Files.newOutputStream(partial.toPath())) {
+            encoder.writeTo(out);
+        }
+        try {
+            Files.move(partial.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException ex) {
+            Files.move(partial.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * A file backed up into the archive.
+     */
+    static final class Entry {
+        final long size;
+        final long lastModified;
+        final int crc;
+        final int method;
+        final long compressedSize;
+        // Where the local header of the entry starts in the archive
+        final long offset;
+
+        Entry(
+            final long size,
+            final long lastModified,
+            final int crc,
+            final int method,
+            final long compressedSize,
+            final long offset) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.crc = crc;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.offset = offset;
+        }
+    }
+}
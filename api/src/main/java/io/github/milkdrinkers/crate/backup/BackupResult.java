@@ -0,0 +1,57 @@
+package io.github.milkdrinkers.crate.backup;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link BackupEngine} run: the written archive, how many of its entries were
+ * copied from the previous archive, the files that failed to back up and timing statistics.
+ *
+ * @since 4.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class BackupResult {
+    /**
+     * The written archive.
+     */
+    private final File archive;
+    /**
+     * The number of files in the archive.
+     */
+    private final int entries;
+    /**
+     * The number of files that were unchanged and copied from the previous archive without
+     * compressing them again.
+     */
+    private final int reusedEntries;
+    /**
+     * The files that couldn't be backed up, mapped to the cause of the failure.
+     */
+    private final Map<File, Throwable> failures;
+    /**
+     * Wall-clock time of the whole run, in nanoseconds.
+     */
+    private final long elapsedTime;
+
+    /**
+     * @return Whether every discovered file was backed up
+     */
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * @param unit The unit to convert to
+     * @return Wall-clock time of the whole run in the given unit
+     */
+    public long getElapsedTime(final TimeUnit unit) {
+        return unit.convert(this.elapsedTime, TimeUnit.NANOSECONDS);
+    }
+}
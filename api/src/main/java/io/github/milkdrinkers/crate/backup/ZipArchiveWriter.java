@@ -0,0 +1,350 @@
+package io.github.milkdrinkers.crate.backup;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes a zip archive entry by entry from data that is already compressed.
+ * <p>
+ * Unlike {@link java.util.zip.ZipOutputStream}, entries are not deflated while they are written:
+ * their data is deflated beforehand, possibly on other threads, or copied unchanged from an earlier
+ * archive. Entry names are UTF-8, and the zip64 extensions are used where sizes, offsets or the
+ * number of entries exceed the limits of the original format.
+ * </p>
+ * <p>
+ * A writer is not thread-safe.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+final class ZipArchiveWriter {
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int ZIP64_EXTRA = 0x0001;
+    private static final int UTF8_NAMES = 0x0800;
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final long LIMIT = 0xFFFFFFFFL;
+    private static final int ENTRY_LIMIT = 0xFFFF;
+
+    private final FileChannel channel;
+    private final List<Record> records = new ArrayList<>();
+    private long position;
+
+    ZipArchiveWriter(final FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.position = channel.position();
+    }
+
+    /**
+     * @return The entries written so far, in archive order
+     */
+    List<Record> getRecords() {
+        return Collections.unmodifiableList(this.records);
+    }
+
+    /**
+     * Writes an entry from compressed data.
+     *
+     * @param record The entry, its checksum and sizes set
+     * @param data   The compressed data, {@code record.compressedSize} bytes of it are written
+     */
+    void write(final Record record, final byte[] data) throws IOException {
+        record.offset = this.position;
+        writeLocalHeader(record, false);
+        writeFully(ByteBuffer.wrap(data, 0, (int) record.compressedSize));
+        this.records.add(record);
+    }
+
+    /**
+     * Copies the data of an entry from an archive written earlier, without decompressing it.
+     *
+     * @param record The entry, its checksum and sizes set to those of the entry in the source
+     * @param source The archive containing the entry
+     * @param offset Where the local header of the entry starts in the source
+     * @return false if the source doesn't contain the entry at the offset, nothing is written then
+     */
+    boolean copy(final Record record, final FileChannel source, final long offset) throws IOException {
+        final ByteBuffer header = buffer(LOCAL_HEADER_SIZE + record.name.length);
+        if (offset < 0 || offset + header.capacity() > source.size()) {
+            return false;
+        }
+        readFully(source, header, offset);
+        if (header.getInt(0) != LOCAL_HEADER || (header.getShort(26) & 0xFFFF) != record.name.length) {
+            return false;
+        }
+        final byte[] name = new byte[record.name.length];
+        header.position(LOCAL_HEADER_SIZE);
+        header.get(name);
+        final long dataOffset = offset + LOCAL_HEADER_SIZE + name.length + (header.getShort(28) & 0xFFFF);
+        if (!Arrays.equals(name, record.name) || dataOffset + record.compressedSize > source.size()) {
+            return false;
+        }
+
+        record.offset = this.position;
+        writeLocalHeader(record, false);
+        long transferred = 0;
+        while (transferred < record.compressedSize) {
+            final long count = source.transferTo(
+                dataOffset + transferred,
+                record.compressedSize - transferred,
+                this.channel);
+            if (count <= 0) {
+                throw new EOFException("Unexpected end of the previous archive");
+            }
+            transferred += count;
+        }
+        this.position += record.compressedSize;
+        this.records.add(record);
+        return true;
+    }
+
+    /**
+     * Starts an entry whose data is written in parts through {@link #writeData(byte[], int)}. The
+     * checksum and sizes are filled into its header by {@link #complete(Record)}.
+     *
+     * @param record The entry
+     */
+    void begin(final Record record) throws IOException {
+        record.offset = this.position;
+        writeLocalHeader(record, true);
+    }
+
+    void writeData(final byte[] data, final int length) throws IOException {
+        writeFully(ByteBuffer.wrap(data, 0, length));
+    }
+
+    /**
+     * Completes an entry started by {@link #begin(Record)} once all of its data was written.
+     *
+     * @param record The entry, its checksum and sizes set
+     */
+    void complete(final Record record) throws IOException {
+        final ByteBuffer sizes = buffer(12);
+        sizes.putInt(record.crc).putInt(clamp(record.compressedSize)).putInt(clamp(record.size));
+        sizes.flip();
+        writeFully(sizes, record.offset + 14);
+
+        final ByteBuffer extra = buffer(16);
+        extra.putLong(record.size).putLong(record.compressedSize);
+        extra.flip();
+        writeFully(extra, record.offset + LOCAL_HEADER_SIZE + record.name.length + 4);
+        this.records.add(record);
+    }
+
+    /**
+     * Discards an entry started by {@link #begin(Record)}, e.g. because its file couldn't be read.
+     *
+     * @param record The entry
+     */
+    void discard(final Record record) throws IOException {
+        this.channel.truncate(record.offset);
+        this.channel.position(record.offset);
+        this.position = record.offset;
+    }
+
+    /**
+     * Writes the central directory. No entries can be added afterwards.
+     */
+    void finish() throws IOException {
+        int directorySize = 0;
+        for (final Record record : this.records) {
+            directorySize += CENTRAL_HEADER_SIZE + record.name.length + zip64ExtraSize(record);
+        }
+
+        final long directoryOffset = this.position;
+        final ByteBuffer directory = buffer(directorySize + 56 + 20 + 22);
+        for (final Record record : this.records) {
+            final int extraSize = zip64ExtraSize(record);
+            directory.putInt(CENTRAL_HEADER)
+                .putShort((short) VERSION_ZIP64)
+                .putShort((short) (extraSize > 0 ? VERSION_ZIP64 : VERSION))
+                .putShort((short) UTF8_NAMES)
+                .putShort((short) record.method)
+                .putInt(record.time)
+                .putInt(record.crc)
+                .putInt(clamp(record.compressedSize))
+                .putInt(clamp(record.size))
+                .putShort((short) record.name.length)
+                .putShort((short) extraSize)
+                .putShort((short) 0) // Comment length
+                .putShort((short) 0) // Disk number
+                .putShort((short) 0) // Internal attributes
+                .putInt(0) // External attributes
+                .putInt(clamp(record.offset))
+                .put(record.name);
+            if (extraSize > 0) {
+                directory.putShort((short) ZIP64_EXTRA).putShort((short) (extraSize - 4));
+                if (record.size >= LIMIT) {
+                    directory.putLong(record.size);
+                }
+                if (record.compressedSize >= LIMIT) {
+                    directory.putLong(record.compressedSize);
+                }
+                if (record.offset >= LIMIT) {
+                    directory.putLong(record.offset);
+                }
+            }
+        }
+
+        final int count = this.records.size();
+        if (count >= ENTRY_LIMIT || directoryOffset >= LIMIT) {
+            final long zip64Offset = directoryOffset + directorySize;
+            directory.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY)
+                .putLong(44) // Size of the remaining record
+                .putShort((short) VERSION_ZIP64)
+                .putShort((short) VERSION_ZIP64)
+                .putInt(0) // Disk number
+                .putInt(0) // Disk of the central directory
+                .putLong(count)
+                .putLong(count)
+                .putLong(directorySize)
+                .putLong(directoryOffset);
+            directory.putInt(ZIP64_LOCATOR)
+                .putInt(0) // Disk of the zip64 record
+                .putLong(zip64Offset)
+                .putInt(1); // Number of disks
+        }
+
+        directory.putInt(END_OF_CENTRAL_DIRECTORY)
+            .putShort((short) 0) // Disk number
+            .putShort((short) 0) // Disk of the central directory
+            .putShort((short) Math.min(count, ENTRY_LIMIT))
+            .putShort((short) Math.min(count, ENTRY_LIMIT))
+            .putInt(directorySize)
+            .putInt(clamp(directoryOffset))
+            .putShort((short) 0); // Comment length
+        directory.flip();
+        writeFully(directory);
+    }
+
+    private void writeLocalHeader(final Record record, final boolean reserveZip64) throws IOException {
+        final boolean zip64 = reserveZip64 || record.size >= LIMIT || record.compressedSize >= LIMIT;
+        final ByteBuffer header = buffer(LOCAL_HEADER_SIZE + record.name.length + (zip64 ? 20 : 0));
+        header.putInt(LOCAL_HEADER)
+            .putShort((short) (zip64 ? VERSION_ZIP64 : VERSION))
+            .putShort((short) UTF8_NAMES)
+            .putShort((short) record.method)
+            .putInt(record.time)
+            .putInt(record.crc)
+            .putInt(clamp(record.compressedSize))
+            .putInt(clamp(record.size))
+            .putShort((short) record.name.length)
+            .putShort((short) (zip64 ? 20 : 0))
+            .put(record.name);
+        if (zip64) {
+            header.putShort((short) ZIP64_EXTRA)
+                .putShort((short) 16)
+                .putLong(record.size)
+                .putLong(record.compressedSize);
+        }
+        header.flip();
+        writeFully(header);
+    }
+
+    private static int zip64ExtraSize(final Record record) {
+        int size = 0;
+        if (record.size >= LIMIT) {
+            size += 8;
+        }
+        if (record.compressedSize >= LIMIT) {
+            size += 8;
+        }
+        if (record.offset >= LIMIT) {
+            size += 8;
+        }
+        return size == 0 ? 0 : size + 4;
+    }
+
+    // Values that don't fit are stored in the zip64 extra field instead
+    private static int clamp(final long value) {
+        return (int) Math.min(value, LIMIT);
+    }
+
+    private static ByteBuffer buffer(final int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.position += this.channel.write(buffer);
+        }
+    }
+
+    private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+        throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the previous archive");
+            }
+        }
+    }
+
+    /**
+     * Converts a modification time to the MS-DOS date and time stored in zip headers, date in the
+     * upper and time in the lower half. Times outside of 1980 to 2107 are clamped to that range.
+     *
+     * @param millis The modification time in milliseconds since the epoch
+     * @return The MS-DOS date and time
+     */
+    static int dosTime(final long millis) {
+        final LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        final int year = Math.min(time.getYear(), 2107);
+        return (year - 1980) << 25
+            | time.getMonthValue() << 21
+            | time.getDayOfMonth() << 16
+            | time.getHour() << 11
+            | time.getMinute() << 5
+            | time.getSecond() >> 1;
+    }
+
+    /**
+     * An entry of the archive.
+     */
+    static final class Record {
+        final String path;
+        final byte[] name;
+        final int time;
+        int method;
+        int crc;
+        long size;
+        long compressedSize;
+        // Where the local header of the entry starts in the archive
+        long offset;
+
+        Record(final String path, final int time, final int method) {
+            this.path = path;
+            this.name = path.getBytes(StandardCharsets.UTF_8);
+            this.time = time;
+            this.method = method;
+        }
+    }
+}
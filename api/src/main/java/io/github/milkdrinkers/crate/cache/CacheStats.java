@@ -0,0 +1,54 @@
+package io.github.milkdrinkers.crate.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * An immutable snapshot of the statistics of a {@link FlatFileCache}.
+ *
+ * @since 4.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class CacheStats {
+    /**
+     * Number of lookups that returned an already open file.
+     */
+    private final long hitCount;
+    /**
+     * Number of lookups that had to open a file.
+     */
+    private final long missCount;
+    /**
+     * Number of files removed because of the size limit or the idle timeout.
+     */
+    private final long evictionCount;
+    /**
+     * Total time spent opening files, in nanoseconds.
+     */
+    private final long totalLoadTime;
+
+    /**
+     * @return The number of lookups
+     */
+    public long requestCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    /**
+     * @return The ratio of lookups that returned an already open file, 1.0 if there were no lookups
+     */
+    public double hitRate() {
+        final long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) this.hitCount / requests;
+    }
+
+    /**
+     * @return The average time spent opening a file in nanoseconds, 0 if no file was opened
+     */
+    public double averageLoadPenalty() {
+        return this.missCount == 0 ? 0.0 : (double) this.totalLoadTime / this.missCount;
+    }
+}
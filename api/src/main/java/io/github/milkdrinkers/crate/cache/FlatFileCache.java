@@ -0,0 +1,280 @@
+package io.github.milkdrinkers.crate.cache;
+
+import io.github.milkdrinkers.crate.AbstractConfigurationBuilder;
+import io.github.milkdrinkers.crate.internal.FileType;
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import io.github.milkdrinkers.crate.util.Valid;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of open {@link FlatFile} handles for a directory containing one file per entity,
+ * for example one file per player.
+ * <p>
+ * Files are mapped from an id to {@code <directory>/<id>.<extension>} and opened on demand through
+ * the builder of their format. Open files are evicted in least-recently-used order once the maximum
+ * size is exceeded, or once they haven't been accessed for the configured idle time. Files write
+ * every change as it is made, so evicted files are dropped without being written again.
+ * </p>
+ * <pre>{@code
+ * FlatFileCache<Yaml> players = FlatFileCache.builder(new File("playerdata"), FileType.YAML, Yaml::builder)
+ *     .maximumSize(500)
+ *     .expireAfterAccess(10, TimeUnit.MINUTES)
+ *     .build();
+ *
+ * Yaml data = players.get(uuid.toString());
+ * }</pre>
+ * <p>
+ * All operations are synchronized on the cache. Builders created with {@code lazy(true)} keep the
+ * time spent opening a file under the lock minimal, as the file is only parsed when first accessed.
+ * </p>
+ *
+ * @param <F> The type of the cached files
+ * @since 4.0.0
+ */
+public final class FlatFileCache<F extends FlatFile> {
+    private final File directory;
+    private final FileType fileType;
+    private final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier;
+    private final int maximumSize;
+    private final long expireAfterAccessNanos;
+    private final LinkedHashMap<String, Entry<F>> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private FlatFileCache(final Builder<F> builder) {
+        this.directory = builder.directory;
+        this.fileType = builder.fileType;
+        this.builderSupplier = builder.builderSupplier;
+        this.maximumSize = builder.maximumSize;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+    }
+
+    /**
+     * Creates a builder for a cache of the files in a directory.
+     *
+     * @param directory       The directory containing the files
+     * @param fileType        The format of the files, used to resolve their extension
+     * @param builderSupplier Supplies a new configuration builder for every opened file
+     * @param <F>             The type of the cached files
+     * @return A new builder
+     */
+    public static <F extends FlatFile> Builder<F> builder(
+        @NonNull final File directory,
+        @NonNull final FileType fileType,
+        @NonNull final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier) {
+        return new Builder<>(directory, fileType, builderSupplier);
+    }
+
+    /**
+     * Returns the open file of an id, opening it if it isn't cached.
+     *
+     * @param id The id of the file, used as file name without extension
+     * @return The open file
+     */
+    public synchronized F get(@NonNull final String id) {
+        final long now = System.nanoTime();
+        expireEntries(now);
+
+        final Entry<F> cached = this.entries.get(id);
+        if (cached != null) {
+            this.hitCount.increment();
+            cached.lastAccess = now;
+            return cached.flatFile;
+        }
+
+        this.missCount.increment();
+        final F flatFile = open(id);
+        this.totalLoadTime.add(System.nanoTime() - now);
+        this.entries.put(id, new Entry<>(flatFile, now));
+
+        evictOverflow();
+        return flatFile;
+    }
+
+    /**
+     * Returns the open file of an id without opening it or counting a lookup.
+     *
+     * @param id The id of the file
+     * @return The open file, or null if it isn't cached
+     */
+    @Nullable
+    public synchronized F getIfPresent(@NonNull final String id) {
+        final Entry<F> cached = this.entries.get(id);
+        return cached == null ? null : cached.flatFile;
+    }
+
+    /**
+     * Removes the file of an id from the cache.
+     *
+     * @param id The id of the file
+     */
+    public synchronized void invalidate(@NonNull final String id) {
+        this.entries.remove(id);
+    }
+
+    /**
+     * Removes all files from the cache, for example on shutdown.
+     */
+    public synchronized void invalidateAll() {
+        this.entries.clear();
+    }
+
+    /**
+     * Evicts the files that exceeded the idle time. Expiration is otherwise only checked on lookups,
+     * so this should be called periodically if the cache may go unused for long periods.
+     */
+    public synchronized void cleanUp() {
+        expireEntries(System.nanoTime());
+    }
+
+    /**
+     * @return The ids of the currently open files, from least to most recently used
+     */
+    public synchronized List<String> ids() {
+        return new ArrayList<>(this.entries.keySet());
+    }
+
+    /**
+     * @return The number of currently open files
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return A snapshot of the statistics of this cache
+     */
+    public CacheStats stats() {
+        return new CacheStats(
+            this.hitCount.sum(),
+            this.missCount.sum(),
+            this.evictionCount.sum(),
+            this.totalLoadTime.sum());
+    }
+
+    /**
+     * @return The directory containing the files
+     */
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    private F open(final String id) {
+        Valid.checkBoolean(
+            !id.isEmpty() && id.indexOf('/') == -1 && id.indexOf('\\') == -1 && !id.equals(".."),
+            "Invalid file id '" + id + "'");
+
+        final File file = new File(this.directory, id + "." + this.fileType.getExtension());
+        return this.builderSupplier.get().path(file).build();
+    }
+
+    private void expireEntries(final long now) {
+        if (this.expireAfterAccessNanos <= 0) {
+            return;
+        }
+
+        // Entries are in access order, so the first non-expired entry ends the scan
+        final Iterator<Entry<F>> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry<F> entry = iterator.next();
+            if (now - entry.lastAccess < this.expireAfterAccessNanos) {
+                return;
+            }
+            iterator.remove();
+            this.evictionCount.increment();
+        }
+    }
+
+    private void evictOverflow() {
+        if (this.maximumSize <= 0) {
+            return;
+        }
+
+        final Iterator<Entry<F>> iterator = this.entries.values().iterator();
+        while (this.entries.size() > this.maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictionCount.increment();
+        }
+    }
+
+    private static final class Entry<F> {
+        private final F flatFile;
+        private long lastAccess;
+
+        private Entry(final F flatFile, final long lastAccess) {
+            this.flatFile = flatFile;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Builder for a {@link FlatFileCache}.
+     *
+     * @param <F> The type of the cached files
+     */
+    public static final class Builder<F extends FlatFile> {
+        private final File directory;
+        private final FileType fileType;
+        private final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier;
+        private int maximumSize = 0;
+        private long expireAfterAccessNanos = 0;
+
+        private Builder(
+            final File directory,
+            final FileType fileType,
+            final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier) {
+            this.directory = directory;
+            this.fileType = fileType;
+            this.builderSupplier = builderSupplier;
+        }
+
+        /**
+         * Sets the maximum number of open files. Defaults to no limit.
+         *
+         * @param maximumSize The maximum number of open files, 0 for no limit
+         * @return this builder instance for method chaining
+         */
+        public Builder<F> maximumSize(final int maximumSize) {
+            Valid.checkBoolean(maximumSize >= 0, "Maximum size mustn't be negative");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the time after which an open file that wasn't accessed is evicted. Defaults to never.
+         *
+         * @param duration The idle time, 0 to never expire files
+         * @param unit     The unit of the duration
+         * @return this builder instance for method chaining
+         */
+        public Builder<F> expireAfterAccess(final long duration, @NonNull final TimeUnit unit) {
+            Valid.checkBoolean(duration >= 0, "Duration mustn't be negative");
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * @return A new cache with the settings of this builder
+         */
+        public FlatFileCache<F> build() {
+            if (!this.directory.exists()) {
+                this.directory.mkdirs();
+            }
+            return new FlatFileCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.milkdrinkers.crate.convert;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of converting a directory with {@link StreamingConverter}: the written files, the
+ * files that failed to convert and timing statistics.
+ *
+ * @since 4.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class ConversionResult {
+    /**
+     * The converted files, in the order their sources were discovered.
+     */
+    @ToString.Exclude
+    private final List<File> files;
+    /**
+     * The source files that failed to convert, mapped to the cause of the failure.
+     */
+    private final Map<File, Throwable> failures;
+    /**
+     * The number of workers that converted files concurrently.
+     */
+    private final int workers;
+    /**
+     * Wall-clock time of the whole run, in nanoseconds.
+     */
+    private final long elapsedTime;
+
+    /**
+     * @return Whether every discovered file was converted
+     */
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * @param unit The unit to convert to
+     * @return Wall-clock time of the whole run in the given unit
+     */
+    public long getElapsedTime(final TimeUnit unit) {
+        return unit.convert(this.elapsedTime, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.milkdrinkers.crate.convert;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Utility methods for {@link DataHandler} events.
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class DataEvents {
+    /**
+     * Passes a value held in memory to a handler, as the events a reader of the value would
+     * produce. Maps, collections and arrays are replayed recursively, every other value is a scalar.
+     *
+     * @param value   The value to replay, e.g. the data of a whole document
+     * @param handler The handler receiving the events
+     * @throws IOException if the handler fails
+     */
+    public void replay(@Nullable final Object value, @NonNull final DataHandler handler) throws IOException {
+        if (value instanceof Map) {
+            handler.startMap();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                handler.key(String.valueOf(entry.getKey()));
+                replay(entry.getValue(), handler);
+            }
+            handler.endMap();
+        } else if (value instanceof Collection) {
+            handler.startList();
+            for (final Object element : (Collection<?>) value) {
+                replay(element, handler);
+            }
+            handler.endList();
+        } else if (value != null && value.getClass().isArray()) {
+            handler.startList();
+            final int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                replay(Array.get(value, i), handler);
+            }
+            handler.endList();
+        } else {
+            handler.value(value);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.milkdrinkers.crate.convert;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Receives the content of a document as a stream of events, in document order.
+ * <p>
+ * A document is a map: its events start with {@link #startMap()} and end with the matching
+ * {@link #endMap()}. Every entry of a map is a {@link #key(String)} followed by one value, which is
+ * either a scalar passed to {@link #value(Object)} or a nested map or list. Lists contain values
+ * without keys.
+ * </p>
+ * <pre>{@code
+ * // {"name": "crate", "tags": ["a", "b"]}
+ * handler.startMap();
+ * handler.key("name");
+ * handler.value("crate");
+ * handler.key("tags");
+ * handler.startList();
+ * handler.value("a");
+ * handler.value("b");
+ * handler.endList();
+ * handler.endMap();
+ * }</pre>
+ *
+ * @see StreamFormat
+ * @since 4.0.0
+ */
+public interface DataHandler {
+    void startMap() throws IOException;
+
+    /**
+     * Starts an entry of the current map, its value follows.
+     *
+     * @param key The key of the entry
+     */
+    void key(String key) throws IOException;
+
+    void endMap() throws IOException;
+
+    void startList() throws IOException;
+
+    void endList() throws IOException;
+
+    /**
+     * A scalar, e.g. a string, number, boolean or date.
+     *
+     * @param value The value, null for an explicit null
+     */
+    void value(@Nullable Object value) throws IOException;
+}
@@ -0,0 +1,100 @@
+package io.github.milkdrinkers.crate.convert;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataHandler} building the value described by the events it receives, e.g. to keep a
+ * single section of a streamed document in memory. The first event starts the value: a map, a list
+ * or a single scalar.
+ *
+ * @since 4.0.0
+ */
+@SuppressWarnings("unchecked")
+public final class DataTreeBuilder implements DataHandler {
+    // The open maps and lists, the innermost last
+    private final List<Object> stack = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private Object result;
+    private boolean complete;
+
+    @Override
+    public void startMap() {
+        open(new LinkedHashMap<String, Object>());
+    }
+
+    @Override
+    public void key(final String key) {
+        this.keys.set(this.keys.size() - 1, key);
+    }
+
+    @Override
+    public void endMap() {
+        close();
+    }
+
+    @Override
+    public void startList() {
+        open(new ArrayList<>());
+    }
+
+    @Override
+    public void endList() {
+        close();
+    }
+
+    @Override
+    public void value(@Nullable final Object value) {
+        add(value);
+        if (this.stack.isEmpty()) {
+            this.complete = true;
+        }
+    }
+
+    /**
+     * @return true once the value started by the first event has ended
+     */
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    /**
+     * @return The built value, or null if it isn't complete yet
+     */
+    @Nullable
+    public Object getResult() {
+        return this.complete ? this.result : null;
+    }
+
+    private void open(final Object container) {
+        add(container);
+        this.stack.add(container);
+        this.keys.add(null);
+    }
+
+    private void close() {
+        this.stack.remove(this.stack.size() - 1);
+        this.keys.remove(this.keys.size() - 1);
+        if (this.stack.isEmpty()) {
+            this.complete = true;
+        }
+    }
+
+    private void add(final Object value) {
+        if (this.stack.isEmpty()) {
+            this.result = value;
+            return;
+        }
+
+        final Object parent = this.stack.get(this.stack.size() - 1);
+        if (parent instanceof Map) {
+            ((Map<String, Object>) parent).put(this.keys.get(this.keys.size() - 1), value);
+        } else {
+            ((List<Object>) parent).add(value);
+        }
+    }
+}
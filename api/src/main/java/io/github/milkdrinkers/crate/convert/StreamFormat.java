@@ -0,0 +1,46 @@
+package io.github.milkdrinkers.crate.convert;
+
+import io.github.milkdrinkers.crate.internal.FileType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads and writes a file format as a stream of {@link DataHandler} events, so documents can be
+ * converted between formats without building their whole tree in memory.
+ * <p>
+ * The format modules provide their implementation, e.g. {@code Json.streamFormat()}. Formats that
+ * can't be streamed in one direction buffer as little of the document as the format allows, as
+ * documented by the implementation.
+ * </p>
+ *
+ * @see StreamingConverter
+ * @since 4.0.0
+ */
+public interface StreamFormat {
+    /**
+     * @return The file type of the format, whose extension converted files get
+     */
+    FileType getFileType();
+
+    /**
+     * Reads a document and passes its content to a handler.
+     *
+     * @param in      The UTF-8 encoded document, not closed by this method
+     * @param handler The handler receiving the content
+     * @throws IOException if the document can't be read or isn't valid
+     */
+    void read(InputStream in, DataHandler handler) throws IOException;
+
+    /**
+     * Creates a handler writing the events it receives as a document. The document is complete and
+     * flushed once the root map ends. Handlers holding resources implement {@link java.io.Closeable}
+     * and are closed after the document, whether it was completed or not.
+     *
+     * @param out Where to write the UTF-8 encoded document, not closed by the handler
+     * @return The handler writing the document
+     * @throws IOException if the document can't be started
+     */
+    DataHandler newWriter(OutputStream out) throws IOException;
+}
@@ -0,0 +1,271 @@
+package io.github.milkdrinkers.crate.convert;
+
+import io.github.milkdrinkers.crate.internal.concurrent.ParallelRunner;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.Valid;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Converts documents between formats by piping the events of a {@link StreamFormat} reader into
+ * the writer of another format.
+ * <p>
+ * Unlike {@link io.github.milkdrinkers.crate.util.FlatFileConverter}, neither the source nor the
+ * target is loaded as a file: the document never exists as a whole in memory, so documents far larger
+ * than the heap can be converted as long as the formats stream them.
+ * </p>
+ * <pre>{@code
+ * StreamingConverter.convert(new File("export.yml"), Yaml.streamFormat(), new File("export.json"), Json.streamFormat());
+ *
+ * ConversionResult result = StreamingConverter.builder(new File("yaml"), Yaml.streamFormat(), new File("json"), Json.streamFormat())
+ *     .parallelism(4)
+ *     .build()
+ *     .convertAll();
+ * }</pre>
+ *
+ * @since 4.0.0
+ */
+public final class StreamingConverter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File sourceDirectory;
+    private final StreamFormat sourceFormat;
+    private final File targetDirectory;
+    private final StreamFormat targetFormat;
+    private final Executor executor;
+    private final int parallelism;
+
+    private StreamingConverter(final Builder builder) {
+        this.sourceDirectory = builder.sourceDirectory;
+        this.sourceFormat = builder.sourceFormat;
+        this.targetDirectory = builder.targetDirectory;
+        this.targetFormat = builder.targetFormat;
+        this.executor = builder.executor;
+        this.parallelism = builder.parallelism;
+    }
+
+    /**
+     * Converts a document read from a stream.
+     *
+     * @param in           The document to convert, not closed by this method
+     * @param sourceFormat The format of the document
+     * @param out          Where to write the converted document, not closed by this method
+     * @param targetFormat The format to convert to
+     * @throws IOException if the document can't be read or written
+     */
+    public static void convert(
+        @NonNull final InputStream in,
+        @NonNull final StreamFormat sourceFormat,
+        @NonNull final OutputStream out,
+        @NonNull final StreamFormat targetFormat) throws IOException {
+        final DataHandler writer = targetFormat.newWriter(out);
+        try {
+            sourceFormat.read(in, writer);
+        } finally {
+            if (writer instanceof Closeable) {
+                ((Closeable) writer).close();
+            }
+        }
+    }
+
+    /**
+     * Converts a file. The converted document is written next to the target first and replaces the
+     * target once it is complete, so a failed conversion never leaves a partial target behind.
+     *
+     * @param source       The file to convert
+     * @param sourceFormat The format of the file
+     * @param target       The file to write, replaced if it exists
+     * @param targetFormat The format to convert to
+     */
+    public static void convert(
+        @NonNull final File source,
+        @NonNull final StreamFormat sourceFormat,
+        @NonNull final File target,
+        @NonNull final StreamFormat targetFormat) {
+        final File partial = new File(target.getPath() + ".part");
+        try {
+            final File parent = target.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(source.toPath()), BUFFER_SIZE);
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial.toPath()), BUFFER_SIZE)) {
+                convert(in, sourceFormat, out, targetFormat);
+            }
+
+            try {
+                Files.move(partial.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException ex) {
+                Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException | RuntimeException ex) {
+            partial.delete();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while converting '" + source.getName() + "' to " + targetFormat.getFileType() + ".",
+                "In: '" + FileUtils.getParentDirPath(source) + "'");
+        }
+    }
+
+    /**
+     * Creates a builder for a converter of all files of a format in a directory.
+     *
+     * @param sourceDirectory The directory containing the files to convert
+     * @param sourceFormat    The format of the files, used to filter by extension
+     * @param targetDirectory The directory to write the converted files to
+     * @param targetFormat    The format to convert to
+     * @return A new builder
+     */
+    public static Builder builder(
+        @NonNull final File sourceDirectory,
+        @NonNull final StreamFormat sourceFormat,
+        @NonNull final File targetDirectory,
+        @NonNull final StreamFormat targetFormat) {
+        return new Builder(sourceDirectory, sourceFormat, targetDirectory, targetFormat);
+    }
+
+    /**
+     * Converts all files of the source format in the source directory, blocking until all of them
+     * were processed. Converted files keep their name with the extension of the target format. A
+     * file that fails to convert is recorded in {@link ConversionResult#getFailures()} and doesn't
+     * abort the run.
+     *
+     * @return The result of the run
+     */
+    public ConversionResult convertAll() {
+        final List<File> discovered = new ArrayList<>();
+        final String extension = "." + this.sourceFormat.getFileType().getExtension();
+        for (final File file : FileUtils.listFiles(this.sourceDirectory, extension)) {
+            if (file.isFile()) {
+                discovered.add(file);
+            }
+        }
+
+        final Run run = new Run(discovered.toArray(new File[0]));
+        final long start = System.nanoTime();
+        final int workers;
+        try {
+            workers = ParallelRunner.run(run.files.length, this.parallelism, this.executor, run::convertAt);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Interrupted while converting files",
+                "In: '" + this.sourceDirectory.getAbsolutePath() + "'");
+        }
+        return run.result(workers, System.nanoTime() - start);
+    }
+
+    private File targetOf(final File source) {
+        final String name = FileUtils.replaceExtensions(source.getName());
+        return new File(this.targetDirectory, name + "." + this.targetFormat.getFileType().getExtension());
+    }
+
+    private final class Run {
+        private final File[] files;
+        private final File[] targets;
+        private final Throwable[] errors;
+
+        private Run(final File[] files) {
+            this.files = files;
+            this.targets = new File[files.length];
+            this.errors = new Throwable[files.length];
+        }
+
+        private void convertAt(final int index) {
+            final File target = targetOf(this.files[index]);
+            try {
+                convert(this.files[index], StreamingConverter.this.sourceFormat, target, StreamingConverter.this.targetFormat);
+                this.targets[index] = target;
+            } catch (final Throwable throwable) {
+                this.errors[index] = throwable;
+            }
+        }
+
+        private ConversionResult result(final int workers, final long elapsed) {
+            final List<File> out = new ArrayList<>(this.files.length);
+            final Map<File, Throwable> failures = new LinkedHashMap<>();
+            for (int i = 0; i < this.files.length; i++) {
+                if (this.errors[i] != null) {
+                    failures.put(this.files[i], this.errors[i]);
+                } else {
+                    out.add(this.targets[i]);
+                }
+            }
+
+            return new ConversionResult(
+                Collections.unmodifiableList(out),
+                Collections.unmodifiableMap(failures),
+                workers,
+                elapsed);
+        }
+    }
+
+    /**
+     * Builder for a {@link StreamingConverter}.
+     */
+    public static final class Builder {
+        private final File sourceDirectory;
+        private final StreamFormat sourceFormat;
+        private final File targetDirectory;
+        private final StreamFormat targetFormat;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Builder(
+            final File sourceDirectory,
+            final StreamFormat sourceFormat,
+            final File targetDirectory,
+            final StreamFormat targetFormat) {
+            this.sourceDirectory = sourceDirectory;
+            this.sourceFormat = sourceFormat;
+            this.targetDirectory = targetDirectory;
+            this.targetFormat = targetFormat;
+        }
+
+        /**
+         * Sets the executor the workers run on. Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor The executor
+         * @return this builder instance for method chaining
+         */
+        public Builder executor(@NonNull final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files converted concurrently, including the calling thread.
+         * Defaults to the number of available processors.
+         *
+         * @param parallelism The maximum number of concurrent workers
+         * @return this builder instance for method chaining
+         */
+        public Builder parallelism(final int parallelism) {
+            Valid.checkBoolean(parallelism > 0, "Parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @return A new converter with the settings of this builder
+         */
+        public StreamingConverter build() {
+            return new StreamingConverter(this);
+        }
+    }
+}
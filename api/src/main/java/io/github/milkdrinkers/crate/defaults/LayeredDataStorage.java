@@ -0,0 +1,172 @@
+package io.github.milkdrinkers.crate.defaults;
+
+import io.github.milkdrinkers.crate.internal.DataStorage;
+import io.github.milkdrinkers.crate.internal.FileData;
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import io.github.milkdrinkers.crate.internal.FrozenFileData;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link DataStorage} resolving values through a file and any number of default layers below it.
+ * <p>
+ * Lookups return the value of the file if present, otherwise the value of the first default layer
+ * containing the key. Defaults are never copied into the file, so the file only holds what was
+ * explicitly set and no write is needed to apply them. Writes and removals only affect the file.
+ * </p>
+ * <pre>{@code
+ * DataStorage config = new LayeredDataStorage(yaml, Yaml.sharedDefaults("config.yml"))
+ *     .withDefaults(hardcodedDefaults);
+ * }</pre>
+ * <p>
+ * Values are resolved per key: a section returned by {@link #get(String)} is the section of the
+ * highest layer containing it, without the keys of the layers below.
+ * </p>
+ * <p>
+ * Like in the file, keys passed to {@link #get(String)} and {@link #contains(String)} are relative to
+ * the path prefix of the file, so the layers are looked up under the same prefix. Key sets aren't
+ * prefixed, matching {@link FlatFile#keySet()}.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public class LayeredDataStorage implements DataStorage {
+    @Getter
+    private final FlatFile flatFile;
+    private final List<FileData> layers;
+
+    /**
+     * @param flatFile The file on top of the defaults, receiving all writes
+     * @param defaults The default layers, from highest to lowest priority
+     */
+    public LayeredDataStorage(@NonNull final FlatFile flatFile, @NonNull final FileData... defaults) {
+        this(flatFile, Arrays.asList(defaults));
+    }
+
+    private LayeredDataStorage(final FlatFile flatFile, final List<FileData> layers) {
+        this.flatFile = flatFile;
+        this.layers = Collections.unmodifiableList(new ArrayList<>(layers));
+    }
+
+    /**
+     * Returns a storage with an additional default layer below the existing ones,
+     * typically the defaults hardcoded in the application.
+     *
+     * @param defaults The defaults of the new lowest layer
+     * @return A new storage with the additional layer
+     */
+    public LayeredDataStorage withDefaults(@NonNull final Map<String, Object> defaults) {
+        return withDefaults(new FrozenFileData(defaults, DataType.SORTED));
+    }
+
+    /**
+     * Returns a storage with an additional default layer below the existing ones.
+     *
+     * @param defaults The defaults of the new lowest layer
+     * @return A new storage with the additional layer
+     */
+    public LayeredDataStorage withDefaults(@NonNull final FileData defaults) {
+        final List<FileData> out = new ArrayList<>(this.layers);
+        out.add(defaults);
+        return new LayeredDataStorage(this.flatFile, out);
+    }
+
+    /**
+     * @return The default layers, from highest to lowest priority
+     */
+    public List<FileData> getLayers() {
+        return this.layers;
+    }
+
+    @Override
+    public Object get(final String key) {
+        final Object value = this.flatFile.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        final String layerKey = layerKey(key);
+        for (final FileData layer : this.layers) {
+            final Object fallback = layer.get(layerKey);
+            if (fallback != null) {
+                return fallback;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(final String key) {
+        if (this.flatFile.contains(key)) {
+            return true;
+        }
+
+        final String layerKey = layerKey(key);
+        for (final FileData layer : this.layers) {
+            if (layer.containsKey(layerKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void set(final String key, final Object value) {
+        this.flatFile.set(key, value);
+    }
+
+    @Override
+    public void remove(final String key) {
+        this.flatFile.remove(key);
+    }
+
+    @Override
+    public Set<String> singleLayerKeySet() {
+        final Set<String> out = new LinkedHashSet<>(this.flatFile.singleLayerKeySet());
+        for (final FileData layer : this.layers) {
+            out.addAll(layer.singleLayerKeySet());
+        }
+        return out;
+    }
+
+    @Override
+    public Set<String> singleLayerKeySet(final String key) {
+        final Set<String> out = new LinkedHashSet<>(this.flatFile.singleLayerKeySet(key));
+        for (final FileData layer : this.layers) {
+            out.addAll(layer.singleLayerKeySet(key));
+        }
+        return out;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        final Set<String> out = new LinkedHashSet<>(this.flatFile.keySet());
+        for (final FileData layer : this.layers) {
+            out.addAll(layer.keySet());
+        }
+        return out;
+    }
+
+    @Override
+    public Set<String> keySet(final String key) {
+        final Set<String> out = new LinkedHashSet<>(this.flatFile.keySet(key));
+        for (final FileData layer : this.layers) {
+            out.addAll(layer.keySet(key));
+        }
+        return out;
+    }
+
+    private String layerKey(final String key) {
+        final String prefix = this.flatFile.getPathPrefix();
+        return prefix == null ? key : prefix + "." + key;
+    }
+}
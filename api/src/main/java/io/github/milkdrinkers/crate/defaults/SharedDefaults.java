@@ -0,0 +1,118 @@
+package io.github.milkdrinkers.crate.defaults;
+
+import io.github.milkdrinkers.crate.internal.FileData;
+import io.github.milkdrinkers.crate.internal.FrozenFileData;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.provider.InputStreamProvider;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.util.Valid;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches parsed default resources, so every file built from the same bundled resource shares
+ * a single immutable defaults tree instead of parsing and holding its own copy.
+ * <p>
+ * The format modules expose this through helpers like {@code Yaml.sharedDefaults(resource)}. The
+ * resource is parsed once and the resulting read-only tree is shared by all callers, for use as a
+ * layer of a {@link LayeredDataStorage} instead of copying the defaults into every file.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class SharedDefaults {
+    private final ConcurrentMap<ResourceKey, FileData> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Parses the contents of a defaults resource.
+     */
+    @FunctionalInterface
+    public interface Parser {
+        Map<String, Object> parse(InputStream inputStream) throws IOException;
+    }
+
+    /**
+     * Returns the parsed defaults of a resource, parsing it on first use.
+     *
+     * @param inputStreamProvider The provider used to open the resource
+     * @param resource            The name of the resource
+     * @param parser              Parses the resource into a map
+     * @return The shared, read-only defaults of the resource
+     */
+    public FileData resource(
+        @NonNull final InputStreamProvider inputStreamProvider,
+        @NonNull final String resource,
+        @NonNull final Parser parser) {
+        return cache.computeIfAbsent(
+            new ResourceKey(inputStreamProvider, resource),
+            key -> parse(inputStreamProvider, resource, parser));
+    }
+
+    /**
+     * Drops the cached defaults of a resource, so the next lookup parses it again.
+     *
+     * @param inputStreamProvider The provider the resource was opened with
+     * @param resource            The name of the resource
+     */
+    public void invalidate(@NonNull final InputStreamProvider inputStreamProvider, @NonNull final String resource) {
+        cache.remove(new ResourceKey(inputStreamProvider, resource));
+    }
+
+    /**
+     * Drops all cached defaults.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private FileData parse(
+        final InputStreamProvider inputStreamProvider,
+        final String resource,
+        final Parser parser) {
+        final InputStream inputStream = Valid.notNull(
+            inputStreamProvider.createInputStreamFromInnerResource(resource),
+            "Default resource '" + resource + "' not found");
+
+        try (InputStream in = inputStream) {
+            final Map<String, Object> data = parser.parse(in);
+            return new FrozenFileData(data == null ? Collections.emptyMap() : data, DataType.SORTED);
+        } catch (final IOException ex) {
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while parsing default resource '" + resource + "'");
+        }
+    }
+
+    private final class ResourceKey {
+        private final InputStreamProvider inputStreamProvider;
+        private final String resource;
+
+        private ResourceKey(final InputStreamProvider inputStreamProvider, final String resource) {
+            this.inputStreamProvider = inputStreamProvider;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ResourceKey)) {
+                return false;
+            }
+            final ResourceKey other = (ResourceKey) obj;
+            return this.inputStreamProvider == other.inputStreamProvider && this.resource.equals(other.resource);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(this.inputStreamProvider), this.resource);
+        }
+    }
+}
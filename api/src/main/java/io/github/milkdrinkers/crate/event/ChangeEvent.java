@@ -0,0 +1,49 @@
+package io.github.milkdrinkers.crate.event;
+
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Describes the change of a single key of a {@link FlatFile} between two reloads.
+ *
+ * @since 4.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class ChangeEvent {
+    /**
+     * The kind of change of a key.
+     */
+    public enum Type {
+        /**
+         * The key didn't exist before the reload.
+         */
+        ADDED,
+        /**
+         * The key doesn't exist anymore after the reload.
+         */
+        REMOVED,
+        /**
+         * The key exists before and after the reload, but its value differs.
+         */
+        MODIFIED
+    }
+
+    private final Type type;
+    /**
+     * The full dotted path of the changed key.
+     */
+    private final String key;
+    /**
+     * The value before the reload, null if the key was added.
+     */
+    private final @Nullable Object oldValue;
+    /**
+     * The value after the reload, null if the key was removed.
+     */
+    private final @Nullable Object newValue;
+}
@@ -0,0 +1,17 @@
+package io.github.milkdrinkers.crate.event;
+
+/**
+ * Listener receiving the per-key changes of a file after it was reloaded.
+ *
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Called for every changed key below the path prefix the listener was registered for.
+     *
+     * @param event The change
+     */
+    void onChange(final ChangeEvent event);
+}
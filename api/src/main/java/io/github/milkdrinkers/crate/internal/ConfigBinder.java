@@ -0,0 +1,187 @@
+package io.github.milkdrinkers.crate.internal;
+
+import io.github.milkdrinkers.crate.annotation.ConfigPath;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.serialize.CrateSerializer;
+import io.github.milkdrinkers.crate.util.ClassWrapper;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Binds the {@link ConfigPath} annotated fields of a class to the values of a {@link DataStorage}.
+ * <p>
+ * The fields of a class are only inspected once. Every annotated field is compiled into a
+ * {@link MethodHandle} setter and a converter for its type, so binding an instance afterwards
+ * performs no reflective lookups. Binders are cached with a {@link ClassValue}, so they don't keep
+ * the class and its class loader reachable once the class is unloaded.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class ConfigBinder {
+    private static final ClassValue<ConfigBinder> BINDERS = new ClassValue<ConfigBinder>() {
+        @Override
+        protected ConfigBinder computeValue(final Class<?> type) {
+            return new ConfigBinder(type);
+        }
+    };
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Binding[] bindings;
+
+    private ConfigBinder(final Class<?> type) {
+        this.type = type;
+
+        final List<Binding> out = new ArrayList<>();
+        for (final Field field : type.getFields()) {
+            final ConfigPath configPath = field.getAnnotation(ConfigPath.class);
+            if (configPath != null) {
+                out.add(new Binding(field, configPath.value()));
+            }
+        }
+        this.bindings = out.toArray(new Binding[0]);
+    }
+
+    /**
+     * Returns the binder of a class, compiling it on first use.
+     *
+     * @param type The class containing {@link ConfigPath} annotated fields
+     * @return The cached binder of the class
+     */
+    public static ConfigBinder of(@NonNull final Class<?> type) {
+        return BINDERS.get(type);
+    }
+
+    /**
+     * Sets every annotated field of the instance to the value found at its path.
+     * Fields whose path is not present in the storage keep their current value.
+     *
+     * @param storage  The storage to read the values from
+     * @param instance The instance to bind
+     */
+    public void bind(@NonNull final DataStorage storage, @NonNull final Object instance) {
+        bind(storage, instance, null);
+    }
+
+    /**
+     * Sets every annotated field of the instance to the value found at its path.
+     * Fields whose path is not present in the storage keep their current value.
+     *
+     * @param storage         The storage to read the values from
+     * @param instance        The instance to bind
+     * @param elementSelector Maps the annotated path of a field to the path looked up in the storage,
+     *                        or null to use the annotated path as is
+     */
+    public void bind(
+        @NonNull final DataStorage storage,
+        @NonNull final Object instance,
+        @Nullable final BiFunction<String, Field, String> elementSelector) {
+        bind(storage::get, instance, elementSelector);
+    }
+
+    /**
+     * Sets every annotated field of the instance to the value looked up at its path.
+     * Fields whose path has no value keep their current value.
+     *
+     * @param lookup          Returns the value at a path, or null if there is none
+     * @param instance        The instance to bind
+     * @param elementSelector Maps the annotated path of a field to the path looked up,
+     *                        or null to use the annotated path as is
+     */
+    public void bind(
+        @NonNull final Function<String, Object> lookup,
+        @NonNull final Object instance,
+        @Nullable final BiFunction<String, Field, String> elementSelector) {
+        for (final Binding binding : this.bindings) {
+            final String path = elementSelector == null
+                ? binding.path
+                : elementSelector.apply(binding.path, binding.field);
+            final Object raw = lookup.apply(path);
+            if (raw == null) {
+                continue;
+            }
+
+            try {
+                binding.set(instance, raw);
+            } catch (final Throwable throwable) {
+                throw CrateProviders.exceptionHandler().create(
+                    throwable,
+                    "Unable to set the value of field '" + binding.field.getName() + "' in " + this.type.getName(),
+                    "Path: '" + path + "'");
+            }
+        }
+    }
+
+    static Function<Object, Object> converterFor(final Class<?> type) {
+        if (type.isPrimitive()
+            || Number.class.isAssignableFrom(type)
+            || type == Boolean.class
+            || type.isArray()) {
+            return raw -> ClassWrapper.getFromDef(raw, type);
+        } else if (type == String.class) {
+            return String::valueOf;
+        } else if (type.isEnum()) {
+            return raw -> type.isInstance(raw) ? raw : enumValue(type, raw.toString());
+        }
+        return raw -> type.isInstance(raw) || !CrateSerializer.isSerializable(type)
+            ? raw
+            : CrateSerializer.deserialize(raw, type, "");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(final Class<?> type, final String name) {
+        return Enum.valueOf((Class) type, name);
+    }
+
+    private static final class Binding {
+        private final Field field;
+        private final String path;
+        private final Function<Object, Object> converter;
+        @Nullable
+        private final MethodHandle setter;
+
+        private Binding(final Field field, final String path) {
+            this.field = field;
+            this.path = path;
+            this.converter = converterFor(field.getType());
+
+            field.setAccessible(true);
+            this.setter = Modifier.isFinal(field.getModifiers()) ? null : compileSetter(field);
+        }
+
+        private static MethodHandle compileSetter(final Field field) {
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(SETTER_TYPE);
+            } catch (final IllegalAccessException ex) {
+                throw CrateProviders.exceptionHandler().create(
+                    ex,
+                    "Unable to access field '" + field.getName() + "' in " + field.getDeclaringClass().getName());
+            }
+        }
+
+        private void set(final Object instance, final Object raw) throws Throwable {
+            final Object value = this.converter.apply(raw);
+            if (this.setter != null) {
+                this.setter.invokeExact(instance, value);
+            } else {
+                // Final fields can't be written through a MethodHandle
+                this.field.set(instance, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.milkdrinkers.crate.internal;
+
+import io.github.milkdrinkers.crate.annotation.ConfigPath;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.util.Valid;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Backs the interface views created by {@link FlatFile#view(Class)}.
+ * <p>
+ * Every annotated method is resolved into an accessor holding its full path and converter. Converted
+ * values are cached per revision of the {@link FlatFile}, so repeated calls neither split the path
+ * nor convert the value again until the file is reloaded or modified.
+ * </p>
+ * <p>
+ * Methods the proxy can't implement, such as abstract methods without {@link ConfigPath} and default
+ * methods, are rejected when the view is created rather than when they are called.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+final class ConfigView implements InvocationHandler {
+    private static final Object UNRESOLVED = new Object();
+
+    private final FlatFile flatFile;
+    private final Class<?> viewType;
+    private final Map<Method, Accessor> accessors;
+    private volatile Snapshot snapshot = new Snapshot(-1, 0);
+
+    private ConfigView(final FlatFile flatFile, final Class<?> viewType) {
+        this.flatFile = flatFile;
+        this.viewType = viewType;
+        this.accessors = new HashMap<>();
+
+        final String prefix = flatFile.getPathPrefix();
+        int index = 0;
+        for (final Method method : viewType.getMethods()) {
+            final ConfigPath configPath = method.getAnnotation(ConfigPath.class);
+            if (configPath == null) {
+                Valid.checkBoolean(
+                    Modifier.isStatic(method.getModifiers()) || isObjectMethod(method),
+                    "Method '" + method.getName() + "' of view " + viewType.getName() + " has no @ConfigPath",
+                    method.isDefault()
+                        ? "Default methods can't be invoked on views, move the method out of the interface"
+                        : "Annotate it with @ConfigPath or remove it from the interface");
+                continue;
+            }
+
+            Valid.checkBoolean(
+                method.getParameterCount() == 0,
+                "Method '" + method.getName() + "' of view " + viewType.getName() + " mustn't have parameters");
+            Valid.checkBoolean(
+                method.getReturnType() != void.class,
+                "Method '" + method.getName() + "' of view " + viewType.getName() + " must return a value");
+
+            final String path = prefix == null ? configPath.value() : prefix + "." + configPath.value();
+            this.accessors.put(method, new Accessor(index++, path, method.getReturnType()));
+        }
+    }
+
+    // equals, hashCode and toString, which the proxy implements itself
+    private static boolean isObjectMethod(final Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (final NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    static <T> T create(final FlatFile flatFile, final Class<T> viewType) {
+        Valid.checkBoolean(viewType.isInterface(), "View type " + viewType.getName() + " must be an interface");
+
+        final Object proxy = Proxy.newProxyInstance(
+            viewType.getClassLoader(),
+            new Class<?>[]{viewType},
+            new ConfigView(flatFile, viewType));
+        return viewType.cast(proxy);
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        final Accessor accessor = this.accessors.get(method);
+        if (accessor == null) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+
+        this.flatFile.reloadIfNeeded();
+        final long revision = this.flatFile.getRevision();
+        Snapshot current = this.snapshot;
+        if (current.revision != revision) {
+            current = new Snapshot(revision, this.accessors.size());
+            this.snapshot = current;
+        }
+
+        Object value = current.values[accessor.index];
+        if (value == UNRESOLVED) {
+            value = accessor.resolve(this.flatFile.getFileData());
+            current.values[accessor.index] = value;
+        }
+        return value;
+    }
+
+    private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return args != null && args.length == 1 && proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return this.viewType.getSimpleName() + "View{" + this.flatFile.getName() + "}";
+            default:
+                throw new UnsupportedOperationException(
+                    "Method '" + method.getName() + "' of view " + this.viewType.getName() + " has no @ConfigPath");
+        }
+    }
+
+    private static final class Snapshot {
+        private final long revision;
+        private final Object[] values;
+
+        private Snapshot(final long revision, final int size) {
+            this.revision = revision;
+            this.values = new Object[size];
+            Arrays.fill(this.values, UNRESOLVED);
+        }
+    }
+
+    private static final class Accessor {
+        private final int index;
+        private final String path;
+        private final Class<?> type;
+        private final Function<Object, Object> converter;
+
+        private Accessor(final int index, final String path, final Class<?> type) {
+            this.index = index;
+            this.path = path;
+            this.type = type;
+            this.converter = ConfigBinder.converterFor(type);
+        }
+
+        private Object resolve(final FileData fileData) {
+            final Object raw = fileData.get(this.path);
+            if (raw == null) {
+                return defaultValue(this.type);
+            }
+
+            try {
+                return this.converter.apply(raw);
+            } catch (final RuntimeException ex) {
+                throw CrateProviders.exceptionHandler().create(
+                    ex,
+                    "Unable to convert the value at '" + this.path + "' to " + this.type.getName());
+            }
+        }
+
+        private static Object defaultValue(final Class<?> type) {
+            if (!type.isPrimitive()) {
+                return null;
+            } else if (type == boolean.class) {
+                return false;
+            } else if (type == char.class) {
+                return '\0';
+            } else if (type == byte.class) {
+                return (byte) 0;
+            } else if (type == short.class) {
+                return (short) 0;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == long.class) {
+                return 0L;
+            } else if (type == float.class) {
+                return 0F;
+            }
+            return 0D;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.milkdrinkers.crate.internal;
 
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.util.CompactMap;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,7 +20,7 @@ public class FileData {
     public FileData(final Map<String, Object> map, final DataType dataType) {
         this.localMap = dataType.getMapImplementation();
 
-        this.localMap.putAll(map);
+        putAllInternal(map);
     }
 
     public void clear() {
@@ -35,7 +36,7 @@ public class FileData {
         clear();
 
         if (map != null) {
-            this.localMap.putAll(map);
+            putAllInternal(map);
         }
     }
 
@@ -289,7 +290,35 @@ public class FileData {
     }
 
     public void putAll(final Map<String, Object> map) {
-        this.localMap.putAll(map);
+        putAllInternal(map);
+    }
+
+    private void putAllInternal(final Map<String, Object> map) {
+        if (this.localMap instanceof CompactMap) {
+            // Nested sections read by the parsers are converted, so the whole tree stays compact
+            for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                this.localMap.put(entry.getKey(), compact(entry.getValue()));
+            }
+        } else {
+            this.localMap.putAll(map);
+        }
+    }
+
+    private Object compact(final Object value) {
+        if (value instanceof LazySection) {
+            // Compacted once parsed, so untouched sections stay unparsed
+            return ((LazySection) value).transform(map -> (Map<String, Object>) compact(map));
+        }
+        if (!(value instanceof Map) || value instanceof CompactMap) {
+            return value;
+        }
+
+        final Map<String, Object> map = (Map<String, Object>) value;
+        final CompactMap<String, Object> out = new CompactMap<>(map.size());
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            out.put(entry.getKey(), compact(entry.getValue()));
+        }
+        return out;
     }
 
     private int size(final Map<String, Object> map) {
@@ -318,11 +347,21 @@ public class FileData {
         return this.localMap instanceof LinkedHashMap;
     }
 
+    public boolean isCompact() {
+        return this.localMap instanceof CompactMap;
+    }
+
     public Map<String, Object> createNewMap() {
+        if (isCompact()) {
+            return new CompactMap<>();
+        }
         return isSorted() ? new LinkedHashMap<>() : new HashMap<>();
     }
 
     public Map<String, Object> createNewMap(Map<String, Object> value) {
+        if (isCompact()) {
+            return new CompactMap<>(value);
+        }
         return isSorted() ? new LinkedHashMap<>(value) : new HashMap<>(value);
     }
 
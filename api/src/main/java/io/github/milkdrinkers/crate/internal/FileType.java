@@ -11,7 +11,8 @@ import java.io.File;
 public enum FileType {
     JSON("json"),
     YAML("yml"),
-    TOML("toml");
+    TOML("toml"),
+    BINARY("bin");
 
     private final String extension;
 
@@ -1,22 +1,36 @@
 package io.github.milkdrinkers.crate.internal;
 
 import io.github.milkdrinkers.crate.annotation.ConfigPath;
+import io.github.milkdrinkers.crate.event.ChangeEvent;
+import io.github.milkdrinkers.crate.event.ChangeListener;
+import io.github.milkdrinkers.crate.internal.event.FileDataDiff;
+import io.github.milkdrinkers.crate.internal.jfr.CrateEvent;
+import io.github.milkdrinkers.crate.internal.jfr.CrateEventType;
+import io.github.milkdrinkers.crate.internal.jfr.CrateEvents;
+import io.github.milkdrinkers.crate.internal.provider.CrateMetrics;
 import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
 import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.metrics.BlockingIoDetector;
 import io.github.milkdrinkers.crate.sections.FlatFileSection;
 import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.StringPool;
 import io.github.milkdrinkers.crate.util.Valid;
 import lombok.*;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.Deflater;
 
 @Getter
 @ToString
@@ -33,21 +47,63 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     protected Consumer<FlatFile> reloadConsumer;
     @Setter
     protected String pathPrefix;
+    @Nullable
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    protected StringPool stringPool;
+    protected final Compression compression;
+    protected final int compressionLevel;
     private long lastLoaded;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final AtomicLong revision = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<ChangeSubscription> changeListeners = new CopyOnWriteArrayList<>();
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<Rebinding> rebindings = new CopyOnWriteArrayList<>();
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile boolean loaded;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile boolean readOnly;
 
     protected FlatFile(
         @NonNull final String name,
         @Nullable final String path,
         @NonNull final FileType fileType,
         @Nullable final Consumer<FlatFile> reloadConsumer) {
+        this(name, path, fileType, reloadConsumer, null, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    protected FlatFile(
+        @NonNull final String name,
+        @Nullable final String path,
+        @NonNull final FileType fileType,
+        @Nullable final Consumer<FlatFile> reloadConsumer,
+        @Nullable final Compression compression,
+        final int compressionLevel) {
         Valid.checkBoolean(!name.isEmpty(), "Name mustn't be empty");
+        Valid.checkBoolean(Compression.isValidLevel(compressionLevel), "Invalid compression level " + compressionLevel);
         this.fileType = fileType;
         this.reloadConsumer = reloadConsumer;
+        this.compression = compression == null ? Compression.NONE : compression;
+        this.compressionLevel = compressionLevel;
+
+        // Compressed files carry the extension of their compression, e.g. 'config.yml.gz'
+        final String fileName = this.compression.fileName(name);
         if (path == null || path.isEmpty()) {
-            this.file = new File(name);
+            this.file = new File(fileName);
         } else {
             final String fixedPath = path.replace("\\", "/");
-            this.file = new File(fixedPath + File.separator + name);
+            this.file = new File(fixedPath + File.separator + fileName);
         }
     }
 
@@ -56,7 +112,7 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     // ----------------------------------------------------------------------------------------------------
 
     /**
-     * Creates an empty .yml, .json or .toml file.
+     * Creates an empty .yml, .json, .toml or .bin file.
      *
      * @return true if file was created.
      */
@@ -64,6 +120,95 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
         return createFile(this.file);
     }
 
+    /**
+     * Writes the content of a stream to the file, compressing it if the file is stored compressed.
+     *
+     * @param inputStream The uncompressed content to write
+     */
+    protected final void writeToFile(@NonNull final InputStream inputStream) {
+        if (this.compression == Compression.NONE) {
+            FileUtils.writeToFile(this.file, inputStream);
+            return;
+        }
+
+        try (OutputStream out = openOutputStream()) {
+            final byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+        } catch (final IOException ex) {
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while writing InputStream to '" + this.file.getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(this.file) + "'");
+        }
+    }
+
+    /**
+     * Opens a stream reading the content of the file, decompressed if the file is stored compressed.
+     *
+     * @return A buffered stream of the content of the file
+     * @throws IOException If the file can't be opened
+     * @see Compression#newInputStream(File)
+     */
+    protected final InputStream openInputStream() throws IOException {
+        return this.compression.newInputStream(this.file);
+    }
+
+    /**
+     * Reads the whole content of the file, decompressed if the file is stored compressed.
+     *
+     * @return The content of the file
+     * @throws IOException If the file can't be read
+     */
+    protected final byte[] readAllBytes() throws IOException {
+        if (this.compression == Compression.NONE) {
+            return Files.readAllBytes(this.file.toPath());
+        }
+
+        try (InputStream inputStream = openInputStream()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(this.file.length() * 4, 1 << 24));
+            final byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Opens a stream replacing the content of the file, compressed if the file is stored compressed.
+     *
+     * @return A buffered stream writing the file
+     * @throws IOException If the file can't be opened
+     * @see Compression#newOutputStream(File, int)
+     */
+    protected final OutputStream openOutputStream() throws IOException {
+        return this.compression.newOutputStream(this.file, this.compressionLevel);
+    }
+
+    /**
+     * Opens a UTF-8 reader of the content of the file, decompressed if the file is stored compressed.
+     *
+     * @return A reader of the content of the file
+     * @throws IOException If the file can't be opened
+     */
+    protected final BufferedReader openReader() throws IOException {
+        return this.compression.newReader(this.file);
+    }
+
+    /**
+     * Opens a UTF-8 writer replacing the content of the file, compressed if the file is stored compressed.
+     *
+     * @return A writer of the file
+     * @throws IOException If the file can't be opened
+     */
+    protected final BufferedWriter openWriter() throws IOException {
+        return this.compression.newWriter(this.file, this.compressionLevel);
+    }
+
     private synchronized boolean createFile(final File file) {
         if (file.exists()) {
             this.lastLoaded = System.currentTimeMillis();
@@ -92,6 +237,20 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
      */
     protected abstract void write(final FileData data) throws IOException;
 
+    /**
+     * Writes a single value changed by {@link #set(String, Object)} without rewriting the whole file.
+     * Implementations that can't apply the change on its own return false, in which case the whole
+     * file is written instead.
+     *
+     * @param key      The full path of the changed value
+     * @param previous The value before the change, null if the key was absent
+     * @param value    The new value
+     * @return true if the change was written
+     */
+    protected boolean writeChange(final String key, @Nullable final Object previous, final Object value) {
+        return false;
+    }
+
     protected void handleReloadException(final IOException ioException) {
         final String fileName = this.fileType == null
             ? "File"
@@ -106,10 +265,26 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
 
     @Override
     public synchronized void set(final String key, final Object value) {
+        checkWritable();
         reloadIfNeeded();
         final String finalKey = (this.pathPrefix == null) ? key : this.pathPrefix + "." + key;
+        final Object previous = this.fileData.get(finalKey);
         this.fileData.insert(finalKey, value);
-        write();
+        markModified();
+        final long blocking = BlockingIoDetector.begin();
+        try {
+            final CrateEvent event = CrateEvents.begin(CrateEventType.WRITE);
+            final long start = System.nanoTime();
+            if (writeChange(finalKey, previous, value)) {
+                final long bytes = this.file.length();
+                CrateProviders.metrics().onWrite(this.fileType, this.file, bytes, System.nanoTime() - start);
+                event.finish(this.file, this.fileType, bytes, this.fileData.size());
+            } else {
+                write();
+            }
+        } finally {
+            BlockingIoDetector.end(blocking, "write", this.file);
+        }
         this.lastLoaded = System.currentTimeMillis();
     }
 
@@ -159,8 +334,10 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
 
     @Override
     public final synchronized void remove(final String key) {
+        checkWritable();
         reloadIfNeeded();
         this.fileData.remove(key);
+        markModified();
         write();
     }
 
@@ -174,7 +351,9 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
      * @param map Map to insert.
      */
     public final void putAll(final Map<String, Object> map) {
-        this.fileData.putAll(map);
+        checkWritable();
+        getFileData().putAll(map);
+        markModified();
         write();
     }
 
@@ -198,9 +377,12 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     }
 
     public void removeAll(final String... keys) {
+        checkWritable();
+        final FileData data = getFileData();
         for (final String key : keys) {
-            this.fileData.remove(key);
+            data.remove(key);
         }
+        markModified();
         write();
     }
 
@@ -213,7 +395,9 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     }
 
     public final void addDefaultsFromFileData(@NonNull final FileData newData) {
+        checkWritable();
         reloadIfNeeded();
+        final CrateEvent event = CrateEvents.begin(CrateEventType.ADD_DEFAULTS);
 
         // Creating & setting defaults
         for (final String key : newData.keySet()) {
@@ -222,7 +406,9 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
             }
         }
 
+        markModified();
         write();
+        event.finish(this.file, this.fileType, this.file.length(), newData.size());
     }
 
     public final void addDefaultsFromFlatFile(@NonNull final FlatFile flatFile) {
@@ -240,21 +426,37 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     public synchronized void replace(
         final CharSequence target,
         final CharSequence replacement) throws IOException {
-        final List<String> lines = Files.readAllLines(this.file.toPath());
+        checkWritable();
         final List<String> result = new ArrayList<>();
-        for (final String line : lines) {
-            result.add(line.replace(target, replacement));
+        try (BufferedReader reader = openReader()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.add(line.replace(target, replacement));
+            }
+        }
+        try (BufferedWriter writer = openWriter()) {
+            for (final String line : result) {
+                writer.write(line);
+                writer.newLine();
+            }
         }
-        Files.write(this.file.toPath(), result);
     }
 
     public void write() {
+        final long blocking = BlockingIoDetector.begin();
         try {
-            write(this.fileData);
+            final CrateEvent event = CrateEvents.begin(CrateEventType.WRITE);
+            final long start = System.nanoTime();
+            write(getFileData());
+            final long bytes = this.file.length();
+            CrateProviders.metrics().onWrite(this.fileType, this.file, bytes, System.nanoTime() - start);
+            event.finish(this.file, this.fileType, bytes, this.fileData.size());
         } catch (final IOException ex) {
             System.err.println("Exception writing to file '" + getName() + "'");
             System.err.println("In '" + FileUtils.getParentDirPath(this.file) + "'");
             ex.printStackTrace();
+        } finally {
+            BlockingIoDetector.end(blocking, "write", this.file);
         }
         this.lastLoaded = System.currentTimeMillis();
     }
@@ -264,26 +466,98 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     }
 
     public final void forceReload() {
+        final long blocking = BlockingIoDetector.begin();
+        final CrateMetrics metrics = CrateProviders.metrics();
+        final CrateEvent reloadEvent = CrateEvents.begin(CrateEventType.RELOAD);
+        final long start = System.nanoTime();
+        final long bytes = this.file.length();
         Map<String, Object> out = new HashMap<>();
         try {
+            final CrateEvent parseEvent = CrateEvents.begin(CrateEventType.PARSE);
             out = readToMap();
+            metrics.onRead(this.fileType, this.file, bytes, System.nanoTime() - start);
+            parseEvent.finish(this.file, this.fileType, bytes, out.size());
         } catch (final IOException ex) {
             handleReloadException(ex);
         } finally {
-            if (this.fileData == null) {
+            // Nested maps are replaced and not mutated on reload, so a shallow copy is a full snapshot
+            final Map<String, Object> before = this.fileData == null || this.changeListeners.isEmpty()
+                ? null
+                : new HashMap<>(this.fileData.toMap());
+
+            if (this.readOnly) {
+                this.fileData = new FrozenFileData(out, this.dataType);
+            } else if (this.fileData == null) {
                 this.fileData = new FileData(out, this.dataType);
             } else {
                 this.fileData.loadData(out);
             }
+            markModified();
+            this.loaded = true;
             this.lastLoaded = System.currentTimeMillis();
+            BlockingIoDetector.end(blocking, "reload", this.file);
             if (this.reloadConsumer != null) {
                 this.reloadConsumer.accept(this);
             }
+            rebindAll();
+            if (before != null) {
+                publishChanges(FileDataDiff.diff(before, this.fileData.toMap()));
+            }
+            metrics.onReload(this.fileType, this.file, System.nanoTime() - start);
+            reloadEvent.finish(this.file, this.fileType, bytes, this.fileData.size());
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Change listeners
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Registers a listener receiving a {@link ChangeEvent} for every key below the given path
+     * that was added, removed or modified by a reload of this file.
+     *
+     * @param pathPrefix The path the keys must equal or be nested in, or an empty string for all keys
+     * @param listener   The listener to register
+     */
+    public final void addChangeListener(@NonNull final String pathPrefix, @NonNull final ChangeListener listener) {
+        this.changeListeners.add(new ChangeSubscription(pathPrefix, listener));
+    }
+
+    /**
+     * Unregisters a listener from all path prefixes it was registered for.
+     *
+     * @param listener The listener to unregister
+     */
+    public final void removeChangeListener(@NonNull final ChangeListener listener) {
+        this.changeListeners.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    private void publishChanges(final List<ChangeEvent> events) {
+        for (final ChangeEvent event : events) {
+            for (final ChangeSubscription subscription : this.changeListeners) {
+                if (subscription.matches(event.getKey())) {
+                    subscription.listener.onChange(event);
+                }
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ChangeSubscription {
+        private final String pathPrefix;
+        private final ChangeListener listener;
+
+        private boolean matches(final String key) {
+            return this.pathPrefix.isEmpty()
+                || (key.startsWith(this.pathPrefix)
+                && (key.length() == this.pathPrefix.length() || key.charAt(this.pathPrefix.length()) == '.'));
         }
     }
 
     public final void clear() {
-        this.fileData.clear();
+        checkWritable();
+        getFileData().clear();
+        markModified();
         write();
     }
 
@@ -295,15 +569,77 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     // Internal stuff
     // ----------------------------------------------------------------------------------------------------
 
+    /**
+     * Whether the content of this file has been read yet. Files built with
+     * {@code lazy(true)} are only read on first access.
+     *
+     * @return true if the data of this file is loaded
+     */
+    public final boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Reads the file if it has not been read yet. Safe to call from multiple threads, the file is
+     * read exactly once.
+     */
+    protected final void ensureLoaded() {
+        if (!this.loaded) {
+            synchronized (this) {
+                if (!this.loaded) {
+                    forceReload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes this file read-only. Its data is compiled into a {@link FrozenFileData}, which resolves
+     * paths with a single hash lookup, and every method modifying the data throws from now on.
+     * Reloading the file from disk remains possible and rebuilds the frozen data.
+     */
+    public final synchronized void freeze() {
+        this.readOnly = true;
+        if (this.fileData != null && !(this.fileData instanceof FrozenFileData)) {
+            this.fileData = new FrozenFileData(this.fileData.toMap(), this.dataType);
+            markModified();
+        }
+    }
+
+    /**
+     * @return true if this file was made read-only through {@link #freeze()} or {@code readOnly(true)}
+     */
+    public final boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    /**
+     * Throws if this file is read-only. Must be called by implementations before modifying the file.
+     */
+    protected final void checkWritable() {
+        Valid.checkBoolean(!this.readOnly, "File '" + getName() + "' is read-only");
+    }
+
     protected final void reloadIfNeeded() {
+        ensureLoaded();
         if (reloadSetting.equals(ReloadSetting.MANUALLY))
             return;
 
-        if (shouldReload()) {
+        final boolean reload = shouldReload();
+        CrateProviders.metrics().onReloadCheck(this.fileType, this.file, reload);
+        if (reload) {
             forceReload();
         }
     }
 
+    /**
+     * Marks the data of this file as modified, invalidating values cached by views of this file.
+     * Must be called by implementations after mutating the {@link FileData} directly.
+     */
+    protected final void markModified() {
+        this.revision.incrementAndGet();
+    }
+
     // Should the file be re-read before the next get() operation?
     // Can be used as utility method for implementations of FlatFile
     protected boolean shouldReload() {
@@ -322,6 +658,7 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     // ----------------------------------------------------------------------------------------------------
 
     public final FileData getFileData() {
+        ensureLoaded();
         Valid.notNull(this.fileData, "FileData mustn't be null");
         return this.fileData;
     }
@@ -330,6 +667,36 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
         return new FlatFileSection(this, pathPrefix);
     }
 
+    /**
+     * Returns a counter that changes every time the data of this file is reloaded or modified
+     * through this instance.
+     *
+     * @return The current revision of the data
+     */
+    public final long getRevision() {
+        return this.revision.get();
+    }
+
+    /**
+     * Creates a typed view of this file from an interface whose methods are annotated with {@link ConfigPath}.
+     * <p>
+     * The path and converter of each method are resolved once when the view is created, and resolved
+     * values are cached until this file is reloaded or modified. Paths are resolved relative to the
+     * path prefix set at the time the view is created.
+     * </p>
+     * <p>
+     * Every method of the interface must be annotated, default methods included. Methods that can't be
+     * implemented are rejected here instead of when they are called.
+     * </p>
+     *
+     * @param viewType The interface to implement
+     * @param <T>      Type of the view
+     * @return An implementation of the interface backed by this file
+     */
+    public final <T> T view(@NonNull final Class<T> viewType) {
+        return ConfigView.create(this, viewType);
+    }
+
     @Override
     public final int compareTo(@NonNull final FlatFile flatFile) {
         return this.file.compareTo(flatFile.file);
@@ -344,17 +711,96 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     }
 
     public void annotateClass(Object classInstance, BiFunction<String, Field, String> elementSelector) {
-        Class<?> clazz = classInstance.getClass();
-        try {
-            for (Field field : clazz.getFields()) {
-                ConfigPath configPath = field.getAnnotation(ConfigPath.class);
-                if (configPath != null) {
-                    field.setAccessible(true);
-                    field.set(classInstance, this.get(elementSelector.apply(configPath.value(), field), field.getType()));
-                }
+        ConfigBinder.of(classInstance.getClass()).bind(this, classInstance, elementSelector);
+    }
+
+    /**
+     * Sets the {@link ConfigPath} annotated fields of the instance and optionally binds them again
+     * every time this file is reloaded.
+     *
+     * @param classInstance  The instance to bind
+     * @param rebindOnReload Whether the fields should be refreshed after each reload
+     */
+    public void annotateClass(Object classInstance, boolean rebindOnReload) {
+        this.annotateClass(classInstance, (s, field) -> s, rebindOnReload);
+    }
+
+    /**
+     * Sets the {@link ConfigPath} annotated fields of the instance relative to a section and
+     * optionally binds them again every time this file is reloaded.
+     *
+     * @param classInstance  The instance to bind
+     * @param section        The section the annotated paths are relative to
+     * @param rebindOnReload Whether the fields should be refreshed after each reload
+     */
+    public void annotateClass(Object classInstance, String section, boolean rebindOnReload) {
+        this.annotateClass(classInstance, (s, field) -> section + "." + s, rebindOnReload);
+    }
+
+    /**
+     * Sets the {@link ConfigPath} annotated fields of the instance and optionally binds them again
+     * every time this file is reloaded.
+     * <p>
+     * An instance is rebound at most once per reload, binding it again only replaces its element
+     * selector. The instance is only weakly referenced, it stops being rebound once it is garbage
+     * collected or passed to {@link #unbind(Object)}.
+     * </p>
+     *
+     * @param classInstance   The instance to bind
+     * @param elementSelector Maps the annotated path of a field to the path in this file
+     * @param rebindOnReload  Whether the fields should be refreshed after each reload
+     */
+    public synchronized void annotateClass(
+        Object classInstance,
+        BiFunction<String, Field, String> elementSelector,
+        boolean rebindOnReload) {
+        final ConfigBinder binder = ConfigBinder.of(classInstance.getClass());
+        binder.bind(this, classInstance, elementSelector);
+
+        if (rebindOnReload) {
+            unbind(classInstance);
+            this.rebindings.add(new Rebinding(new WeakReference<>(classInstance), binder, elementSelector));
+        }
+    }
+
+    /**
+     * Stops refreshing the fields of an instance bound with {@code rebindOnReload}.
+     *
+     * @param classInstance The bound instance
+     * @return true if the instance was rebound on reload until now
+     */
+    public boolean unbind(@NonNull final Object classInstance) {
+        boolean bound = false;
+        for (final Rebinding rebinding : this.rebindings) {
+            if (rebinding.instance.get() == classInstance) {
+                bound |= this.rebindings.remove(rebinding);
             }
-        } catch (IllegalAccessException e) {
-            throw CrateProviders.exceptionHandler().create(e.getCause(), "Unable to set the value of fields in " + clazz.getName());
         }
+        return bound;
+    }
+
+    private void rebindAll() {
+        if (this.rebindings.isEmpty()) {
+            return;
+        }
+
+        // Reads the data just loaded, the getters would reload again with ReloadSetting.AUTOMATICALLY
+        final Function<String, Object> lookup =
+            key -> this.fileData.get(this.pathPrefix == null ? key : this.pathPrefix + "." + key);
+        for (final Rebinding rebinding : this.rebindings) {
+            final Object instance = rebinding.instance.get();
+            if (instance == null) {
+                this.rebindings.remove(rebinding);
+            } else {
+                rebinding.binder.bind(lookup, instance, rebinding.elementSelector);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Rebinding {
+        private final WeakReference<Object> instance;
+        private final ConfigBinder binder;
+        private final BiFunction<String, Field, String> elementSelector;
     }
 }
@@ -0,0 +1,171 @@
+package io.github.milkdrinkers.crate.internal;
+
+import io.github.milkdrinkers.crate.internal.exceptions.CrateValidationException;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable {@link FileData} backing read-only files.
+ * <p>
+ * Every path of the data, sections included, is flattened into an open-addressing table with
+ * precomputed hashes on construction. Looking up a path is a single hash probe without splitting the
+ * path or traversing nested maps. Any attempt to modify the data throws.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class FrozenFileData extends FileData {
+    private final Map<String, Object> frozenMap;
+    private final String[] keys;
+    private final int[] hashes;
+    private final Object[] values;
+    private final int mask;
+
+    public FrozenFileData(final Map<String, Object> map, final DataType dataType) {
+        super(map, dataType);
+        this.frozenMap = freezeMap(super.toMap());
+
+        final Map<String, Object> paths = new LinkedHashMap<>();
+        flatten(this.frozenMap, null, paths);
+
+        int capacity = 2;
+        while (capacity < paths.size() * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+
+        for (final Map.Entry<String, Object> entry : paths.entrySet()) {
+            final String key = entry.getKey();
+            final int hash = key.hashCode();
+            int slot = spread(hash) & this.mask;
+            while (this.keys[slot] != null) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.keys[slot] = key;
+            this.hashes[slot] = hash;
+            this.values[slot] = entry.getValue();
+        }
+    }
+
+    @Override
+    public Object get(final String key) {
+        final int slot = slotOf(key);
+        return slot < 0 ? null : this.values[slot];
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        return slotOf(key) >= 0;
+    }
+
+    @Override
+    public Set<String> singleLayerKeySet() {
+        return this.frozenMap.keySet();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> singleLayerEntrySet() {
+        return this.frozenMap.entrySet();
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        return this.frozenMap;
+    }
+
+    @Override
+    public void clear() {
+        throw frozen();
+    }
+
+    @Override
+    public void loadData(final Map<String, Object> map) {
+        throw frozen();
+    }
+
+    @Override
+    public synchronized void insert(final String key, final Object value) {
+        throw frozen();
+    }
+
+    @Override
+    public synchronized void remove(final String key) {
+        throw frozen();
+    }
+
+    @Override
+    public void putAll(final Map<String, Object> map) {
+        throw frozen();
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Internal helpers
+    // ----------------------------------------------------------------------------------------------------
+
+    private int slotOf(final String key) {
+        final int hash = key.hashCode();
+        int slot = spread(hash) & this.mask;
+        String candidate;
+        while ((candidate = this.keys[slot]) != null) {
+            if (this.hashes[slot] == hash && candidate.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static void flatten(final Map<?, ?> map, final String prefix, final Map<String, Object> out) {
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            // Keys that aren't strings or contain the separator can't be reached through a path
+            if (!(entry.getKey() instanceof String) || ((String) entry.getKey()).indexOf('.') >= 0) {
+                continue;
+            }
+
+            final String path = prefix == null ? (String) entry.getKey() : prefix + "." + entry.getKey();
+            out.put(path, entry.getValue());
+            if (entry.getValue() instanceof Map) {
+                flatten((Map<?, ?>) entry.getValue(), path, out);
+            }
+        }
+    }
+
+    private static Map<String, Object> freezeMap(final Map<String, Object> map) {
+        // Replaces the nested values in place before wrapping, the map is owned by this instance
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            entry.setValue(freezeValue(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object freezeValue(final Object value) {
+        if (value instanceof Map) {
+            return freezeMap(new LinkedHashMap<>((Map<String, Object>) value));
+        } else if (value instanceof List) {
+            final List<Object> out = new ArrayList<>((List<Object>) value);
+            for (int i = 0; i < out.size(); i++) {
+                out.set(i, freezeValue(out.get(i)));
+            }
+            return Collections.unmodifiableList(out);
+        }
+        return value;
+    }
+
+    private static CrateValidationException frozen() {
+        return new CrateValidationException("The data is read-only and can't be modified");
+    }
+}
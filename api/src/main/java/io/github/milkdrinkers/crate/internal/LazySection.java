@@ -0,0 +1,126 @@
+package io.github.milkdrinkers.crate.internal;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A section of a file that is parsed on its first access.
+ * <p>
+ * Readers scanning a large file record where each section starts instead of parsing it, and put a
+ * lazy section in its place. The section behaves like the map it stands for: the first call
+ * needing its content, e.g. {@link #get(Object)} or {@link #size()}, parses it and every following
+ * call is delegated to the parsed map. Sections nobody touches are never parsed, so the memory of
+ * the parsed data stays proportional to the sections in use.
+ * </p>
+ * <p>
+ * Parsing is thread-safe. The parsed map is as thread-safe as the map the parser returns.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class LazySection extends AbstractMap<String, Object> {
+    private Supplier<Map<String, Object>> parser;
+    private volatile Map<String, Object> map;
+
+    /**
+     * @param parser Parses the content of the section, called at most once
+     */
+    public LazySection(@NonNull final Supplier<Map<String, Object>> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * @return true if the section has been parsed
+     */
+    public boolean isLoaded() {
+        return this.map != null;
+    }
+
+    /**
+     * Returns a section applying a function to the parsed content, without parsing it now.
+     *
+     * @param function The function to apply to the parsed map
+     * @return The transformed section
+     */
+    public LazySection transform(@NonNull final UnaryOperator<Map<String, Object>> function) {
+        return new LazySection(() -> function.apply(load()));
+    }
+
+    private Map<String, Object> load() {
+        Map<String, Object> loaded = this.map;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = this.map;
+                if (loaded == null) {
+                    loaded = this.parser.get();
+                    this.map = loaded;
+                    // Releases the source the parser holds on to
+                    this.parser = null;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Overridden methods from AbstractMap
+    // ----------------------------------------------------------------------------------------------------
+
+    @Override
+    public int size() {
+        return load().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return load().isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return load().containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return load().containsValue(value);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return load().get(key);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        return load().put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        return load().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        load().clear();
+    }
+
+    @NotNull
+    @Override
+    public Set<String> keySet() {
+        return load().keySet();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return load().entrySet();
+    }
+}
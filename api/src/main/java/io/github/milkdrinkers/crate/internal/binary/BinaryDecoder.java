@@ -0,0 +1,345 @@
+package io.github.milkdrinkers.crate.internal.binary;
+
+import io.github.milkdrinkers.crate.internal.exceptions.BinaryException;
+import io.github.milkdrinkers.crate.util.StringPool;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes values written by {@link BinaryEncoder}.
+ * <p>
+ * The decoder reads directly from a byte array. Lists and maps carry their byte length, so
+ * {@link #skipValue()} steps over a whole subtree without decoding it. Maps are decoded into
+ * insertion ordered maps.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class BinaryDecoder {
+    private final byte[] data;
+    private final int limit;
+    private int position;
+    @Nullable
+    private String[] keys;
+    @Nullable
+    private StringPool pool;
+
+    public BinaryDecoder(@NonNull final byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public BinaryDecoder(@NonNull final byte[] data, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new BinaryException("Range " + offset + "+" + length + " is outside of " + data.length + " bytes");
+        }
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Sets the key table the data was encoded with.
+     *
+     * @param keys The keys in the order of their indices, or null if keys are written inline
+     * @return this decoder
+     * @see BinaryEncoder#getKeys()
+     */
+    public BinaryDecoder keys(@Nullable final String[] keys) {
+        this.keys = keys;
+        return this;
+    }
+
+    /**
+     * Sets the pool string values and inline keys are interned into while they are decoded. Keys of
+     * a key table are interned once when the table is read instead.
+     *
+     * @param pool The pool, or null to not intern strings
+     * @return this decoder
+     */
+    public BinaryDecoder pool(@Nullable final StringPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Values
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a tagged value, nested lists and maps included.
+     *
+     * @return The decoded value
+     * @throws BinaryException if the data is malformed
+     */
+    public Object readValue() {
+        final byte tag = readByte();
+        switch (tag) {
+            case BinaryTag.NULL:
+                return null;
+            case BinaryTag.FALSE:
+                return Boolean.FALSE;
+            case BinaryTag.TRUE:
+                return Boolean.TRUE;
+            case BinaryTag.BYTE:
+                return readByte();
+            case BinaryTag.SHORT:
+                return (short) unzigzag(readVarInt());
+            case BinaryTag.INT:
+                return unzigzag(readVarInt());
+            case BinaryTag.CHAR:
+                return (char) readVarInt();
+            case BinaryTag.LONG:
+                return unzigzag(readVarLong());
+            case BinaryTag.FLOAT:
+                return Float.intBitsToFloat(readInt());
+            case BinaryTag.DOUBLE:
+                return Double.longBitsToDouble(readLong());
+            case BinaryTag.STRING:
+                return this.pool == null ? readString() : this.pool.internValue(readString());
+            case BinaryTag.LIST:
+                return readList();
+            case BinaryTag.MAP:
+                return readMapContent();
+            case BinaryTag.DATE:
+                return new Date(unzigzag(readVarLong()));
+            case BinaryTag.LOCAL_DATE:
+                return LocalDate.parse(readString());
+            case BinaryTag.LOCAL_DATE_TIME:
+                return LocalDateTime.parse(readString());
+            case BinaryTag.ZONED_DATE_TIME:
+                return ZonedDateTime.parse(readString());
+            default:
+                throw new BinaryException("Unknown type tag " + tag + " at position " + (this.position - 1));
+        }
+    }
+
+    /**
+     * Reads a tagged map.
+     *
+     * @return The decoded map
+     * @throws BinaryException if the next value isn't a map or the data is malformed
+     */
+    public Map<String, Object> readMap() {
+        final int count = readMapHeader();
+        return readEntries(count);
+    }
+
+    /**
+     * Reads the header of a tagged map, leaving the decoder in front of its first entry. The
+     * entries are then read by alternating {@link #readKey()} and {@link #readValue()} or
+     * {@link #skipValue()}.
+     *
+     * @return The number of entries
+     * @throws BinaryException if the next value isn't a map
+     */
+    public int readMapHeader() {
+        final byte tag = readByte();
+        if (tag != BinaryTag.MAP) {
+            throw new BinaryException("Expected a map but found type tag " + tag + " at position " + (this.position - 1));
+        }
+        final int count = readVarInt();
+        readInt(); // Byte length, only needed to skip the map
+        return count;
+    }
+
+    private List<Object> readList() {
+        final int count = readVarInt();
+        readInt(); // Byte length, only needed to skip the list
+        final List<Object> out = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            out.add(readValue());
+        }
+        return out;
+    }
+
+    private Map<String, Object> readMapContent() {
+        final int count = readVarInt();
+        readInt(); // Byte length, only needed to skip the map
+        return readEntries(count);
+    }
+
+    private Map<String, Object> readEntries(final int count) {
+        final Map<String, Object> out = new LinkedHashMap<>(Math.min(count, 1024) * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            final String key = readKey();
+            out.put(key, readValue());
+        }
+        return out;
+    }
+
+    /**
+     * Reads a map key, either inline or as an index into the key table.
+     *
+     * @return The key
+     */
+    public String readKey() {
+        if (this.keys == null) {
+            return this.pool == null ? readString() : this.pool.intern(readString());
+        }
+
+        final int index = readVarInt();
+        if (index < 0 || index >= this.keys.length) {
+            throw new BinaryException("Key index " + index + " is outside of the key table");
+        }
+        return this.keys[index];
+    }
+
+    /**
+     * Steps over the next value without decoding it. Lists and maps are skipped as a whole.
+     *
+     * @throws BinaryException if the data is malformed
+     */
+    public void skipValue() {
+        final byte tag = readByte();
+        switch (tag) {
+            case BinaryTag.NULL:
+            case BinaryTag.FALSE:
+            case BinaryTag.TRUE:
+                return;
+            case BinaryTag.BYTE:
+                skip(1);
+                return;
+            case BinaryTag.SHORT:
+            case BinaryTag.INT:
+            case BinaryTag.CHAR:
+                readVarInt();
+                return;
+            case BinaryTag.LONG:
+            case BinaryTag.DATE:
+                readVarLong();
+                return;
+            case BinaryTag.FLOAT:
+                skip(4);
+                return;
+            case BinaryTag.DOUBLE:
+                skip(8);
+                return;
+            case BinaryTag.STRING:
+            case BinaryTag.LOCAL_DATE:
+            case BinaryTag.LOCAL_DATE_TIME:
+            case BinaryTag.ZONED_DATE_TIME:
+                skip(readVarInt());
+                return;
+            case BinaryTag.LIST:
+            case BinaryTag.MAP:
+                readVarInt();
+                skip(readInt());
+                return;
+            default:
+                throw new BinaryException("Unknown type tag " + tag + " at position " + (this.position - 1));
+        }
+    }
+
+    /**
+     * Checks whether the next value is a map, without consuming it.
+     */
+    public boolean isMapNext() {
+        return this.position < this.limit && this.data[this.position] == BinaryTag.MAP;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Primitives
+    // ----------------------------------------------------------------------------------------------------
+
+    public byte readByte() {
+        require(1);
+        return this.data[this.position++];
+    }
+
+    /**
+     * Reads a fixed-width, big-endian int.
+     */
+    public int readInt() {
+        require(4);
+        final byte[] data = this.data;
+        final int p = this.position;
+        this.position = p + 4;
+        return (data[p] & 0xFF) << 24 | (data[p + 1] & 0xFF) << 16 | (data[p + 2] & 0xFF) << 8 | (data[p + 3] & 0xFF);
+    }
+
+    /**
+     * Reads a fixed-width, big-endian long.
+     */
+    public long readLong() {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = readByte();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new BinaryException("Malformed varint at position " + this.position);
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new BinaryException("Malformed varlong at position " + this.position);
+    }
+
+    /**
+     * Reads a string written as varint byte length followed by its UTF-8 bytes.
+     */
+    public String readString() {
+        final int length = readVarInt();
+        require(length);
+        final String value = new String(this.data, this.position, length, StandardCharsets.UTF_8);
+        this.position += length;
+        return value;
+    }
+
+    public void skip(final int length) {
+        require(length);
+        this.position += length;
+    }
+
+    public int position() {
+        return this.position;
+    }
+
+    public void position(final int position) {
+        if (position < 0 || position > this.limit) {
+            throw new BinaryException("Position " + position + " is outside of the data");
+        }
+        this.position = position;
+    }
+
+    public boolean hasRemaining() {
+        return this.position < this.limit;
+    }
+
+    private void require(final int length) {
+        if (length < 0 || length > this.limit - this.position) {
+            throw new BinaryException("Unexpected end of data at position " + this.position);
+        }
+    }
+
+    static int unzigzag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
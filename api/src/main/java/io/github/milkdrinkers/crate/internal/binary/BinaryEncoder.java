@@ -0,0 +1,343 @@
+package io.github.milkdrinkers.crate.internal.binary;
+
+import io.github.milkdrinkers.crate.internal.exceptions.BinaryException;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Encodes values into a compact, self-describing binary form.
+ * <p>
+ * Every value is preceded by a type tag. Integers are written as zigzag varints, strings as
+ * length-prefixed UTF-8, and lists and maps carry their byte length, so a reader can skip them
+ * without decoding their content. Supported values are {@code null}, booleans, numbers, characters,
+ * strings, enums (written as their name), dates, {@link LocalDate}, {@link LocalDateTime},
+ * {@link ZonedDateTime}, arrays, collections and maps with string keys.
+ * </p>
+ * <p>
+ * With a key table, map keys are written as indices into a table of all distinct keys instead of
+ * being repeated. The table is available through {@link #getKeys()} and must be given to the
+ * {@link BinaryDecoder} reading the data.
+ * </p>
+ * <p>
+ * An encoder is not thread-safe, but can be reused after {@link #reset()}.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class BinaryEncoder {
+    private byte[] buffer;
+    private int size;
+    private final Map<String, Integer> keyIndex;
+    private final List<String> keys;
+
+    /**
+     * Creates an encoder writing map keys inline.
+     */
+    public BinaryEncoder() {
+        this(false);
+    }
+
+    /**
+     * @param keyTable true to write map keys as indices into a key table
+     */
+    public BinaryEncoder(final boolean keyTable) {
+        this.buffer = new byte[256];
+        this.keyIndex = keyTable ? new HashMap<>() : null;
+        this.keys = keyTable ? new ArrayList<>() : Collections.emptyList();
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Values
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Writes a tagged value, nested lists and maps included.
+     *
+     * @param value The value to write
+     * @return this encoder
+     * @throws BinaryException if the value or one of its elements has an unsupported type
+     */
+    public BinaryEncoder writeValue(final Object value) {
+        if (value == null) {
+            writeByte(BinaryTag.NULL);
+        } else if (value instanceof String) {
+            writeByte(BinaryTag.STRING);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            writeByte((Boolean) value ? BinaryTag.TRUE : BinaryTag.FALSE);
+        } else if (value instanceof Integer) {
+            writeByte(BinaryTag.INT);
+            writeVarInt(zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            writeByte(BinaryTag.LONG);
+            writeVarLong(zigzag((Long) value));
+        } else if (value instanceof Double) {
+            writeByte(BinaryTag.DOUBLE);
+            writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, null);
+        } else if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            final int start = beginContainer(BinaryTag.LIST, collection.size());
+            for (final Object element : collection) {
+                writeValue(element);
+            }
+            endContainer(start);
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            final int start = beginContainer(BinaryTag.LIST, length);
+            for (int i = 0; i < length; i++) {
+                writeValue(Array.get(value, i));
+            }
+            endContainer(start);
+        } else if (value instanceof Float) {
+            writeByte(BinaryTag.FLOAT);
+            writeInt(Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Byte) {
+            writeByte(BinaryTag.BYTE);
+            writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            writeByte(BinaryTag.SHORT);
+            writeVarInt(zigzag((Short) value));
+        } else if (value instanceof Character) {
+            writeByte(BinaryTag.CHAR);
+            writeVarInt((Character) value);
+        } else if (value instanceof Enum) {
+            writeByte(BinaryTag.STRING);
+            writeString(((Enum<?>) value).name());
+        } else if (value instanceof Date) {
+            writeByte(BinaryTag.DATE);
+            writeVarLong(zigzag(((Date) value).getTime()));
+        } else if (value instanceof LocalDate) {
+            writeByte(BinaryTag.LOCAL_DATE);
+            writeString(value.toString());
+        } else if (value instanceof LocalDateTime) {
+            writeByte(BinaryTag.LOCAL_DATE_TIME);
+            writeString(value.toString());
+        } else if (value instanceof ZonedDateTime) {
+            writeByte(BinaryTag.ZONED_DATE_TIME);
+            writeString(value.toString());
+        } else {
+            throw new BinaryException("Unable to encode value of type " + value.getClass().getName());
+        }
+        return this;
+    }
+
+    /**
+     * Writes a tagged map, recording where the value of every entry starts. The positions allow
+     * readers to decode single entries without reading the entries in front of them.
+     *
+     * @param map       The map to write
+     * @param positions Receives the position of the value of every entry in iteration order,
+     *                  or null if the positions aren't needed
+     * @return this encoder
+     * @throws BinaryException if a value of the map has an unsupported type
+     */
+    public BinaryEncoder writeMap(@NonNull final Map<?, ?> map, @Nullable final int[] positions) {
+        final int start = beginContainer(BinaryTag.MAP, map.size());
+        int index = 0;
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            writeKey(String.valueOf(entry.getKey()));
+            if (positions != null) {
+                positions[index++] = this.size;
+            }
+            writeValue(entry.getValue());
+        }
+        endContainer(start);
+        return this;
+    }
+
+    /**
+     * Writes a map key, either inline or as an index into the key table.
+     *
+     * @param key The key to write
+     * @return this encoder
+     */
+    public BinaryEncoder writeKey(@NonNull final String key) {
+        if (this.keyIndex == null) {
+            writeString(key);
+            return this;
+        }
+
+        Integer index = this.keyIndex.get(key);
+        if (index == null) {
+            index = this.keys.size();
+            this.keyIndex.put(key, index);
+            this.keys.add(key);
+        }
+        writeVarInt(index);
+        return this;
+    }
+
+    // Writes the header of a list or map and reserves its byte length, returns where the content starts
+    private int beginContainer(final byte tag, final int count) {
+        writeByte(tag);
+        writeVarInt(count);
+        writeInt(0);
+        return this.size;
+    }
+
+    private void endContainer(final int start) {
+        setInt(start - 4, this.size - start);
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Primitives
+    // ----------------------------------------------------------------------------------------------------
+
+    public BinaryEncoder writeByte(final int value) {
+        ensureCapacity(1);
+        this.buffer[this.size++] = (byte) value;
+        return this;
+    }
+
+    public BinaryEncoder writeBytes(final byte[] bytes, final int offset, final int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, this.buffer, this.size, length);
+        this.size += length;
+        return this;
+    }
+
+    /**
+     * Writes a fixed-width, big-endian int.
+     */
+    public BinaryEncoder writeInt(final int value) {
+        ensureCapacity(4);
+        setInt(this.size, value);
+        this.size += 4;
+        return this;
+    }
+
+    /**
+     * Overwrites a fixed-width int written before, e.g. a length or offset only known afterwards.
+     *
+     * @param position The position of the int
+     * @param value    The new value
+     */
+    public void setInt(final int position, final int value) {
+        this.buffer[position] = (byte) (value >>> 24);
+        this.buffer[position + 1] = (byte) (value >>> 16);
+        this.buffer[position + 2] = (byte) (value >>> 8);
+        this.buffer[position + 3] = (byte) value;
+    }
+
+    /**
+     * Writes a fixed-width, big-endian long.
+     */
+    public BinaryEncoder writeLong(final long value) {
+        writeInt((int) (value >>> 32));
+        return writeInt((int) value);
+    }
+
+    /**
+     * Writes an unsigned varint, 7 bits per byte with the high bit marking a following byte.
+     */
+    public BinaryEncoder writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            this.buffer[this.size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes an unsigned varlong, 7 bits per byte with the high bit marking a following byte.
+     */
+    public BinaryEncoder writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes a string as varint byte length followed by its UTF-8 bytes.
+     */
+    public BinaryEncoder writeString(@NonNull final String value) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length);
+                return writeBytes(bytes, 0, bytes.length);
+            }
+        }
+
+        // ASCII strings are copied without encoding them into a temporary array
+        writeVarInt(length);
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer[this.size++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Output
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @return The number of bytes written
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return The distinct map keys in the order of their indices, empty without a key table
+     */
+    public List<String> getKeys() {
+        return Collections.unmodifiableList(this.keys);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    public void writeTo(@NonNull final OutputStream out) throws IOException {
+        out.write(this.buffer, 0, this.size);
+    }
+
+    /**
+     * Discards the written bytes and keys, keeping the buffer for the next use.
+     */
+    public void reset() {
+        this.size = 0;
+        if (this.keyIndex != null) {
+            this.keyIndex.clear();
+            this.keys.clear();
+        }
+    }
+
+    private void ensureCapacity(final int additional) {
+        final int required = this.size + additional;
+        if (required < 0) {
+            throw new BinaryException("Encoded data exceeds the maximum size of 2 GiB");
+        }
+        if (required > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(required, this.buffer.length << 1));
+        }
+    }
+
+    static int zigzag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.milkdrinkers.crate.internal.binary;
+
+/**
+ * The type tags preceding every value written by {@link BinaryEncoder}.
+ * <p>
+ * Tags are part of the on-disk format, existing values must never be changed or reused.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+final class BinaryTag {
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    // Byte: one byte
+    static final byte BYTE = 3;
+    // Short, Integer, Character: zigzag varint
+    static final byte SHORT = 4;
+    static final byte INT = 5;
+    static final byte CHAR = 6;
+    // Long: zigzag varlong
+    static final byte LONG = 7;
+    // Float, Double: IEEE 754 bits, big-endian
+    static final byte FLOAT = 8;
+    static final byte DOUBLE = 9;
+    // String: varint length + UTF-8 bytes
+    static final byte STRING = 10;
+    // List: varint count + fixed int byte length of the values + values
+    static final byte LIST = 11;
+    // Map: varint count + fixed int byte length of the entries + (key + value) entries
+    static final byte MAP = 12;
+    // Date: zigzag varlong of the epoch millis
+    static final byte DATE = 13;
+    // Temporals: ISO-8601 string
+    static final byte LOCAL_DATE = 14;
+    static final byte LOCAL_DATE_TIME = 15;
+    static final byte ZONED_DATE_TIME = 16;
+
+    private BinaryTag() {
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.milkdrinkers.crate.internal.concurrent;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a task for a fixed number of indices on a bounded number of workers.
+ * <p>
+ * Workers pull the next index from a shared counter, so a few slow indices don't hold back the rest.
+ * The calling thread takes part as one of the workers, which guarantees progress even if the executor
+ * is saturated. Completion is counted per index rather than per worker, so workers still queued on a
+ * busy executor never delay the result, and exit right away once they start.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class ParallelRunner {
+
+    /**
+     * Runs the task for every index from 0 to {@code count - 1}, blocking until all of them were
+     * processed. Everything the task wrote is visible to the caller once this method returns.
+     * <p>
+     * The task is expected to handle its own failures, e.g. by recording them per index. An exception
+     * thrown by the task still counts its index as processed.
+     * </p>
+     *
+     * @param count       The number of indices
+     * @param parallelism The maximum number of concurrent workers, including the calling thread
+     * @param executor    The executor to run the additional workers on
+     * @param task        The task, called once per index
+     * @return The number of workers used
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the workers
+     */
+    public int run(
+        final int count,
+        final int parallelism,
+        @NonNull final Executor executor,
+        @NonNull final IntConsumer task) throws InterruptedException {
+        final int workers = Math.max(1, Math.min(parallelism, count));
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(count);
+        final Runnable worker = () -> {
+            int index;
+            while ((index = next.getAndIncrement()) < count) {
+                try {
+                    task.accept(index);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+
+        for (int i = 1; i < workers; i++) {
+            executor.execute(worker);
+        }
+        worker.run();
+        done.await();
+        return workers;
+    }
+}
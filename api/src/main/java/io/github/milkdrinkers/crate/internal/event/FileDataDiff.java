@@ -0,0 +1,89 @@
+package io.github.milkdrinkers.crate.internal.event;
+
+import io.github.milkdrinkers.crate.event.ChangeEvent;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes the structural difference between two nested data maps.
+ * <p>
+ * Nested maps are compared key by key, so a change deep inside a section produces a single event
+ * for the changed leaf instead of one for the whole section. Any other value, including lists, is
+ * compared with {@link Object#equals(Object)}.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class FileDataDiff {
+
+    /**
+     * Computes the changed leaf keys between two data maps.
+     *
+     * @param before The data before the change
+     * @param after  The data after the change
+     * @return The changes, empty if both maps are equal
+     */
+    public List<ChangeEvent> diff(final Map<?, ?> before, final Map<?, ?> after) {
+        final List<ChangeEvent> out = new ArrayList<>();
+        diff(null, before, after, out);
+        return out;
+    }
+
+    private void diff(
+        final String prefix,
+        final Map<?, ?> before,
+        final Map<?, ?> after,
+        final List<ChangeEvent> out) {
+        for (final Map.Entry<?, ?> entry : before.entrySet()) {
+            final String key = join(prefix, entry.getKey());
+            final Object oldValue = entry.getValue();
+
+            if (!after.containsKey(entry.getKey())) {
+                leaves(key, oldValue, ChangeEvent.Type.REMOVED, out);
+                continue;
+            }
+
+            final Object newValue = after.get(entry.getKey());
+            if (oldValue instanceof Map && newValue instanceof Map) {
+                diff(key, (Map<?, ?>) oldValue, (Map<?, ?>) newValue, out);
+            } else if (oldValue instanceof Map || newValue instanceof Map) {
+                leaves(key, oldValue, ChangeEvent.Type.REMOVED, out);
+                leaves(key, newValue, ChangeEvent.Type.ADDED, out);
+            } else if (!Objects.equals(oldValue, newValue)) {
+                out.add(new ChangeEvent(ChangeEvent.Type.MODIFIED, key, oldValue, newValue));
+            }
+        }
+
+        for (final Map.Entry<?, ?> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                leaves(join(prefix, entry.getKey()), entry.getValue(), ChangeEvent.Type.ADDED, out);
+            }
+        }
+    }
+
+    private void leaves(
+        final String key,
+        final Object value,
+        final ChangeEvent.Type type,
+        final List<ChangeEvent> out) {
+        if (value instanceof Map && !((Map<?, ?>) value).isEmpty()) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                leaves(join(key, entry.getKey()), entry.getValue(), type, out);
+            }
+            return;
+        }
+
+        out.add(type == ChangeEvent.Type.ADDED
+            ? new ChangeEvent(type, key, null, value)
+            : new ChangeEvent(type, key, value, null));
+    }
+
+    private String join(final String prefix, final Object key) {
+        return prefix == null ? String.valueOf(key) : prefix + "." + key;
+    }
+}
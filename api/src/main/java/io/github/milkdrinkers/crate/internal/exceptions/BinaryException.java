@@ -0,0 +1,19 @@
+package io.github.milkdrinkers.crate.internal.exceptions;
+
+import io.github.milkdrinkers.crate.internal.exception.CrateException;
+
+/**
+ * Thrown when a problem occurs during encoding or decoding binary data.
+ */
+public class BinaryException extends CrateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BinaryException(final Throwable cause, final String... messages) {
+        super(cause, messages);
+    }
+
+    public BinaryException(final String... messages) {
+        super(messages);
+    }
+}
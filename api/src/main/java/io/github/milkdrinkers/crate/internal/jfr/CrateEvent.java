@@ -0,0 +1,29 @@
+package io.github.milkdrinkers.crate.internal.jfr;
+
+import io.github.milkdrinkers.crate.internal.FileType;
+
+import java.io.File;
+
+/**
+ * A running operation started by {@link CrateEvents#begin(CrateEventType)}.
+ *
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface CrateEvent {
+    /**
+     * The event returned while recording is unavailable or disabled, it does nothing.
+     */
+    CrateEvent NONE = (file, type, bytes, keys) -> {
+    };
+
+    /**
+     * Ends the operation and records it if the event is enabled.
+     *
+     * @param file  The file of the operation
+     * @param type  The type of the file
+     * @param bytes The number of bytes read or written
+     * @param keys  The number of top level keys
+     */
+    void finish(File file, FileType type, long bytes, int keys);
+}
@@ -0,0 +1,35 @@
+package io.github.milkdrinkers.crate.internal.jfr;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The operations recorded as JDK Flight Recorder events.
+ *
+ * @since 4.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CrateEventType {
+    /**
+     * A file was read, parsed and its data replaced.
+     */
+    RELOAD("crate.Reload"),
+    /**
+     * The data of a file was serialized and written.
+     */
+    WRITE("crate.Write"),
+    /**
+     * The content of a file was read and parsed.
+     */
+    PARSE("crate.Parse"),
+    /**
+     * Defaults were merged into a file.
+     */
+    ADD_DEFAULTS("crate.AddDefaults");
+
+    /**
+     * The name of the event in recordings.
+     */
+    private final String eventName;
+}
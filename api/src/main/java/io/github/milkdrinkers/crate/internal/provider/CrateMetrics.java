@@ -0,0 +1,57 @@
+package io.github.milkdrinkers.crate.internal.provider;
+
+import io.github.milkdrinkers.crate.internal.FileType;
+
+import java.io.File;
+
+/**
+ * Receives timed events about the I/O of every file, to find files that are read or written too often.
+ * Register an implementation through {@link CrateProviders#metrics(CrateMetrics)}. Every method does
+ * nothing by default, implementations must be thread safe and return quickly.
+ *
+ * @since 4.0.0
+ */
+public interface CrateMetrics {
+
+    /**
+     * Called after the content of a file was read and parsed.
+     *
+     * @param type        The type of the file
+     * @param file        The file read
+     * @param bytes       The size of the file when it was read
+     * @param parseNanos  The time spent reading and parsing the file, in nanoseconds
+     */
+    default void onRead(final FileType type, final File file, final long bytes, final long parseNanos) {
+    }
+
+    /**
+     * Called after a file was reloaded, including parsing it and replacing its data.
+     *
+     * @param type  The type of the file
+     * @param file  The file reloaded
+     * @param nanos The time spent reloading, in nanoseconds
+     */
+    default void onReload(final FileType type, final File file, final long nanos) {
+    }
+
+    /**
+     * Called after the data of a file was written, either completely or as a single changed value.
+     *
+     * @param type  The type of the file
+     * @param file  The file written
+     * @param bytes The size of the file after writing
+     * @param nanos The time spent writing, in nanoseconds
+     */
+    default void onWrite(final FileType type, final File file, final long bytes, final long nanos) {
+    }
+
+    /**
+     * Called whenever a file checks whether it has to be reloaded before an access.
+     *
+     * @param type     The type of the file
+     * @param file     The file checked
+     * @param reloaded false if the data in memory was used as is, true if the file was reloaded
+     */
+    default void onReloadCheck(final FileType type, final File file, final boolean reloaded) {
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.milkdrinkers.crate.internal.provider;
 
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import lombok.NonNull;
 import lombok.experimental.Accessors;
 import lombok.experimental.UtilityClass;
 
@@ -14,6 +15,7 @@ public class CrateProviders {
     private MapProvider mapProvider;
     private InputStreamProvider inputStreamProvider;
     private ExceptionHandler exceptionHandler;
+    private volatile CrateMetrics metrics;
 
     public MapProvider mapProvider() {
         if (mapProvider == null) {
@@ -40,4 +42,23 @@ public class CrateProviders {
 
         return exceptionHandler;
     }
+
+    public CrateMetrics metrics() {
+        if (metrics == null) {
+            metrics = new CrateMetrics() {
+            };
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Registers the metrics receiving the I/O events of every file.
+     *
+     * @param crateMetrics The metrics to use from now on
+     * @since 4.0.0
+     */
+    public void metrics(@NonNull final CrateMetrics crateMetrics) {
+        metrics = crateMetrics;
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.milkdrinkers.crate.internal.provider;
 
+import io.github.milkdrinkers.crate.util.CompactMap;
+
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -13,4 +15,8 @@ public interface MapProvider {
     default Map<String, Object> getSortedMapImplementation() {
         return new LinkedHashMap<>();
     }
+
+    default Map<String, Object> getCompactMapImplementation() {
+        return new CompactMap<>();
+    }
 }
@@ -0,0 +1,195 @@
+package io.github.milkdrinkers.crate.internal.settings;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An Enum defining how the content of a file is stored on disk.
+ * <p>
+ * Compressed files are compressed while they are written and decompressed while they are read,
+ * the document is never held in memory in its compressed form. Text formats usually shrink to a
+ * fraction of their size, which saves more time on slow disks than the compression costs.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Compression {
+    /**
+     * The file is stored as plain text.
+     */
+    NONE("") {
+        @Override
+        protected InputStream wrap(final InputStream in) {
+            return in;
+        }
+
+        @Override
+        protected OutputStream wrap(final OutputStream out, final int level) {
+            return out;
+        }
+    },
+
+    /**
+     * The file is stored in the gzip format, readable by common tools like {@code gzip -d}.
+     */
+    GZIP(".gz") {
+        @Override
+        protected InputStream wrap(final InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        protected OutputStream wrap(final OutputStream out, final int level) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    this.def.setLevel(level);
+                }
+            };
+        }
+    },
+
+    /**
+     * The file is stored as a zlib stream, without the file header of gzip.
+     */
+    DEFLATE(".deflate") {
+        @Override
+        protected InputStream wrap(final InputStream in) {
+            return new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        this.inf.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        protected OutputStream wrap(final OutputStream out, final int level) {
+            return new DeflaterOutputStream(out, new Deflater(level), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        this.def.end();
+                    }
+                }
+            };
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The extension appended to the name of a file stored with this compression, empty for {@link #NONE}.
+     */
+    private final String extension;
+
+    /**
+     * Checks whether the level is a valid compression level, between 0 (no compression) and 9 (best
+     * compression) or {@link Deflater#DEFAULT_COMPRESSION}.
+     *
+     * @param level The compression level
+     * @return true if the level is valid
+     */
+    public static boolean isValidLevel(final int level) {
+        return level == Deflater.DEFAULT_COMPRESSION
+            || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * Opens a stream reading the decompressed content of a file. An empty file is read as an empty
+     * stream, so freshly created files need no compressed header.
+     *
+     * @param file The file to read
+     * @return A buffered stream of the decompressed content
+     * @throws IOException If the file can't be opened or isn't compressed with this compression
+     */
+    public InputStream newInputStream(@NonNull final File file) throws IOException {
+        if (this != NONE && file.length() == 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        final InputStream in = Files.newInputStream(file.toPath());
+        try {
+            return this == NONE ? new BufferedInputStream(in, BUFFER_SIZE) : wrap(in);
+        } catch (final IOException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens a stream replacing the content of a file, compressing everything written to it.
+     * The compressed data is complete once the stream is closed.
+     *
+     * @param file  The file to write
+     * @param level The compression level, ignored for {@link #NONE}
+     * @return A buffered stream compressing into the file
+     * @throws IOException If the file can't be opened
+     */
+    public OutputStream newOutputStream(@NonNull final File file, final int level) throws IOException {
+        final OutputStream out = Files.newOutputStream(file.toPath());
+        try {
+            return this == NONE ? new BufferedOutputStream(out, BUFFER_SIZE) : wrap(out, level);
+        } catch (final IOException ex) {
+            out.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens a UTF-8 reader of the decompressed content of a file.
+     *
+     * @param file The file to read
+     * @return A reader of the decompressed content
+     * @throws IOException If the file can't be opened or isn't compressed with this compression
+     * @see #newInputStream(File)
+     */
+    public BufferedReader newReader(@NonNull final File file) throws IOException {
+        return new BufferedReader(new InputStreamReader(newInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a UTF-8 writer replacing the content of a file, compressing everything written to it.
+     *
+     * @param file  The file to write
+     * @param level The compression level, ignored for {@link #NONE}
+     * @return A writer compressing into the file
+     * @throws IOException If the file can't be opened
+     * @see #newOutputStream(File, int)
+     */
+    public BufferedWriter newWriter(@NonNull final File file, final int level) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(newOutputStream(file, level), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the name of a file stored with this compression, by appending the extension if it's missing.
+     *
+     * @param name The name of the file
+     * @return The name including the extension of this compression
+     */
+    public String fileName(@NonNull final String name) {
+        return name.endsWith(this.extension) ? name : name + this.extension;
+    }
+
+    protected abstract InputStream wrap(final InputStream in) throws IOException;
+
+    protected abstract OutputStream wrap(final OutputStream out, final int level) throws IOException;
+}
@@ -23,6 +23,17 @@ public enum DataType {
         public Map<String, Object> getMapImplementation() {
             return mapProvider.getMapImplementation();
         }
+    },
+
+    /**
+     * Insertion ordered like {@link #SORTED}, but backed by array-based maps without per-entry
+     * objects. Suited for files with many small sections.
+     */
+    COMPACT {
+        @Override
+        public Map<String, Object> getMapImplementation() {
+            return mapProvider.getCompactMapImplementation();
+        }
     };
 
     private static final MapProvider mapProvider = CrateProviders.mapProvider();
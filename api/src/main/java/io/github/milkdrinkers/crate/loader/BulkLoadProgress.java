@@ -0,0 +1,23 @@
+package io.github.milkdrinkers.crate.loader;
+
+import java.io.File;
+
+/**
+ * Receives progress updates from a {@link BulkLoader}.
+ * <p>
+ * Updates are delivered on the worker threads that loaded the files, so implementations must be thread safe.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface BulkLoadProgress {
+    /**
+     * Called after a file was loaded or failed to load.
+     *
+     * @param file      The file that was processed
+     * @param completed The number of files processed so far, including this one
+     * @param total     The total number of files
+     */
+    void onFileLoaded(File file, int completed, int total);
+}
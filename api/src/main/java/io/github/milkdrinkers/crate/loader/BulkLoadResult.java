@@ -0,0 +1,79 @@
+package io.github.milkdrinkers.crate.loader;
+
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link BulkLoader} run: the loaded files, the files that failed to load and timing statistics.
+ *
+ * @param <F> The type of the loaded files
+ * @since 4.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class BulkLoadResult<F extends FlatFile> {
+    /**
+     * The successfully loaded files, in the order they were discovered.
+     */
+    @ToString.Exclude
+    private final List<F> files;
+    /**
+     * The files that failed to load, mapped to the cause of the failure.
+     */
+    private final Map<File, Throwable> failures;
+    /**
+     * The number of workers that loaded files concurrently.
+     */
+    private final int workers;
+    /**
+     * Wall-clock time of the whole run, in nanoseconds.
+     */
+    private final long elapsedTime;
+    /**
+     * Sum of the time spent loading each file, in nanoseconds.
+     */
+    private final long totalLoadTime;
+    /**
+     * Time spent loading the slowest file, in nanoseconds.
+     */
+    private final long maxLoadTime;
+    /**
+     * The slowest file, or null if no file was processed.
+     */
+    @Nullable
+    private final File slowestFile;
+
+    /**
+     * @return Whether every discovered file was loaded
+     */
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * @param unit The unit to convert to
+     * @return Wall-clock time of the whole run in the given unit
+     */
+    public long getElapsedTime(final TimeUnit unit) {
+        return unit.convert(this.elapsedTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns how much faster the run was than loading the files one after another,
+     * i.e. the summed load time divided by the wall-clock time.
+     *
+     * @return The effective speedup, 1.0 if nothing was loaded
+     */
+    public double getSpeedup() {
+        return this.elapsedTime == 0 ? 1.0 : (double) this.totalLoadTime / this.elapsedTime;
+    }
+}
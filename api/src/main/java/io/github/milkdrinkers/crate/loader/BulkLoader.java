@@ -0,0 +1,254 @@
+package io.github.milkdrinkers.crate.loader;
+
+import io.github.milkdrinkers.crate.AbstractConfigurationBuilder;
+import io.github.milkdrinkers.crate.internal.FileType;
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import io.github.milkdrinkers.crate.internal.concurrent.ParallelRunner;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.Valid;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads all files of a format in a directory in parallel.
+ * <p>
+ * Files are discovered with {@link FileUtils#listFiles(File, String)} and opened through the builder of
+ * their format. The files are spread over a bounded number of workers by {@link ParallelRunner}, the
+ * calling thread being one of them.
+ * </p>
+ * <pre>{@code
+ * BulkLoadResult<Json> result = BulkLoader.builder(new File("data"), FileType.JSON, Json::builder)
+ *     .progress((file, completed, total) -> logger.info("Loaded " + completed + "/" + total))
+ *     .build()
+ *     .load();
+ * }</pre>
+ *
+ * @param <F> The type of the loaded files
+ * @since 4.0.0
+ */
+public final class BulkLoader<F extends FlatFile> {
+    private final File directory;
+    private final FileType fileType;
+    private final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier;
+    private final Executor executor;
+    private final int parallelism;
+    @Nullable
+    private final BulkLoadProgress progress;
+
+    private BulkLoader(final Builder<F> builder) {
+        this.directory = builder.directory;
+        this.fileType = builder.fileType;
+        this.builderSupplier = builder.builderSupplier;
+        this.executor = builder.executor;
+        this.parallelism = builder.parallelism;
+        this.progress = builder.progress;
+    }
+
+    /**
+     * Loads all files of a format in a directory on the given executor.
+     *
+     * @param directory       The directory to load the files from
+     * @param fileType        The format of the files, used to filter by extension
+     * @param builderSupplier Supplies a new configuration builder for every file
+     * @param executor        The executor to run the workers on
+     * @param <F>             The type of the loaded files
+     * @return The result of the run
+     */
+    public static <F extends FlatFile> BulkLoadResult<F> loadAll(
+        @NonNull final File directory,
+        @NonNull final FileType fileType,
+        @NonNull final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier,
+        @NonNull final Executor executor) {
+        return builder(directory, fileType, builderSupplier).executor(executor).build().load();
+    }
+
+    /**
+     * Creates a builder for a loader of the files in a directory.
+     *
+     * @param directory       The directory to load the files from
+     * @param fileType        The format of the files, used to filter by extension
+     * @param builderSupplier Supplies a new configuration builder for every file
+     * @param <F>             The type of the loaded files
+     * @return A new builder
+     */
+    public static <F extends FlatFile> Builder<F> builder(
+        @NonNull final File directory,
+        @NonNull final FileType fileType,
+        @NonNull final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier) {
+        return new Builder<>(directory, fileType, builderSupplier);
+    }
+
+    /**
+     * Discovers and loads the files, blocking until all of them were processed.
+     * A file that fails to load is recorded in {@link BulkLoadResult#getFailures()} and doesn't abort the run.
+     *
+     * @return The result of the run
+     */
+    public BulkLoadResult<F> load() {
+        final List<File> discovered = new ArrayList<>();
+        for (final File file : FileUtils.listFiles(this.directory, "." + this.fileType.getExtension())) {
+            if (file.isFile()) {
+                discovered.add(file);
+            }
+        }
+
+        final Run run = new Run(discovered.toArray(new File[0]));
+        final long start = System.nanoTime();
+        final int workers;
+        try {
+            workers = ParallelRunner.run(run.files.length, this.parallelism, this.executor, run::loadAt);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Interrupted while loading files",
+                "In: '" + this.directory.getAbsolutePath() + "'");
+        }
+        return run.result(workers, System.nanoTime() - start);
+    }
+
+    private final class Run {
+        private final File[] files;
+        private final Object[] loaded;
+        private final Throwable[] errors;
+        private final long[] loadTimes;
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private Run(final File[] files) {
+            this.files = files;
+            this.loaded = new Object[files.length];
+            this.errors = new Throwable[files.length];
+            this.loadTimes = new long[files.length];
+        }
+
+        private void loadAt(final int index) {
+            final File file = this.files[index];
+            final long start = System.nanoTime();
+            try {
+                final F flatFile = BulkLoader.this.builderSupplier.get().path(file).build();
+                // Parses the file now even if the builder was configured to load lazily
+                flatFile.getFileData();
+                this.loaded[index] = flatFile;
+            } catch (final Throwable throwable) {
+                this.errors[index] = throwable;
+            }
+            this.loadTimes[index] = System.nanoTime() - start;
+
+            final BulkLoadProgress progress = BulkLoader.this.progress;
+            final int count = this.completed.incrementAndGet();
+            if (progress != null) {
+                progress.onFileLoaded(file, count, this.files.length);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private BulkLoadResult<F> result(final int workers, final long elapsed) {
+            final List<F> out = new ArrayList<>(this.files.length);
+            final Map<File, Throwable> failures = new LinkedHashMap<>();
+            long total = 0;
+            long max = -1;
+            File slowest = null;
+
+            for (int i = 0; i < this.files.length; i++) {
+                if (this.errors[i] != null) {
+                    failures.put(this.files[i], this.errors[i]);
+                } else {
+                    out.add((F) this.loaded[i]);
+                }
+
+                total += this.loadTimes[i];
+                if (this.loadTimes[i] > max) {
+                    max = this.loadTimes[i];
+                    slowest = this.files[i];
+                }
+            }
+
+            return new BulkLoadResult<>(
+                Collections.unmodifiableList(out),
+                Collections.unmodifiableMap(failures),
+                workers,
+                elapsed,
+                total,
+                Math.max(0, max),
+                slowest);
+        }
+    }
+
+    /**
+     * Builder for a {@link BulkLoader}.
+     *
+     * @param <F> The type of the loaded files
+     */
+    public static final class Builder<F extends FlatFile> {
+        private final File directory;
+        private final FileType fileType;
+        private final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        @Nullable
+        private BulkLoadProgress progress;
+
+        private Builder(
+            final File directory,
+            final FileType fileType,
+            final Supplier<? extends AbstractConfigurationBuilder<?, F>> builderSupplier) {
+            this.directory = directory;
+            this.fileType = fileType;
+            this.builderSupplier = builderSupplier;
+        }
+
+        /**
+         * Sets the executor the workers run on. Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor The executor
+         * @return this builder instance for method chaining
+         */
+        public Builder<F> executor(@NonNull final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files loaded concurrently, including the calling thread.
+         * Defaults to the number of available processors.
+         *
+         * @param parallelism The maximum number of concurrent workers
+         * @return this builder instance for method chaining
+         */
+        public Builder<F> parallelism(final int parallelism) {
+            Valid.checkBoolean(parallelism > 0, "Parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets a listener notified after every processed file.
+         *
+         * @param progress The listener, or null to disable progress updates
+         * @return this builder instance for method chaining
+         */
+        public Builder<F> progress(@Nullable final BulkLoadProgress progress) {
+            this.progress = progress;
+            return this;
+        }
+
+        /**
+         * @return A new loader with the settings of this builder
+         */
+        public BulkLoader<F> build() {
+            return new BulkLoader<>(this);
+        }
+    }
+}
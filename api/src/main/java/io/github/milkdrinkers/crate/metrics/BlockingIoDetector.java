@@ -0,0 +1,120 @@
+package io.github.milkdrinkers.crate.metrics;
+
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reports synchronous disk accesses made by Crate on latency-critical threads, such as the main
+ * thread of a server. Reloads triggered by reading a value, writes and raw line reads are timed on
+ * registered threads only, and reported with their stack trace when they take at least the
+ * configured threshold. Nested accesses are reported once, by the outermost operation.
+ *
+ * <pre>{@code
+ * BlockingIoDetector.register(Thread.currentThread());
+ * BlockingIoDetector.threshold(1, TimeUnit.MILLISECONDS);
+ * BlockingIoDetector.reporter(report -> logger.warning(report.toString()));
+ * }</pre>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class BlockingIoDetector {
+    private final Set<Thread> CRITICAL_THREADS = new CopyOnWriteArraySet<>();
+    // Only used on critical threads, the outermost access is the one reported
+    private final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private volatile long thresholdNanos = 0;
+    private volatile Consumer<BlockingIoReport> reporter = report -> System.err.println(report);
+
+    /**
+     * Registers a thread as latency-critical.
+     *
+     * @param thread The thread, usually the main thread of the application
+     */
+    public void register(@NonNull final Thread thread) {
+        CRITICAL_THREADS.add(thread);
+    }
+
+    /**
+     * Stops watching a thread.
+     *
+     * @param thread The thread registered before
+     */
+    public void unregister(@NonNull final Thread thread) {
+        CRITICAL_THREADS.remove(thread);
+    }
+
+    /**
+     * @return true if the current thread was registered as latency-critical
+     */
+    public boolean isCritical() {
+        return !CRITICAL_THREADS.isEmpty() && CRITICAL_THREADS.contains(Thread.currentThread());
+    }
+
+    /**
+     * Sets the minimum duration of a reported access. Defaults to 0, which reports every access.
+     *
+     * @param threshold The minimum duration
+     * @param unit      The unit of the duration
+     */
+    public void threshold(final long threshold, @NonNull final TimeUnit unit) {
+        thresholdNanos = unit.toNanos(threshold);
+    }
+
+    /**
+     * Sets the callback receiving the reports. Defaults to printing them to {@link System#err}.
+     *
+     * @param consumer The callback, called on the critical thread right after the access
+     */
+    public void reporter(@NonNull final Consumer<BlockingIoReport> consumer) {
+        reporter = consumer;
+    }
+
+    /**
+     * Marks the start of a disk access. Used by {@link FlatFile} and the format modules.
+     *
+     * @return The start time, or -1 if the current thread isn't critical
+     */
+    public long begin() {
+        if (!isCritical()) {
+            return -1;
+        }
+        DEPTH.get()[0]++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a disk access started with {@link #begin()}, reporting it if needed.
+     *
+     * @param start     The value returned by {@link #begin()}
+     * @param operation The operation, for example {@code reload}
+     * @param file      The file accessed
+     */
+    public void end(final long start, @NonNull final String operation, @NonNull final File file) {
+        if (start < 0) {
+            return;
+        }
+
+        final long duration = System.nanoTime() - start;
+        final int[] depth = DEPTH.get();
+        if (--depth[0] > 0 || duration < thresholdNanos) {
+            return;
+        }
+
+        // Skips the frame of this method
+        final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        reporter.accept(new BlockingIoReport(
+            Thread.currentThread().getName(),
+            operation,
+            file,
+            duration,
+            Arrays.copyOfRange(stackTrace, Math.min(1, stackTrace.length), stackTrace.length)));
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.milkdrinkers.crate.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A synchronous disk access performed on a latency-critical thread, reported by {@link BlockingIoDetector}.
+ *
+ * @since 4.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public final class BlockingIoReport {
+    /**
+     * The name of the thread that performed the access.
+     */
+    private final String threadName;
+    /**
+     * The operation, for example {@code reload}, {@code write} or {@code read}.
+     */
+    private final String operation;
+    /**
+     * The file accessed.
+     */
+    private final File file;
+    /**
+     * The duration of the access, in nanoseconds.
+     */
+    private final long durationNanos;
+    /**
+     * Where the access was made from, without the frames of the detector itself.
+     */
+    private final StackTraceElement[] stackTrace;
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder()
+            .append("Blocking ").append(this.operation)
+            .append(" of '").append(this.file.getPath())
+            .append("' on thread '").append(this.threadName)
+            .append("' took ").append(TimeUnit.NANOSECONDS.toMicros(this.durationNanos) / 1000D).append("ms");
+        for (final StackTraceElement element : this.stackTrace) {
+            out.append(System.lineSeparator()).append("\tat ").append(element);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.milkdrinkers.crate.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The I/O counters and latencies recorded for a single file or file type by {@link RecordingMetrics}.
+ *
+ * @since 4.0.0
+ */
+@Getter
+public final class FileMetrics {
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LatencyHistogram reloadLatency = new LatencyHistogram();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder reloadCheckHits = new LongAdder();
+    private final LongAdder reloadCheckMisses = new LongAdder();
+
+    /**
+     * @return The number of times the file was read and parsed
+     */
+    public long getReads() {
+        return this.parseLatency.getCount();
+    }
+
+    /**
+     * @return The number of times the file was written
+     */
+    public long getWrites() {
+        return this.writeLatency.getCount();
+    }
+
+    /**
+     * @return The number of disk operations, a measure of how hot the file is
+     */
+    public long getOperations() {
+        return getReads() + getWrites();
+    }
+
+    @Override
+    public String toString() {
+        return "FileMetrics{reads=" + getReads()
+            + ", writes=" + getWrites()
+            + ", bytesRead=" + this.bytesRead.sum()
+            + ", bytesWritten=" + this.bytesWritten.sum()
+            + ", reloadCheckHits=" + this.reloadCheckHits.sum()
+            + ", reloadCheckMisses=" + this.reloadCheckMisses.sum()
+            + ", parse=" + this.parseLatency
+            + ", write=" + this.writeLatency + "}";
+    }
+}
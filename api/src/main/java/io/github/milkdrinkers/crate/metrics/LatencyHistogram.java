@@ -0,0 +1,93 @@
+package io.github.milkdrinkers.crate.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds. Durations are counted in buckets of powers of
+ * two, so percentiles are reported as the upper bound of their bucket, at most twice the real value.
+ *
+ * @since 4.0.0
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds, negative durations are counted as 0
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        this.buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(value | 1));
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * @return The number of recorded durations
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * @return The sum of all recorded durations in nanoseconds
+     */
+    public long getTotalNanos() {
+        return this.total.sum();
+    }
+
+    /**
+     * @return The longest recorded duration in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.max.get();
+    }
+
+    /**
+     * @return The average recorded duration in nanoseconds, 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        final long count = getCount();
+        return count == 0 ? 0D : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * Returns an upper bound of the duration below which the given share of the durations fall.
+     *
+     * @param percentile The percentile between 0 and 100, for example 99 for the 99th percentile
+     * @return The upper bound of the bucket containing the percentile, in nanoseconds
+     */
+    public long getPercentileNanos(final double percentile) {
+        final long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = (long) Math.ceil(Math.min(100D, Math.max(0D, percentile)) / 100D * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.buckets.get(bucket);
+            if (seen >= rank && seen > 0) {
+                return bucket == BUCKETS - 1 ? Long.MAX_VALUE : Math.min((2L << bucket) - 1, getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount()
+            + ", meanNanos=" + (long) getMeanNanos()
+            + ", p99Nanos=" + getPercentileNanos(99)
+            + ", maxNanos=" + getMaxNanos() + "}";
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.milkdrinkers.crate.metrics;
+
+import io.github.milkdrinkers.crate.internal.FileType;
+import io.github.milkdrinkers.crate.internal.provider.CrateMetrics;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A dependency free {@link CrateMetrics} keeping counters and latency histograms in memory, per
+ * {@link FileType} and per file. Register it with {@link CrateProviders#metrics(CrateMetrics)} and
+ * read it from a command or a scheduled task, or use it as a template to feed an existing metrics stack.
+ *
+ * <pre>{@code
+ * final RecordingMetrics metrics = new RecordingMetrics();
+ * CrateProviders.metrics(metrics);
+ * ...
+ * metrics.getHottestFiles(5).forEach((file, stats) -> logger.info(file + ": " + stats));
+ * }</pre>
+ *
+ * @since 4.0.0
+ */
+public final class RecordingMetrics implements CrateMetrics {
+    private final Map<FileType, FileMetrics> byType = new EnumMap<>(FileType.class);
+    private final ConcurrentMap<File, FileMetrics> byFile = new ConcurrentHashMap<>();
+
+    public RecordingMetrics() {
+        for (final FileType type : FileType.values()) {
+            this.byType.put(type, new FileMetrics());
+        }
+    }
+
+    @Override
+    public void onRead(final FileType type, final File file, final long bytes, final long parseNanos) {
+        recordRead(this.byType.get(type), parseNanos, bytes);
+        recordRead(metricsOf(file), parseNanos, bytes);
+    }
+
+    @Override
+    public void onReload(final FileType type, final File file, final long nanos) {
+        this.byType.get(type).getReloadLatency().record(nanos);
+        metricsOf(file).getReloadLatency().record(nanos);
+    }
+
+    @Override
+    public void onWrite(final FileType type, final File file, final long bytes, final long nanos) {
+        recordWrite(this.byType.get(type), nanos, bytes);
+        recordWrite(metricsOf(file), nanos, bytes);
+    }
+
+    @Override
+    public void onReloadCheck(final FileType type, final File file, final boolean reloaded) {
+        // Called before every access, so nothing is allocated here once the file is known
+        if (reloaded) {
+            this.byType.get(type).getReloadCheckMisses().increment();
+            metricsOf(file).getReloadCheckMisses().increment();
+        } else {
+            this.byType.get(type).getReloadCheckHits().increment();
+            metricsOf(file).getReloadCheckHits().increment();
+        }
+    }
+
+    /**
+     * @param type The type of files
+     * @return The metrics of all files of that type
+     */
+    public FileMetrics getMetrics(@NonNull final FileType type) {
+        return this.byType.get(type);
+    }
+
+    /**
+     * @param file The file, as passed to the builder of the {@link io.github.milkdrinkers.crate.internal.FlatFile}
+     * @return The metrics of the file, or null if nothing was recorded for it
+     */
+    @Nullable
+    public FileMetrics getMetrics(@NonNull final File file) {
+        return this.byFile.get(file);
+    }
+
+    /**
+     * Returns the files with the most reads and writes.
+     *
+     * @param limit The maximum number of files to return
+     * @return The files and their metrics, the hottest first
+     */
+    public Map<File, FileMetrics> getHottestFiles(final int limit) {
+        final List<Map.Entry<File, FileMetrics>> entries = new ArrayList<>(this.byFile.entrySet());
+        entries.sort((first, second) ->
+            Long.compare(second.getValue().getOperations(), first.getValue().getOperations()));
+
+        final Map<File, FileMetrics> out = new LinkedHashMap<>();
+        for (final Map.Entry<File, FileMetrics> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            out.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    /**
+     * Forgets everything recorded per file, for example after files were deleted.
+     */
+    public void clearFiles() {
+        this.byFile.clear();
+    }
+
+    private FileMetrics metricsOf(final File file) {
+        final FileMetrics metrics = this.byFile.get(file);
+        return metrics == null ? this.byFile.computeIfAbsent(file, key -> new FileMetrics()) : metrics;
+    }
+
+    private static void recordRead(final FileMetrics metrics, final long nanos, final long bytes) {
+        metrics.getParseLatency().record(nanos);
+        metrics.getBytesRead().add(bytes);
+    }
+
+    private static void recordWrite(final FileMetrics metrics, final long nanos, final long bytes) {
+        metrics.getWriteLatency().record(nanos);
+        metrics.getBytesWritten().add(bytes);
+    }
+}
@@ -0,0 +1,336 @@
+package io.github.milkdrinkers.crate.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A memory-lean, insertion ordered map for the many small sections of configuration files.
+ * <p>
+ * Keys and values are kept in two parallel arrays without per-entry objects. Up to
+ * {@value #INDEX_THRESHOLD} entries lookups scan the keys linearly, larger maps additionally build an
+ * open-addressing index into the arrays. Removals shift the arrays and are therefore O(n), which suits
+ * configuration data that is mostly read. This is NOT Thread safe.
+ * </p>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ * @since 4.0.0
+ */
+@SuppressWarnings("unchecked")
+public class CompactMap<K, V> extends AbstractMap<K, V> {
+    private static final int INDEX_THRESHOLD = 8;
+    private static final int MIN_CAPACITY = 4;
+    private static final Object[] EMPTY = {};
+
+    private Object[] keys = EMPTY;
+    private Object[] values = EMPTY;
+    private int size;
+    // Slots hold the position of an entry plus one, 0 marks an empty slot
+    private int[] index;
+    private int modCount;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    public CompactMap() {
+    }
+
+    public CompactMap(final int initialCapacity) {
+        if (initialCapacity > 0) {
+            this.keys = new Object[initialCapacity];
+            this.values = new Object[initialCapacity];
+        }
+    }
+
+    public CompactMap(@NotNull final Map<? extends K, ? extends V> map) {
+        this(map.size());
+        for (final Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            putInternal(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return positionOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        for (int i = 0; i < this.size; i++) {
+            if (Objects.equals(this.values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final int position = positionOf(key);
+        return position < 0 ? null : (V) this.values[position];
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        return putInternal(key, value);
+    }
+
+    private V putInternal(final K key, final V value) {
+        final int position = positionOf(key);
+        if (position >= 0) {
+            final V old = (V) this.values[position];
+            this.values[position] = value;
+            return old;
+        }
+
+        if (this.size == this.keys.length) {
+            grow();
+        }
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.size++;
+        this.modCount++;
+
+        if (this.index != null && this.size * 2 <= this.index.length) {
+            indexPosition(this.size - 1);
+        } else if (this.size > INDEX_THRESHOLD) {
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final int position = positionOf(key);
+        if (position < 0) {
+            return null;
+        }
+
+        final V old = (V) this.values[position];
+        removeAt(position);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.keys, 0, this.size, null);
+        Arrays.fill(this.values, 0, this.size, null);
+        this.size = 0;
+        this.index = null;
+        this.modCount++;
+    }
+
+    /**
+     * Shrinks the backing arrays to the current size of the map.
+     */
+    public void trimToSize() {
+        if (this.size < this.keys.length) {
+            this.keys = this.size == 0 ? EMPTY : Arrays.copyOf(this.keys, this.size);
+            this.values = this.size == 0 ? EMPTY : Arrays.copyOf(this.values, this.size);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new EntrySet();
+        }
+        return this.entrySet;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Internal helpers
+    // ----------------------------------------------------------------------------------------------------
+
+    private int positionOf(final Object key) {
+        if (this.index == null) {
+            for (int i = 0; i < this.size; i++) {
+                if (Objects.equals(this.keys[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        final int mask = this.index.length - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            final int entry = this.index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (Objects.equals(this.keys[entry - 1], key)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void removeAt(final int position) {
+        final int moved = this.size - position - 1;
+        if (moved > 0) {
+            System.arraycopy(this.keys, position + 1, this.keys, position, moved);
+            System.arraycopy(this.values, position + 1, this.values, position, moved);
+        }
+        this.size--;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+        this.modCount++;
+
+        if (this.size <= INDEX_THRESHOLD) {
+            this.index = null;
+        } else {
+            rebuildIndex();
+        }
+    }
+
+    private void grow() {
+        final int length = this.keys.length;
+        final int newLength = length < MIN_CAPACITY ? MIN_CAPACITY : length + (length >> 1);
+        this.keys = Arrays.copyOf(this.keys, newLength);
+        this.values = Arrays.copyOf(this.values, newLength);
+    }
+
+    private void rebuildIndex() {
+        // Keeps the load factor at or below 0.5 to keep probe sequences short
+        int capacity = INDEX_THRESHOLD * 4;
+        while (capacity < this.size * 2) {
+            capacity <<= 1;
+        }
+        this.index = new int[capacity];
+        for (int i = 0; i < this.size; i++) {
+            indexPosition(i);
+        }
+    }
+
+    private void indexPosition(final int position) {
+        final int mask = this.index.length - 1;
+        int slot = hash(this.keys[position]) & mask;
+        while (this.index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        this.index[slot] = position + 1;
+    }
+
+    private static int hash(final Object key) {
+        final int hash = key == null ? 0 : key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @NotNull
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactMap.this.size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = CompactMap.this.modCount;
+
+        @Override
+        public boolean hasNext() {
+            return this.cursor < CompactMap.this.size;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (CompactMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.cursor >= CompactMap.this.size) {
+                throw new NoSuchElementException();
+            }
+            this.lastReturned = this.cursor++;
+            return new Entry(this.lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (CompactMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(this.lastReturned);
+            this.cursor = this.lastReturned;
+            this.lastReturned = -1;
+            this.expectedModCount = CompactMap.this.modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<K, V> {
+        private final int position;
+
+        private Entry(final int position) {
+            this.position = position;
+        }
+
+        @Override
+        public K getKey() {
+            return (K) CompactMap.this.keys[this.position];
+        }
+
+        @Override
+        public V getValue() {
+            return (V) CompactMap.this.values[this.position];
+        }
+
+        @Override
+        public V setValue(final V value) {
+            final V old = getValue();
+            CompactMap.this.values[this.position] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
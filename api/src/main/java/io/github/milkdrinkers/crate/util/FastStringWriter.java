@@ -72,7 +72,8 @@ public class FastStringWriter extends Writer {
 
     @Override
     public void write(final int c) {
-        this.stringBuilder.append(c);
+        // Writer#write(int) writes a character, not its numeric value
+        this.stringBuilder.append((char) c);
     }
 
     @Override
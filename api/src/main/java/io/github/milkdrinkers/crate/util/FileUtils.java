@@ -1,9 +1,11 @@
 package io.github.milkdrinkers.crate.util;
 
+import io.github.milkdrinkers.crate.backup.BackupEngine;
+import io.github.milkdrinkers.crate.backup.BackupResult;
 import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.metrics.BlockingIoDetector;
 import lombok.Cleanup;
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
@@ -13,19 +15,17 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * Class for easier, more convenient {@literal &} strait interaction with files
@@ -290,6 +290,7 @@ public class FileUtils {
     }
 
     public List<String> readAllLines(@NonNull final File file) {
+        final long blocking = BlockingIoDetector.begin();
         try (
             final BufferedReader reader = createReader(file)
         ) {
@@ -299,6 +300,8 @@ public class FileUtils {
                 ex,
                 "Error while reading '" + file.getName() + "'.",
                 "In: '" + getParentDirPath(file) + "'");
+        } finally {
+            BlockingIoDetector.end(blocking, "read", file);
         }
     }
 
@@ -306,28 +309,34 @@ public class FileUtils {
     // Archiving
     // ----------------------------------------------------------------------------------------------------
 
-    @SneakyThrows
+    /**
+     * Backs up a directory into a zip archive, see {@link BackupEngine}.
+     * <p>
+     * A manifest named after the directory is kept next to the archive. Files that haven't changed
+     * since the last backup into the same folder are copied from the previous archive instead of
+     * being compressed again.
+     * </p>
+     *
+     * @param sourceDirectory The directory to back up
+     * @param to              The path of the archive, without the ".zip" extension
+     */
     public void zipFile(final String sourceDirectory, final String to) {
-        final File fileTo = getAndMake(new File(to + ".zip"));
-
-        @Cleanup ZipOutputStream zipOutputStream = new ZipOutputStream(createOutputStream(fileTo));
-        final Path pathFrom = Paths.get(new File(sourceDirectory).toURI());
-
-        Files.walk(pathFrom)
-            .filter(path -> !Files.isDirectory(path))
-            .forEach(
-                path -> {
-                    val zipEntry = new ZipEntry(pathFrom.relativize(path).toString());
-
-                    try {
-                        zipOutputStream.putNextEntry(zipEntry);
-
-                        Files.copy(path, zipOutputStream);
-                        zipOutputStream.closeEntry();
-                    } catch (final IOException ex) {
-                        ex.printStackTrace();
-                    }
-                });
+        final File source = new File(sourceDirectory);
+        final File archive = new File(to + ".zip").getAbsoluteFile();
+        final Path sourceName = source.toPath().toAbsolutePath().normalize().getFileName();
+        final BackupResult result = BackupEngine.builder(source, archive)
+            .manifest(new File(archive.getParentFile(), "." + sourceName + ".manifest"))
+            .build()
+            .run();
+
+        if (!result.isSuccessful()) {
+            final Map.Entry<File, Throwable> failure = result.getFailures().entrySet().iterator().next();
+            throw CrateProviders.exceptionHandler().create(
+                failure.getValue(),
+                "Error while backing up '" + failure.getKey().getName() + "' to '" + archive.getName() + "'.",
+                result.getFailures().size() + " file(s) couldn't be backed up.",
+                "In: '" + getParentDirPath(failure.getKey()) + "'");
+        }
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -0,0 +1,162 @@
+package io.github.milkdrinkers.crate.util;
+
+import io.github.milkdrinkers.crate.internal.LazySection;
+import lombok.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A weak interning pool deduplicating equal strings across files.
+ * <p>
+ * Files sharing the same schema contain the same keys and often the same values. When a pool is
+ * configured through {@code internStrings(true)} or {@code stringPool(pool)} on a builder, the readers
+ * of the formats pass keys and string values through the pool while they build the data of the file, so
+ * all files share a single instance of every key and short string value. Pooled strings are only weakly referenced and are collected once no file uses them anymore.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class StringPool {
+    private static final int SEGMENTS = 16;
+    private static final StringPool SHARED = new StringPool(64);
+
+    private final int maxValueLength;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param maxValueLength The maximum length of string values to intern, keys are always interned
+     */
+    public StringPool(final int maxValueLength) {
+        Valid.checkBoolean(maxValueLength >= 0, "Maximum value length mustn't be negative");
+        this.maxValueLength = maxValueLength;
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * @return The pool shared by all files built with {@code internStrings(true)}
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled instance equal to the given string, adding it to the pool if absent.
+     *
+     * @param string The string to intern
+     * @return The pooled instance
+     */
+    public String intern(@NonNull final String string) {
+        this.lookups.increment();
+
+        final int hash = string.hashCode();
+        final Segment segment = this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        synchronized (segment) {
+            final WeakReference<String> reference = segment.strings.get(string);
+            final String pooled = reference == null ? null : reference.get();
+            if (pooled != null) {
+                this.hits.increment();
+                return pooled;
+            }
+            segment.strings.put(string, new WeakReference<>(string));
+            return string;
+        }
+    }
+
+    /**
+     * Interns a string value if it isn't longer than the maximum value length of this pool.
+     *
+     * @param value The value to intern
+     * @return The pooled instance, or the value itself if it's too long to be interned
+     */
+    public String internValue(@NonNull final String value) {
+        return value.length() <= this.maxValueLength ? intern(value) : value;
+    }
+
+    /**
+     * Interns the keys and short string values of a map already read from a file, including nested maps and lists.
+     * Maps are rebuilt, as replacing a key with an equal instance isn't possible in place.
+     *
+     * @param map The map to intern
+     * @return A map of the same iteration order holding the pooled strings
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> internAll(@NonNull final Map<String, Object> map) {
+        return (Map<String, Object>) (Map<?, ?>) internMap(map);
+    }
+
+    private Map<Object, Object> internMap(final Map<?, ?> map) {
+        final Map<Object, Object> out = map instanceof LinkedHashMap || !(map instanceof HashMap)
+            ? new LinkedHashMap<>(capacity(map.size()))
+            : new HashMap<>(capacity(map.size()));
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            // Keys aren't necessarily strings, e.g. numeric YAML keys
+            final Object key = entry.getKey();
+            out.put(key instanceof String ? intern((String) key) : key, internObject(entry.getValue()));
+        }
+        return out;
+    }
+
+    private Object internObject(final Object value) {
+        if (value instanceof String) {
+            return internValue((String) value);
+        } else if (value instanceof LazySection) {
+            return ((LazySection) value).transform(this::internAll);
+        } else if (value instanceof Map) {
+            return internMap((Map<?, ?>) value);
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final List<Object> out = new ArrayList<>(list.size());
+            for (final Object element : list) {
+                out.add(internObject(element));
+            }
+            return out;
+        }
+        return value;
+    }
+
+    /**
+     * @return The number of distinct strings currently pooled
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.strings.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of strings passed through the pool
+     */
+    public long getLookupCount() {
+        return this.lookups.sum();
+    }
+
+    /**
+     * @return The number of strings replaced by an already pooled instance, i.e. the duplicates saved
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    private static int capacity(final int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75F + 1.0F);
+    }
+
+    private static final class Segment {
+        private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.milkdrinkers.crate.internal.jfr;
+
+import io.github.milkdrinkers.crate.internal.FileType;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+
+/**
+ * Starts JDK Flight Recorder events for the I/O of files.
+ * <p>
+ * This is the Java 11 variant of the multi-release jar. An event is only allocated and timed while
+ * a recording enables it, otherwise {@link CrateEvent#NONE} is returned.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class CrateEvents {
+    // Checked before allocating an event, as Event#isEnabled() needs an instance
+    private final EventType reloadType = EventType.getEventType(ReloadEvent.class);
+    private final EventType writeType = EventType.getEventType(WriteEvent.class);
+    private final EventType parseType = EventType.getEventType(ParseEvent.class);
+    private final EventType addDefaultsType = EventType.getEventType(AddDefaultsEvent.class);
+
+    /**
+     * Starts timing an operation.
+     *
+     * @param type The operation
+     * @return The running event, to be finished when the operation completed
+     */
+    public CrateEvent begin(final CrateEventType type) {
+        final FileEvent event;
+        switch (type) {
+            case RELOAD:
+                event = reloadType.isEnabled() ? new ReloadEvent() : null;
+                break;
+            case WRITE:
+                event = writeType.isEnabled() ? new WriteEvent() : null;
+                break;
+            case PARSE:
+                event = parseType.isEnabled() ? new ParseEvent() : null;
+                break;
+            default:
+                event = addDefaultsType.isEnabled() ? new AddDefaultsEvent() : null;
+                break;
+        }
+
+        if (event == null) {
+            return CrateEvent.NONE;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Category("Crate")
+    @StackTrace(false)
+    abstract static class FileEvent extends Event implements CrateEvent {
+        @Label("Path")
+        String path;
+
+        @Label("File Type")
+        String fileType;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Keys")
+        @Description("The number of top level keys")
+        int keys;
+
+        @Override
+        public void finish(final File file, final FileType type, final long bytes, final int keys) {
+            end();
+            if (shouldCommit()) {
+                this.path = file.getPath();
+                this.fileType = type.name();
+                this.bytes = bytes;
+                this.keys = keys;
+                commit();
+            }
+        }
+    }
+
+    @Name("crate.Reload")
+    @Label("Crate Reload")
+    @Description("A file was read, parsed and its data replaced")
+    static final class ReloadEvent extends FileEvent {
+    }
+
+    @Name("crate.Write")
+    @Label("Crate Write")
+    @Description("The data of a file was serialized and written")
+    static final class WriteEvent extends FileEvent {
+    }
+
+    @Name("crate.Parse")
+    @Label("Crate Parse")
+    @Description("The content of a file was read and parsed")
+    static final class ParseEvent extends FileEvent {
+    }
+
+    @Name("crate.AddDefaults")
+    @Label("Crate Add Defaults")
+    @Description("Defaults were merged into a file")
+    static final class AddDefaultsEvent extends FileEvent {
+    }
+}
@@ -1,4 +1,228 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.backup.BackupEngine;
+import io.github.milkdrinkers.crate.backup.BackupResult;
+import io.github.milkdrinkers.crate.internal.FileData;
+import io.github.milkdrinkers.crate.internal.concurrent.ParallelRunner;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.util.CompactMap;
+import io.github.milkdrinkers.crate.util.FastStringWriter;
+import io.github.milkdrinkers.crate.util.FileUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
 class ApiTest {
+    @Test
+    void testCompactMap() {
+        final Map<String, Object> compact = new CompactMap<>();
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            compact.put("key-" + i, i);
+            expected.put("key-" + i, i);
+        }
+        Assertions.assertEquals(expected, compact);
+        Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(compact.keySet()));
+        Assertions.assertEquals(42, compact.get("key-42"));
+        Assertions.assertNull(compact.get("key-100"));
+
+        Assertions.assertEquals(7, compact.put("key-7", "seven"));
+        Assertions.assertEquals("seven", compact.get("key-7"));
+        Assertions.assertEquals(100, compact.size());
+
+        for (int i = 0; i < 95; i++) {
+            Assertions.assertEquals(i == 7 ? "seven" : i, compact.remove("key-" + i));
+        }
+        Assertions.assertEquals(5, compact.size());
+        Assertions.assertEquals(99, compact.get("key-99"));
+        Assertions.assertFalse(compact.containsKey("key-0"));
+
+        final Iterator<Map.Entry<String, Object>> iterator = compact.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if ((Integer) iterator.next().getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        final List<String> keys = new ArrayList<>(compact.keySet());
+        Assertions.assertEquals(3, keys.size());
+        Assertions.assertEquals("key-95", keys.get(0));
+        Assertions.assertEquals("key-99", keys.get(2));
+
+        compact.clear();
+        Assertions.assertTrue(compact.isEmpty());
+        Assertions.assertNull(compact.put(null, "null-key"));
+        Assertions.assertEquals("null-key", compact.get(null));
+    }
+
+    @Test
+    void testCompactFileData() {
+        final Map<String, Object> section = new HashMap<>();
+        section.put("name", "Steve");
+        section.put("balance", 10);
+        final Map<String, Object> map = new HashMap<>();
+        map.put("player", section);
+
+        final FileData fileData = new FileData(map, DataType.COMPACT);
+        Assertions.assertTrue(fileData.isCompact());
+        Assertions.assertTrue(fileData.toMap().get("player") instanceof CompactMap);
+        Assertions.assertEquals("Steve", fileData.get("player.name"));
+
+        fileData.insert("player.home.world", "overworld");
+        Assertions.assertTrue(fileData.get("player.home") instanceof CompactMap);
+        Assertions.assertEquals("overworld", fileData.get("player.home.world"));
+
+        fileData.remove("player.name");
+        Assertions.assertFalse(fileData.containsKey("player.name"));
+        Assertions.assertEquals(10, fileData.get("player.balance"));
+    }
+
+    @Test
+    void testParallelRunner() throws InterruptedException {
+        final AtomicIntegerArray calls = new AtomicIntegerArray(8);
+        Assertions.assertEquals(4, ParallelRunner.run(8, 4, Runnable::run, calls::incrementAndGet));
+        for (int i = 0; i < calls.length(); i++) {
+            Assertions.assertEquals(1, calls.get(i));
+        }
+
+        // Workers queued on an executor that never runs them don't block the caller
+        final AtomicIntegerArray stalledCalls = new AtomicIntegerArray(8);
+        final List<Runnable> queued = new ArrayList<>();
+        Assertions.assertEquals(4, ParallelRunner.run(8, 4, queued::add, stalledCalls::incrementAndGet));
+        Assertions.assertEquals(3, queued.size());
+        for (int i = 0; i < stalledCalls.length(); i++) {
+            Assertions.assertEquals(1, stalledCalls.get(i));
+        }
+        queued.forEach(Runnable::run);
+        for (int i = 0; i < stalledCalls.length(); i++) {
+            Assertions.assertEquals(1, stalledCalls.get(i));
+        }
+
+        Assertions.assertEquals(1, ParallelRunner.run(0, 4, queued::add, index -> Assertions.fail()));
+    }
+
+    @Test
+    void testFastStringWriter() {
+        final FastStringWriter writer = new FastStringWriter();
+        writer.write('[');
+        writer.write("key");
+        writer.write(']');
+        Assertions.assertEquals("[key]", writer.toString());
+    }
+
+    @Test
+    void testBackup(@TempDir final File tempDir) throws IOException {
+        final File source = new File(tempDir, "data");
+        final File backups = new File(tempDir, "backups");
+        final Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("config.yml", "motd: \"Hello\"\n".getBytes(StandardCharsets.UTF_8));
+        files.put("players/alice.json", "{\"kills\": 5}".getBytes(StandardCharsets.UTF_8));
+        files.put("players/bob smith.json", "{\"kills\": 7}".getBytes(StandardCharsets.UTF_8));
+        final byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+        files.put("random.bin", random);
+        final byte[] large = new byte[9 << 20];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) (i % 251);
+        }
+        files.put("world/region.dat", large);
+        for (final Map.Entry<String, byte[]> entry : files.entrySet()) {
+            final File file = new File(source, entry.getKey());
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), entry.getValue());
+        }
+
+        FileUtils.zipFile(source.getPath(), new File(backups, "first").getPath());
+        final File first = new File(backups, "first.zip");
+        assertArchive(first, files);
+
+        // Unchanged files are copied from the previous archive
+        files.put("config.yml", "motd: \"Changed\"\n".getBytes(StandardCharsets.UTF_8));
+        files.put("players/carol.json", "{}".getBytes(StandardCharsets.UTF_8));
+        files.remove("players/alice.json");
+        Files.write(new File(source, "config.yml").toPath(), files.get("config.yml"));
+        Files.write(new File(source, "players/carol.json").toPath(), files.get("players/carol.json"));
+        Assertions.assertTrue(new File(source, "players/alice.json").delete());
+
+        final File second = new File(backups, "second.zip");
+        final BackupResult result = BackupEngine.builder(source, second)
+            .manifest(new File(backups, ".data.manifest"))
+            .parallelism(2)
+            .build()
+            .run();
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertEquals(5, result.getEntries());
+        Assertions.assertEquals(3, result.getReusedEntries());
+        Assertions.assertFalse(new File(backups, "second.zip.part").exists());
+        assertArchive(second, files);
+        assertArchive(first, null);
+
+        // Without the previous archive every file is compressed again
+        Assertions.assertTrue(second.delete());
+        final BackupResult full = BackupEngine.builder(source, new File(backups, "third.zip"))
+            .manifest(new File(backups, ".data.manifest"))
+            .build()
+            .run();
+        Assertions.assertEquals(0, full.getReusedEntries());
+        assertArchive(new File(backups, "third.zip"), files);
+    }
+
+    private static void assertArchive(final File archive, final Map<String, byte[]> expected) throws IOException {
+        final Map<String, byte[]> central = new HashMap<>();
+        try (ZipFile zip = new ZipFile(archive)) {
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                try (InputStream in = zip.getInputStream(entry)) {
+                    central.put(entry.getName(), readAll(in));
+                }
+            }
+        }
+
+        // The local headers are read on their own when the archive is streamed
+        final Map<String, byte[]> local = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(archive.toPath()))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                local.put(entry.getName(), readAll(in));
+            }
+        }
+
+        Assertions.assertEquals(central.keySet(), local.keySet());
+        if (expected != null) {
+            Assertions.assertEquals(expected.keySet(), central.keySet());
+            for (final Map.Entry<String, byte[]> entry : expected.entrySet()) {
+                Assertions.assertArrayEquals(entry.getValue(), central.get(entry.getKey()), entry.getKey());
+                Assertions.assertArrayEquals(entry.getValue(), local.get(entry.getKey()), entry.getKey());
+            }
+        }
+    }
+
+    private static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
 }
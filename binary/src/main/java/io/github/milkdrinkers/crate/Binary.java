@@ -0,0 +1,175 @@
+package io.github.milkdrinkers.crate;
+
+import io.github.milkdrinkers.crate.defaults.SharedDefaults;
+import io.github.milkdrinkers.crate.internal.FileData;
+import io.github.milkdrinkers.crate.internal.FileType;
+import io.github.milkdrinkers.crate.internal.FlatFile;
+import io.github.milkdrinkers.crate.internal.editor.binary.BinaryFormat;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.util.StringPool;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A file in a compact binary format, for data that is read and written by programs rather than
+ * edited by hand. Values are stored with type tags and varints, and every map key is stored once in
+ * a key table, so files are smaller and faster to read than their JSON equivalent.
+ *
+ * @since 4.0.0
+ */
+public class Binary extends FlatFile {
+    /**
+     * Whether the offsets of the top-level entries are written into the file.
+     */
+    @Getter
+    private final boolean offsetIndex;
+    /**
+     * Whether large sections are parsed on their first access instead of on reload.
+     */
+    @Getter
+    private final boolean lazySections;
+
+    Binary(
+        @NonNull final String name,
+        @NonNull final String path,
+        @Nullable final InputStream inputStream,
+        @Nullable final ReloadSetting reloadSetting,
+        @Nullable final DataType dataType,
+        @Nullable final Consumer<FlatFile> reloadConsumer,
+        @Nullable final StringPool stringPool,
+        @Nullable final Compression compression,
+        final int compressionLevel,
+        final boolean offsetIndex,
+        final boolean lazySections,
+        final boolean readOnly,
+        final boolean lazy
+    ) {
+        super(name, path, FileType.BINARY, reloadConsumer, compression, compressionLevel);
+        this.offsetIndex = offsetIndex;
+        this.lazySections = lazySections;
+
+        if (create() && inputStream != null) {
+            writeToFile(inputStream);
+        }
+
+        if (reloadSetting != null) {
+            this.reloadSetting = reloadSetting;
+        }
+
+        if (dataType != null) {
+            this.dataType = dataType;
+        }
+
+        this.stringPool = stringPool;
+
+        if (readOnly) {
+            freeze();
+        }
+
+        if (!lazy) {
+            forceReload();
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Abstract methods to implement
+    // ----------------------------------------------------------------------------------------------------
+
+    @Override
+    protected final Map<String, Object> readToMap() throws IOException {
+        final byte[] data = readAllBytes();
+        return this.lazySections
+            ? BinaryFormat.readLazy(data, this.stringPool)
+            : BinaryFormat.read(data, this.stringPool);
+    }
+
+    @Override
+    protected final void write(final FileData data) throws IOException {
+        try (OutputStream outputStream = openOutputStream()) {
+            BinaryFormat.write(data.toMap(), outputStream, this.offsetIndex);
+        }
+    }
+
+    /**
+     * Returns the shared defaults of a bundled binary resource, see {@link SharedDefaults}.
+     *
+     * @param resource The name of the resource
+     * @return The shared defaults of the resource
+     */
+    public static FileData sharedDefaults(@NonNull final String resource) {
+        return SharedDefaults.resource(CrateProviders.inputStreamProvider(), resource, BinaryFormat::read);
+    }
+
+    /**
+     * A builder to build a new Binary instance.
+     * @return A new Builder instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractConfigurationBuilder<Builder, Binary> {
+        private boolean offsetIndex = true;
+        private boolean lazySections = false;
+
+        private Builder() {
+            super(CrateProviders.inputStreamProvider(), FileType.BINARY);
+        }
+
+        /**
+         * Configures whether the offsets of the top-level entries are written into the file, which
+         * lets readers decode single sections without decoding the whole file. Enabled by default.
+         *
+         * @param offsetIndex true to write the offset index
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder offsetIndex(final boolean offsetIndex) {
+            this.offsetIndex = offsetIndex;
+            return this;
+        }
+
+        /**
+         * Configures whether large sections are parsed on their first access instead of when the
+         * file is reloaded. Only the sections in use are then held in memory as parsed data, which
+         * suits large files of which only a few sections are read. Read-only files parse all
+         * sections on reload regardless.
+         *
+         * @param lazySections true to parse sections on their first access
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder lazySections(final boolean lazySections) {
+            this.lazySections = lazySections;
+            return this;
+        }
+
+        public Binary build() {
+            return new Binary(
+                super.getFileName(),
+                super.getDirectoryPath(),
+                super.getDefaultDataStream(),
+                super.getReloadSetting(),
+                super.getDataType(),
+                super.getReloadCallback(),
+                super.getStringPool(),
+                super.getCompression(),
+                super.getCompressionLevel(),
+                this.offsetIndex,
+                this.lazySections,
+                super.isReadOnly(),
+                super.isLazy()
+            );
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package io.github.milkdrinkers.crate.internal.editor.binary;
+
+import io.github.milkdrinkers.crate.internal.LazySection;
+import io.github.milkdrinkers.crate.internal.binary.BinaryDecoder;
+import io.github.milkdrinkers.crate.internal.binary.BinaryEncoder;
+import io.github.milkdrinkers.crate.internal.exceptions.BinaryException;
+import io.github.milkdrinkers.crate.util.StringPool;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for reading and writing the binary file format.
+ * <p>
+ * A document starts with the magic bytes {@code CRBN}, a format version and a flags byte, followed
+ * by the key table holding every distinct map key once. If the offset index is enabled, the table is
+ * followed by the position of the value of every top-level entry, so single sections can be read
+ * without decoding the sections in front of them. The body is the root map encoded by
+ * {@link BinaryEncoder}, referring to keys by their index in the key table.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class BinaryFormat {
+    private static final byte[] MAGIC = {'C', 'R', 'B', 'N'};
+    private static final byte VERSION = 1;
+    private static final int FLAG_INDEX = 1;
+    // Smaller sections are parsed right away, as deferring them costs more than it saves
+    private static final int MIN_LAZY_BYTES = 512;
+
+    // Encoders keep their buffers between documents, every thread reuses its own
+    private static final ThreadLocal<BinaryEncoder> BODY = ThreadLocal.withInitial(() -> new BinaryEncoder(true));
+    private static final ThreadLocal<BinaryEncoder> HEADER = ThreadLocal.withInitial(BinaryEncoder::new);
+
+    /**
+     * Reads a binary document from an InputStream. An empty stream is read as an empty document.
+     *
+     * @param in the InputStream to read data from
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws IOException     if a read error occurs
+     * @throws BinaryException if the data isn't a valid document
+     */
+    public Map<String, Object> read(@NonNull final InputStream in) throws IOException {
+        return read(readAllBytes(in));
+    }
+
+    /**
+     * Reads a binary document. An empty array is read as an empty document.
+     *
+     * @param data the document
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws BinaryException if the data isn't a valid document
+     */
+    public Map<String, Object> read(@NonNull final byte[] data) {
+        return read(data, null);
+    }
+
+    /**
+     * Reads a binary document, interning its keys and string values while they are decoded. An
+     * empty array is read as an empty document.
+     *
+     * @param data the document
+     * @param pool the pool to intern strings into, or null to not intern them
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws BinaryException if the data isn't a valid document
+     */
+    public Map<String, Object> read(@NonNull final byte[] data, @Nullable final StringPool pool) {
+        if (data.length == 0) {
+            return new LinkedHashMap<>();
+        }
+
+        final BinaryDecoder decoder = new BinaryDecoder(data).pool(pool);
+        readHeader(decoder, pool);
+        return decoder.readMap();
+    }
+
+    /**
+     * Reads a binary document, parsing sections of at least {@value #MIN_LAZY_BYTES} bytes only
+     * when they are first accessed. The top-level entries are located through the offset index if
+     * the document has one, otherwise by skipping over the encoded sections.
+     *
+     * @param data the document, kept until every lazy section has been parsed
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws BinaryException if the data isn't a valid document
+     * @see LazySection
+     */
+    public Map<String, Object> readLazy(@NonNull final byte[] data) {
+        return readLazy(data, null);
+    }
+
+    /**
+     * Reads a binary document like {@link #readLazy(byte[])}, interning its keys and string values
+     * while they are decoded. Lazy sections intern their strings once they are parsed.
+     *
+     * @param data the document, kept until every lazy section has been parsed
+     * @param pool the pool to intern strings into, or null to not intern them
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws BinaryException if the data isn't a valid document
+     */
+    public Map<String, Object> readLazy(@NonNull final byte[] data, @Nullable final StringPool pool) {
+        if (data.length == 0) {
+            return new LinkedHashMap<>();
+        }
+
+        final BinaryDecoder decoder = new BinaryDecoder(data).pool(pool);
+        final Header header = readHeader(decoder, pool);
+        if (header.index == null) {
+            return readLazyEntries(data, header.keys, pool, header.body);
+        }
+
+        final Map<String, Object> out = new LinkedHashMap<>(header.index.size() * 4 / 3 + 1);
+        for (final Map.Entry<String, Integer> entry : header.index.entrySet()) {
+            decoder.position(header.body + entry.getValue());
+            out.put(entry.getKey(), readLazyValue(decoder, data, header.keys, pool));
+        }
+        return out;
+    }
+
+    private Map<String, Object> readLazyEntries(
+        final byte[] data,
+        final String[] keys,
+        @Nullable final StringPool pool,
+        final int position) {
+        final BinaryDecoder decoder = new BinaryDecoder(data).keys(keys).pool(pool);
+        decoder.position(position);
+        final int count = decoder.readMapHeader();
+        final Map<String, Object> out = new LinkedHashMap<>(Math.min(count, 1024) * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            final String key = decoder.readKey();
+            out.put(key, readLazyValue(decoder, data, keys, pool));
+        }
+        return out;
+    }
+
+    private Object readLazyValue(
+        final BinaryDecoder decoder,
+        final byte[] data,
+        final String[] keys,
+        @Nullable final StringPool pool) {
+        if (!decoder.isMapNext()) {
+            return decoder.readValue();
+        }
+
+        final int start = decoder.position();
+        decoder.readByte();
+        decoder.readVarInt();
+        final int length = decoder.readInt();
+        if (length < MIN_LAZY_BYTES) {
+            decoder.position(start);
+            return decoder.readValue();
+        }
+
+        // Nested sections are lazy as well, so touching a key parses only the maps on its path
+        decoder.skip(length);
+        return new LazySection(() -> readLazyEntries(data, keys, pool, start));
+    }
+
+    /**
+     * Writes data as a binary document to an OutputStream.
+     *
+     * @param data  the data to write
+     * @param out   where to write the data
+     * @param index true to write the offset index of the top-level entries
+     * @throws IOException     if a write error occurs
+     * @throws BinaryException if a value has a type that can't be encoded
+     */
+    public void write(
+        @NonNull final Map<String, Object> data,
+        @NonNull final OutputStream out,
+        final boolean index) throws IOException {
+        final BinaryEncoder body = BODY.get();
+        final BinaryEncoder header = HEADER.get();
+        body.reset();
+        header.reset();
+        try {
+            final int[] positions = index ? new int[data.size()] : null;
+            body.writeMap(data, positions);
+
+            header.writeBytes(MAGIC, 0, MAGIC.length)
+                .writeByte(VERSION)
+                .writeByte(index ? FLAG_INDEX : 0);
+            final List<String> keys = body.getKeys();
+            header.writeVarInt(keys.size());
+            for (final String key : keys) {
+                header.writeString(key);
+            }
+
+            if (positions != null) {
+                final Map<String, Integer> keyIndex = new HashMap<>(keys.size() * 4 / 3 + 1);
+                for (int i = 0; i < keys.size(); i++) {
+                    keyIndex.put(keys.get(i), i);
+                }
+
+                header.writeVarInt(positions.length);
+                int i = 0;
+                for (final Object key : data.keySet()) {
+                    header.writeVarInt(keyIndex.get(String.valueOf(key)));
+                    header.writeVarInt(positions[i++]);
+                }
+            }
+
+            header.writeTo(out);
+            body.writeTo(out);
+        } finally {
+            // Doesn't keep large documents reachable from the thread
+            if (body.size() > 1 << 20) {
+                BODY.remove();
+            }
+            body.reset();
+            header.reset();
+        }
+    }
+
+    /**
+     * Reads the header of a document, leaving the decoder at the start of the body.
+     *
+     * @param decoder the decoder positioned at the start of the document
+     * @param pool    the pool to intern the key table into, or null to not intern it
+     * @return the header of the document
+     */
+    private Header readHeader(final BinaryDecoder decoder, @Nullable final StringPool pool) {
+        for (final byte magic : MAGIC) {
+            if (decoder.readByte() != magic) {
+                throw new BinaryException("Data isn't a binary document");
+            }
+        }
+        final byte version = decoder.readByte();
+        if (version != VERSION) {
+            throw new BinaryException("Unsupported binary document version " + version);
+        }
+        final int flags = decoder.readByte();
+
+        final String[] keys = new String[decoder.readVarInt()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = pool == null ? decoder.readString() : pool.intern(decoder.readString());
+        }
+        decoder.keys(keys);
+
+        Map<String, Integer> index = null;
+        if ((flags & FLAG_INDEX) != 0) {
+            final int count = decoder.readVarInt();
+            index = new LinkedHashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                index.put(decoder.readKey(), decoder.readVarInt());
+            }
+        }
+        return new Header(keys, index, decoder.position());
+    }
+
+    private byte[] readAllBytes(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 8192));
+        final byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Header {
+        private final String[] keys;
+        // The positions of the values of the top-level entries relative to the body, null without an index
+        @Nullable
+        private final Map<String, Integer> index;
+        // Where the body starts in the document
+        private final int body;
+
+        private Header(final String[] keys, @Nullable final Map<String, Integer> index, final int body) {
+            this.keys = keys;
+            this.index = index;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.milkdrinkers.crate;
+
+import io.github.milkdrinkers.crate.internal.LazySection;
+import io.github.milkdrinkers.crate.internal.binary.BinaryEncoder;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
+import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+class BinaryTest {
+    static Binary binary;
+    @TempDir
+    File tempDir;
+
+    @BeforeEach
+    void setUp() {
+        binary = Binary.builder()
+            .path(tempDir.getPath(), "Example.bin")
+            .build();
+        Assertions.assertEquals("Example.bin", binary.getName());
+    }
+
+    @AfterEach
+    void tearDown() {
+        binary.clear();
+        Assertions.assertTrue(binary.getFile().delete());
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("a", 1);
+        nested.put("b", Arrays.asList("x", "y"));
+
+        binary.set("string", "Crate \u00e9");
+        binary.set("int", -42);
+        binary.set("long", Long.MAX_VALUE);
+        binary.set("double", 1.5);
+        binary.set("float", 2.5F);
+        binary.set("boolean", true);
+        binary.set("list", Arrays.asList(1, 2, 3));
+        binary.set("date", LocalDate.of(2024, 5, 1));
+        binary.set("dateTime", LocalDateTime.of(2024, 5, 1, 12, 30));
+        binary.set("section.nested", nested);
+
+        final byte[] bytes = Files.readAllBytes(binary.getFile().toPath());
+        Assertions.assertArrayEquals(new byte[]{'C', 'R', 'B', 'N'}, Arrays.copyOf(bytes, 4));
+
+        final Binary reloaded = Binary.builder()
+            .path(tempDir.getPath(), "Example.bin")
+            .reload(ReloadSetting.MANUALLY)
+            .offsetIndex(false)
+            .build();
+        Assertions.assertEquals("Crate \u00e9", reloaded.getString("string"));
+        Assertions.assertEquals(-42, reloaded.get("int"));
+        Assertions.assertEquals(Long.MAX_VALUE, reloaded.get("long"));
+        Assertions.assertEquals(1.5, reloaded.get("double"));
+        Assertions.assertEquals(2.5F, reloaded.get("float"));
+        Assertions.assertEquals(true, reloaded.get("boolean"));
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), reloaded.getList("list"));
+        Assertions.assertEquals(LocalDate.of(2024, 5, 1), reloaded.get("date"));
+        Assertions.assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30), reloaded.get("dateTime"));
+        Assertions.assertEquals(Arrays.asList("x", "y"), reloaded.getList("section.nested.b"));
+        Assertions.assertEquals(binary.getData(), reloaded.getData());
+
+        // Rewriting without the offset index reads back the same data
+        reloaded.set("int", 43);
+        binary.forceReload();
+        Assertions.assertEquals(43, binary.getInt("int"));
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), binary.getList("list"));
+    }
+
+    @Test
+    void testKeyTable() {
+        final Map<String, Object> players = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            final Map<String, Object> player = new LinkedHashMap<>();
+            player.put("displayName", "player-" + i);
+            player.put("experience", i * 17);
+            player.put("lastLogin", 1700000000000L + i);
+            players.put("p" + i, player);
+        }
+        binary.putAll(Collections.singletonMap("players", players));
+
+        // Repeated keys are stored once instead of with every entry
+        final int inline = new BinaryEncoder().writeValue(binary.getData()).size();
+        Assertions.assertTrue(binary.getFile().length() * 4 < inline * 3);
+
+        binary.forceReload();
+        Assertions.assertEquals("player-150", binary.getString("players.p150.displayName"));
+        Assertions.assertEquals(200, binary.singleLayerKeySet("players").size());
+    }
+
+    @Test
+    void testCompressedBinary() throws IOException {
+        final Binary compressed = Binary.builder()
+            .path(tempDir.getPath(), "Compressed.bin")
+            .compression(Compression.GZIP)
+            .build();
+        Assertions.assertEquals("Compressed.bin.gz", compressed.getFile().getName());
+        for (int i = 0; i < 100; i++) {
+            compressed.set("values.v" + i, "value");
+        }
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed.getFile().toPath()))) {
+            final byte[] magic = new byte[4];
+            Assertions.assertEquals(4, in.read(magic));
+            Assertions.assertArrayEquals(new byte[]{'C', 'R', 'B', 'N'}, magic);
+        }
+
+        compressed.forceReload();
+        Assertions.assertEquals("value", compressed.getString("values.v99"));
+        Assertions.assertTrue(compressed.getFile().delete());
+    }
+
+    @Test
+    void testLazySections() {
+        for (int section = 0; section < 5; section++) {
+            for (int i = 0; i < 100; i++) {
+                binary.getFileData().insert("section-" + section + ".entry-" + i, "value " + i);
+            }
+        }
+        binary.getFileData().insert("small.key", true);
+
+        for (final boolean offsetIndex : new boolean[]{true, false}) {
+            final Binary lazy = Binary.builder()
+                .path(tempDir.getPath(), "Lazy.bin")
+                .offsetIndex(offsetIndex)
+                .lazySections(true)
+                .build();
+            lazy.putAll(binary.getData());
+            lazy.forceReload();
+
+            final Map<String, Object> root = lazy.getFileData().toMap();
+            Assertions.assertFalse(((LazySection) root.get("section-1")).isLoaded());
+            Assertions.assertFalse(root.get("small") instanceof LazySection);
+
+            // Only the touched section is parsed
+            Assertions.assertEquals("value 7", lazy.getString("section-1.entry-7"));
+            Assertions.assertTrue(((LazySection) root.get("section-1")).isLoaded());
+            Assertions.assertFalse(((LazySection) root.get("section-2")).isLoaded());
+            Assertions.assertEquals(binary.getData(), lazy.getData());
+            Assertions.assertTrue(lazy.getFile().delete());
+        }
+    }
+}
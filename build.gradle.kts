@@ -76,6 +76,13 @@ subprojects {
             filteringCharset = Charsets.UTF_8.name()
         }
 
+        // The api jar is a multi-release jar, so every shadow jar bundling its classes must be one as well
+        named<Jar>("shadowJar") {
+            manifest {
+                attributes("Multi-Release" to "true")
+            }
+        }
+
         test {
             useJUnitPlatform()
 //            testLogging {
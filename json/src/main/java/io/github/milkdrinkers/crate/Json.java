@@ -1,13 +1,21 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.convert.StreamFormat;
+import io.github.milkdrinkers.crate.convert.StreamingConverter;
+import io.github.milkdrinkers.crate.defaults.SharedDefaults;
 import io.github.milkdrinkers.crate.internal.FileData;
 import io.github.milkdrinkers.crate.internal.FileType;
 import io.github.milkdrinkers.crate.internal.FlatFile;
+import io.github.milkdrinkers.crate.internal.editor.json.JsonStreamFormat;
+import io.github.milkdrinkers.crate.internal.editor.json.LazyJsonReader;
 import io.github.milkdrinkers.crate.internal.provider.json.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
 import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
-import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.StringPool;
 import io.github.milkdrinkers.crate.util.JsonUtils;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.val;
 import org.jetbrains.annotations.Nullable;
 import org.json.JSONObject;
@@ -15,29 +23,54 @@ import org.json.JSONTokener;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.util.Collections;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 
 @Getter
 public class Json extends FlatFile {
+    /**
+     * Whether large objects are parsed on their first access instead of on reload.
+     */
+    private final boolean lazySections;
+
     Json(final String name,
                 @Nullable final String path,
                 @Nullable final InputStream inputStream,
                 @Nullable final ReloadSetting reloadSetting,
-                @Nullable final Consumer<FlatFile> reloadConsumer) {
-        super(name, path, FileType.JSON, reloadConsumer);
+                @Nullable final DataType dataType,
+                @Nullable final Consumer<FlatFile> reloadConsumer,
+                @Nullable final StringPool stringPool,
+                @Nullable final Compression compression,
+                final int compressionLevel,
+                final boolean lazySections,
+                final boolean readOnly,
+                final boolean lazy) {
+        super(name, path, FileType.JSON, reloadConsumer, compression, compressionLevel);
+        this.lazySections = lazySections;
 
         if ((create() || this.file.length() == 0) && inputStream != null) {
-            FileUtils.writeToFile(this.file, inputStream);
+            writeToFile(inputStream);
         }
 
         if (reloadSetting != null) {
             this.reloadSetting = reloadSetting;
         }
-        forceReload();
+
+        if (dataType != null) {
+            this.dataType = dataType;
+        }
+
+        this.stringPool = stringPool;
+
+        if (readOnly) {
+            freeze();
+        }
+
+        if (!lazy) {
+            forceReload();
+        }
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -75,19 +108,51 @@ public class Json extends FlatFile {
     @Override
     protected final Map<String, Object> readToMap() throws IOException {
         if (this.file.length() == 0) {
-            Files.write(this.file.toPath(), Collections.singletonList("{}"));
+            try (Writer writer = openWriter()) {
+                writer.write("{}");
+                writer.write(System.lineSeparator());
+            }
         }
 
-        JSONTokener jsonTokener = new JSONTokener(FileUtils.createInputStream(this.file));
-        return new JSONObject(jsonTokener).toMap();
+        if (this.lazySections) {
+            return LazyJsonReader.read(readAllBytes(), this.stringPool);
+        }
+
+        try (InputStream inputStream = openInputStream()) {
+            JSONTokener jsonTokener = new JSONTokener(inputStream);
+            return JsonUtils.toMap(new JSONObject(jsonTokener), this.stringPool);
+        }
     }
 
     @Override
     protected final void write(final FileData data) throws IOException {
-        FileUtils.writer(this.file, writer -> {
-            writer.write(JsonUtils.getJsonFromMap(data.toMap()).toString(3));
-            writer.flush();
-        });
+        try (Writer writer = openWriter()) {
+            // Streams the document instead of building it as a String first
+            JsonUtils.getJsonFromMap(data.toMap()).write(writer, 3, 0);
+        }
+    }
+
+    /**
+     * Returns the shared defaults of a bundled JSON resource, see {@link SharedDefaults}.
+     *
+     * @param resource The name of the resource
+     * @return The shared defaults of the resource
+     */
+    public static FileData sharedDefaults(@NonNull final String resource) {
+        return SharedDefaults.resource(
+            CrateProviders.inputStreamProvider(),
+            resource,
+            inputStream -> new JSONObject(new JSONTokener(inputStream)).toMap());
+    }
+
+    /**
+     * Returns the JSON format for {@link StreamingConverter}, which converts documents without
+     * loading them as a whole.
+     *
+     * @return The streaming JSON format
+     */
+    public static StreamFormat streamFormat() {
+        return JsonStreamFormat.INSTANCE;
     }
 
     /**
@@ -99,17 +164,41 @@ public class Json extends FlatFile {
     }
 
     public static class Builder extends AbstractConfigurationBuilder<Builder, Json> {
+        private boolean lazySections = false;
+
         private Builder() {
             super(CrateProviders.inputStreamProvider(), FileType.JSON);
         }
 
+        /**
+         * Configures whether large objects are parsed on their first access instead of when the
+         * file is reloaded. Only the objects in use are then held in memory as parsed data, which
+         * suits large files of which only a few sections are read. Read-only files parse all
+         * objects on reload regardless.
+         *
+         * @param lazySections true to parse objects on their first access
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder lazySections(final boolean lazySections) {
+            this.lazySections = lazySections;
+            return this;
+        }
+
         public Json build() {
             return new Json(
                 super.getFileName(),
                 super.getDirectoryPath(),
                 super.getDefaultDataStream(),
                 super.getReloadSetting(),
-                super.getReloadCallback()
+                super.getDataType(),
+                super.getReloadCallback(),
+                super.getStringPool(),
+                super.getCompression(),
+                super.getCompressionLevel(),
+                this.lazySections,
+                super.isReadOnly(),
+                super.isLazy()
             );
         }
     }
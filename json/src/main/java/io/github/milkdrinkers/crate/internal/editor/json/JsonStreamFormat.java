@@ -0,0 +1,213 @@
+package io.github.milkdrinkers.crate.internal.editor.json;
+
+import io.github.milkdrinkers.crate.convert.DataHandler;
+import io.github.milkdrinkers.crate.convert.StreamFormat;
+import io.github.milkdrinkers.crate.internal.FileType;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streams JSON documents in both directions. The reader pulls tokens from the input as they are
+ * needed and the writer writes every event right away, so neither holds more than the current path
+ * of the document in memory.
+ *
+ * @since 4.0.0
+ */
+public final class JsonStreamFormat implements StreamFormat {
+    public static final JsonStreamFormat INSTANCE = new JsonStreamFormat();
+
+    // Matches the indentation of documents written by Json
+    private static final int INDENT = 3;
+
+    private JsonStreamFormat() {
+    }
+
+    @Override
+    public FileType getFileType() {
+        return FileType.JSON;
+    }
+
+    @Override
+    public void read(@NonNull final InputStream in, @NonNull final DataHandler handler) throws IOException {
+        final JSONTokener tokener = new JSONTokener(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("A JSON document must begin with '{'");
+        }
+        readMap(tokener, handler);
+    }
+
+    // Reads the entries of a map whose '{' was consumed
+    private static void readMap(final JSONTokener tokener, final DataHandler handler) throws IOException {
+        handler.startMap();
+        char c = tokener.nextClean();
+        if (c == '}') {
+            handler.endMap();
+            return;
+        }
+
+        while (true) {
+            if (c != '"' && c != '\'') {
+                throw tokener.syntaxError("Expected a quoted key");
+            }
+            handler.key(tokener.nextString(c));
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected a ':' after a key");
+            }
+            readValue(tokener, handler);
+
+            c = tokener.nextClean();
+            if (c == '}') {
+                handler.endMap();
+                return;
+            }
+            if (c != ',') {
+                throw tokener.syntaxError("Expected a ',' or '}'");
+            }
+            c = tokener.nextClean();
+        }
+    }
+
+    // Reads the values of a list whose '[' was consumed
+    private static void readList(final JSONTokener tokener, final DataHandler handler) throws IOException {
+        handler.startList();
+        char c = tokener.nextClean();
+        if (c == ']') {
+            handler.endList();
+            return;
+        }
+
+        tokener.back();
+        while (true) {
+            readValue(tokener, handler);
+            c = tokener.nextClean();
+            if (c == ']') {
+                handler.endList();
+                return;
+            }
+            if (c != ',') {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
+
+    private static void readValue(final JSONTokener tokener, final DataHandler handler) throws IOException {
+        final char c = tokener.nextClean();
+        if (c == '{') {
+            readMap(tokener, handler);
+        } else if (c == '[') {
+            readList(tokener, handler);
+        } else if (c == '"' || c == '\'') {
+            handler.value(tokener.nextString(c));
+        } else {
+            // Numbers, booleans and null are parsed like org.json parses them when loading a file
+            tokener.back();
+            final Object value = tokener.nextValue();
+            handler.value(JSONObject.NULL.equals(value) ? null : value);
+        }
+    }
+
+    @Override
+    public DataHandler newWriter(@NonNull final OutputStream out) {
+        return new StreamWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    private static final class StreamWriter implements DataHandler {
+        private final Writer writer;
+        // Per open map or list: whether it has no entries yet, and whether it's a list
+        private boolean[] empty = new boolean[16];
+        private boolean[] list = new boolean[16];
+        private int depth = -1;
+        private boolean afterKey;
+
+        private StreamWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startMap() throws IOException {
+            open(false);
+            this.writer.write('{');
+        }
+
+        @Override
+        public void key(final String key) throws IOException {
+            separate();
+            JSONObject.quote(key, this.writer);
+            this.writer.write(": ");
+            this.afterKey = true;
+        }
+
+        @Override
+        public void endMap() throws IOException {
+            close('}');
+        }
+
+        @Override
+        public void startList() throws IOException {
+            open(true);
+            this.writer.write('[');
+        }
+
+        @Override
+        public void endList() throws IOException {
+            close(']');
+        }
+
+        @Override
+        public void value(@Nullable final Object value) throws IOException {
+            beforeValue();
+            this.writer.write(JSONObject.valueToString(value));
+        }
+
+        private void open(final boolean isList) throws IOException {
+            beforeValue();
+            if (++this.depth == this.empty.length) {
+                this.empty = Arrays.copyOf(this.empty, this.depth << 1);
+                this.list = Arrays.copyOf(this.list, this.depth << 1);
+            }
+            this.empty[this.depth] = true;
+            this.list[this.depth] = isList;
+        }
+
+        private void close(final char bracket) throws IOException {
+            if (!this.empty[this.depth]) {
+                newLine(this.depth);
+            }
+            this.writer.write(bracket);
+            if (--this.depth < 0) {
+                this.writer.write(System.lineSeparator());
+                this.writer.flush();
+            }
+        }
+
+        // Values in lists are separated here, values in maps were separated by their key
+        private void beforeValue() throws IOException {
+            if (this.afterKey) {
+                this.afterKey = false;
+            } else if (this.depth >= 0 && this.list[this.depth]) {
+                separate();
+            }
+        }
+
+        private void separate() throws IOException {
+            if (!this.empty[this.depth]) {
+                this.writer.write(',');
+            }
+            this.empty[this.depth] = false;
+            newLine(this.depth + 1);
+        }
+
+        private void newLine(final int level) throws IOException {
+            this.writer.write(System.lineSeparator());
+            for (int i = 0; i < level * INDENT; i++) {
+                this.writer.write(' ');
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.milkdrinkers.crate.internal.editor.json;
+
+import io.github.milkdrinkers.crate.internal.LazySection;
+import io.github.milkdrinkers.crate.util.JsonUtils;
+import io.github.milkdrinkers.crate.util.StringPool;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads JSON documents, deferring the parsing of large objects until they are accessed.
+ * <p>
+ * A fast scan over the UTF-8 bytes of the document finds where every value starts and ends,
+ * tracking only strings and nesting. Objects of at least {@value #MIN_LAZY_BYTES} bytes are
+ * replaced by a {@link LazySection} remembering their position, every other value is parsed right
+ * away. Lazy objects are scanned the same way once accessed, so reading a key parses only the
+ * objects on its path.
+ * </p>
+ * <p>
+ * The scan accepts strict JSON only. Documents using the lenient syntax org.json also accepts, e.g.
+ * single-quoted strings, are parsed eagerly instead.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+@UtilityClass
+public class LazyJsonReader {
+    // Smaller objects are parsed right away, as deferring them costs more than it saves
+    private static final int MIN_LAZY_BYTES = 512;
+
+    /**
+     * Reads a JSON document whose root is an object.
+     *
+     * @param data the UTF-8 encoded document, kept until every lazy object has been parsed
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws org.json.JSONException if the document isn't valid JSON
+     */
+    public Map<String, Object> read(@NonNull final byte[] data) {
+        return read(data, null);
+    }
+
+    /**
+     * Reads a JSON document whose root is an object, interning its keys and string values while they
+     * are parsed. Lazy objects intern their strings once they are parsed.
+     *
+     * @param data the UTF-8 encoded document, kept until every lazy object has been parsed
+     * @param pool the pool to intern strings into, or null to not intern them
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws org.json.JSONException if the document isn't valid JSON
+     */
+    public Map<String, Object> read(@NonNull final byte[] data, @Nullable final StringPool pool) {
+        int start = 0;
+        // Skips a byte order mark
+        if (data.length >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        return readSection(data, skipWhitespace(data, start), data.length, pool);
+    }
+
+    private Map<String, Object> readSection(
+        final byte[] data, final int start, final int end, @Nullable final StringPool pool) {
+        try {
+            return readObject(data, start, pool);
+        } catch (final ScanException ex) {
+            return JsonUtils.toMap(
+                new JSONObject(new JSONTokener(new String(data, start, end - start, StandardCharsets.UTF_8))),
+                pool);
+        }
+    }
+
+    private Map<String, Object> readObject(final byte[] data, final int start, @Nullable final StringPool pool) {
+        final Map<String, Object> out = new LinkedHashMap<>();
+        if (at(data, start) != '{') {
+            throw new ScanException();
+        }
+        int i = skipWhitespace(data, start + 1);
+        if (at(data, i) == '}') {
+            return out;
+        }
+
+        while (true) {
+            if (at(data, i) != '"') {
+                throw new ScanException();
+            }
+            final int keyEnd = skipString(data, i);
+            final String key = pool == null ? readString(data, i, keyEnd) : pool.intern(readString(data, i, keyEnd));
+            i = skipWhitespace(data, keyEnd);
+            if (at(data, i) != ':') {
+                throw new ScanException();
+            }
+
+            final int valueStart = skipWhitespace(data, i + 1);
+            final int valueEnd = skipValue(data, valueStart);
+            out.put(key, readValue(data, valueStart, valueEnd, pool));
+
+            i = skipWhitespace(data, valueEnd);
+            final byte next = at(data, i);
+            if (next == '}') {
+                return out;
+            }
+            if (next != ',') {
+                throw new ScanException();
+            }
+            i = skipWhitespace(data, i + 1);
+        }
+    }
+
+    private Object readValue(final byte[] data, final int start, final int end, @Nullable final StringPool pool) {
+        final byte first = data[start];
+        if (first == '{' && end - start >= MIN_LAZY_BYTES) {
+            return new LazySection(() -> readSection(data, start, end, pool));
+        }
+        if (first == '"') {
+            return pool == null ? readString(data, start, end) : pool.internValue(readString(data, start, end));
+        }
+
+        final Object value = new JSONTokener(new String(data, start, end - start, StandardCharsets.UTF_8)).nextValue();
+        if (value instanceof JSONObject) {
+            return JsonUtils.toMap((JSONObject) value, pool);
+        } else if (value instanceof JSONArray) {
+            return JsonUtils.toList((JSONArray) value, pool);
+        }
+        return JSONObject.NULL.equals(value) ? null : value;
+    }
+
+    // Decodes the string between start and end, both quotes included
+    private String readString(final byte[] data, final int start, final int end) {
+        for (int i = start + 1; i < end - 1; i++) {
+            if (data[i] == '\\') {
+                return (String) new JSONTokener(new String(data, start, end - start, StandardCharsets.UTF_8)).nextValue();
+            }
+        }
+        return new String(data, start + 1, end - start - 2, StandardCharsets.UTF_8);
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Scanning
+    // ----------------------------------------------------------------------------------------------------
+
+    // Returns the position behind the value starting at start
+    private int skipValue(final byte[] data, final int start) {
+        final byte first = at(data, start);
+        if (first == '"') {
+            return skipString(data, start);
+        }
+
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            int i = start;
+            while (true) {
+                final byte b = at(data, i);
+                if (b == '"') {
+                    i = skipString(data, i);
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) {
+                        return i + 1;
+                    }
+                } else if (b == '\'') {
+                    throw new ScanException();
+                }
+                i++;
+            }
+        }
+
+        // Numbers, booleans and null end at the next delimiter
+        int i = start;
+        while (i < data.length) {
+            final byte b = data[i];
+            if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                break;
+            }
+            if (b == '"' || b == '\'' || b == '{' || b == '[') {
+                throw new ScanException();
+            }
+            i++;
+        }
+        if (i == start) {
+            throw new ScanException();
+        }
+        return i;
+    }
+
+    // Returns the position behind the closing quote of the string starting at start
+    private int skipString(final byte[] data, final int start) {
+        int i = start + 1;
+        while (true) {
+            final byte b = at(data, i);
+            if (b == '\\') {
+                i += 2;
+            } else if (b == '"') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private int skipWhitespace(final byte[] data, int i) {
+        while (i < data.length && isWhitespace(data[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private byte at(final byte[] data, final int i) {
+        if (i >= data.length) {
+            throw new ScanException();
+        }
+        return data[i];
+    }
+
+    // Signals syntax the scan doesn't handle, the section is then parsed by org.json instead
+    private static final class ScanException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private ScanException() {
+            super(null, null, false, false);
+        }
+    }
+}
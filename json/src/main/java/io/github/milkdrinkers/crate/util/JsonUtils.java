@@ -2,6 +2,7 @@ package io.github.milkdrinkers.crate.util;
 
 import lombok.experimental.UtilityClass;
 import lombok.val;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -46,6 +47,48 @@ public class JsonUtils {
         return map;
     }
 
+    /**
+     * Converts an object like {@link JSONObject#toMap()}, interning its keys and string values while
+     * the maps are built.
+     *
+     * @param jsonObject The object to convert
+     * @param pool       The pool to intern strings into, or null to not intern them
+     * @return The converted map
+     * @since 4.0.0
+     */
+    public Map<String, Object> toMap(final JSONObject jsonObject, @Nullable final StringPool pool) throws JSONException {
+        if (pool == null) {
+            return jsonObject.toMap();
+        }
+
+        final Map<String, Object> map = new HashMap<>();
+        for (final String key : jsonObject.keySet()) {
+            map.put(pool.intern(key), getValue(jsonObject.opt(key), pool));
+        }
+        return map;
+    }
+
+    /**
+     * Converts an array like {@link JSONArray#toList()}, interning the keys and string values of its
+     * elements.
+     *
+     * @param array The array to convert
+     * @param pool  The pool to intern strings into, or null to not intern them
+     * @return The converted list
+     * @since 4.0.0
+     */
+    public List<Object> toList(final JSONArray array, @Nullable final StringPool pool) throws JSONException {
+        if (pool == null) {
+            return array.toList();
+        }
+
+        final List<Object> list = new ArrayList<>(array.length());
+        for (final Object element : array) {
+            list.add(getValue(element, pool));
+        }
+        return list;
+    }
+
     public List<Object> toList(final JSONArray array) throws JSONException {
         final List<Object> list = new ArrayList<>();
         for (int i = 0; i < array.length(); i++) {
@@ -54,6 +97,19 @@ public class JsonUtils {
         return list;
     }
 
+    private Object getValue(final Object obj, final StringPool pool) {
+        if (obj == null || JSONObject.NULL.equals(obj)) {
+            return null;
+        } else if (obj instanceof JSONArray) {
+            return toList((JSONArray) obj, pool);
+        } else if (obj instanceof JSONObject) {
+            return toMap((JSONObject) obj, pool);
+        } else if (obj instanceof String) {
+            return pool.internValue((String) obj);
+        }
+        return obj;
+    }
+
     private Object getValue(final Object obj) {
         if (obj instanceof JSONArray) {
             return toList((JSONArray) obj);
@@ -1,13 +1,36 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.convert.StreamingConverter;
+import io.github.milkdrinkers.crate.event.ChangeEvent;
+import io.github.milkdrinkers.crate.internal.FileType;
+import io.github.milkdrinkers.crate.internal.LazySection;
 import io.github.milkdrinkers.crate.internal.exceptions.CrateValidationException;
+import io.github.milkdrinkers.crate.internal.provider.CrateMetrics;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.loader.BulkLoadResult;
+import io.github.milkdrinkers.crate.loader.BulkLoader;
+import io.github.milkdrinkers.crate.metrics.FileMetrics;
+import io.github.milkdrinkers.crate.metrics.RecordingMetrics;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class JsonTest {
@@ -76,4 +99,205 @@ public class JsonTest {
         Assertions.assertTrue(json.contains("Test-Key-1"));
         Assertions.assertTrue(json.getBoolean("Test-Key-1"));
     }
+
+    @Test
+    void testChangeListener() throws IOException {
+        json.set("player.balance", 10);
+        json.set("player.name", "Steve");
+        json.set("server.motd", "Hello");
+
+        final List<ChangeEvent> events = new ArrayList<>();
+        json.addChangeListener("player", events::add);
+
+        Files.write(
+            json.getFile().toPath(),
+            "{\"player\": {\"balance\": 20, \"homes\": 1}, \"server\": {\"motd\": \"Bye\"}}".getBytes(StandardCharsets.UTF_8));
+        json.forceReload();
+
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertTrue(events.stream().anyMatch(event ->
+            event.getType() == ChangeEvent.Type.MODIFIED && event.getKey().equals("player.balance")));
+        Assertions.assertTrue(events.stream().anyMatch(event ->
+            event.getType() == ChangeEvent.Type.REMOVED && event.getKey().equals("player.name")));
+        Assertions.assertTrue(events.stream().anyMatch(event ->
+            event.getType() == ChangeEvent.Type.ADDED && event.getKey().equals("player.homes")));
+    }
+
+    @Test
+    void testBulkLoader() throws IOException {
+        final File directory = new File(tempDir, "bulk");
+        Assertions.assertTrue(directory.mkdirs());
+        for (int i = 0; i < 8; i++) {
+            Files.write(
+                new File(directory, "file-" + i + ".json").toPath(),
+                ("{\"index\": " + i + "}").getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(new File(directory, "broken.json").toPath(), "{".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(directory, "ignored.yml").toPath(), "index: 0".getBytes(StandardCharsets.UTF_8));
+
+        final AtomicInteger progress = new AtomicInteger();
+        final BulkLoadResult<Json> result = BulkLoader.builder(directory, FileType.JSON, Json::builder)
+            .parallelism(4)
+            .progress((file, completed, total) -> {
+                Assertions.assertEquals(9, total);
+                progress.incrementAndGet();
+            })
+            .build()
+            .load();
+
+        Assertions.assertEquals(9, progress.get());
+        Assertions.assertEquals(8, result.getFiles().size());
+        Assertions.assertEquals(1, result.getFailures().size());
+        Assertions.assertTrue(result.getFailures().containsKey(new File(directory, "broken.json")));
+        Assertions.assertEquals(4, result.getWorkers());
+        Assertions.assertTrue(result.getTotalLoadTime() >= result.getMaxLoadTime());
+        for (final Json loaded : result.getFiles()) {
+            Assertions.assertTrue(loaded.isLoaded());
+            Assertions.assertTrue(loaded.getName().startsWith("file-"));
+        }
+    }
+
+    @Test
+    void testMetrics() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        CrateProviders.metrics(metrics);
+        try {
+            final Json measured = Json.builder()
+                .path(tempDir.getPath(), "Measured.json")
+                .reload(ReloadSetting.AUTOMATICALLY)
+                .build();
+            measured.set("key", "value");
+            measured.set("other", 5);
+            Assertions.assertEquals("value", measured.getString("key"));
+
+            final FileMetrics file = metrics.getMetrics(measured.getFile());
+            Assertions.assertNotNull(file);
+            Assertions.assertEquals(2, file.getWrites());
+            Assertions.assertTrue(file.getReads() >= 3);
+            Assertions.assertTrue(file.getBytesWritten().sum() > 0);
+            Assertions.assertTrue(file.getReloadCheckMisses().sum() >= 2);
+            Assertions.assertEquals(file.getReads(), file.getReloadLatency().getCount());
+            Assertions.assertEquals(file.getWrites(), metrics.getMetrics(FileType.JSON).getWrites());
+            Assertions.assertEquals(measured.getFile(), metrics.getHottestFiles(1).keySet().iterator().next());
+
+            final long p50 = file.getParseLatency().getPercentileNanos(50);
+            Assertions.assertTrue(p50 > 0 && p50 <= file.getParseLatency().getMaxNanos());
+            Assertions.assertTrue(measured.getFile().delete());
+        } finally {
+            CrateProviders.metrics(new CrateMetrics() {
+            });
+        }
+    }
+
+    @Test
+    void testCompressedStorage() throws IOException {
+        final Json plain = Json.builder()
+            .path(tempDir.getPath(), "Plain.json")
+            .build();
+        final Json compressed = Json.builder()
+            .path(tempDir.getPath(), "Compressed.json")
+            .compression(Compression.GZIP)
+            .compressionLevel(9)
+            .build();
+        Assertions.assertEquals("Compressed.json.gz", compressed.getName());
+
+        final Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            data.put("entry-" + i, "value of entry " + i);
+        }
+        plain.putAll(data);
+        compressed.putAll(data);
+
+        // The file is a regular gzip stream, much smaller than the plain document
+        final byte[] bytes = Files.readAllBytes(compressed.getFile().toPath());
+        Assertions.assertEquals((byte) 0x1f, bytes[0]);
+        Assertions.assertEquals((byte) 0x8b, bytes[1]);
+        Assertions.assertTrue(bytes.length * 4 < plain.getFile().length());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed.getFile().toPath()))) {
+            final byte[] buffer = new byte[8];
+            Assertions.assertTrue(in.read(buffer) > 0);
+        }
+
+        compressed.forceReload();
+        Assertions.assertEquals(1000, compressed.singleLayerKeySet().size());
+        Assertions.assertEquals("value of entry 512", compressed.getString("entry-512"));
+
+        // Reopening the file, with or without the compression extension, reads the same data
+        final Json reopened = Json.builder()
+            .path(tempDir.getPath(), "Compressed.json.gz")
+            .compression(Compression.GZIP)
+            .build();
+        Assertions.assertEquals(compressed.getFile(), reopened.getFile());
+        Assertions.assertEquals("value of entry 7", reopened.getString("entry-7"));
+
+        Assertions.assertThrows(CrateValidationException.class, () -> Json.builder().compressionLevel(10));
+        Assertions.assertTrue(plain.getFile().delete());
+        Assertions.assertTrue(compressed.getFile().delete());
+    }
+
+    @Test
+    void testLazySections() throws IOException {
+        final Map<String, Object> data = new HashMap<>();
+        for (int section = 0; section < 5; section++) {
+            for (int i = 0; i < 100; i++) {
+                data.put("section-" + section + ".entry-" + i, "value \"" + i + "\" \u00e9");
+            }
+        }
+        data.put("list", Arrays.asList(1, 2, 3));
+        data.put("number", 1.5);
+        data.put("small.key", true);
+        json.getFileData().clear();
+        for (final Map.Entry<String, Object> entry : data.entrySet()) {
+            json.getFileData().insert(entry.getKey(), entry.getValue());
+        }
+        json.write();
+
+        final Json lazy = Json.builder()
+            .path(tempDir.getPath(), "Example.json")
+            .lazySections(true)
+            .build();
+        final Map<String, Object> root = lazy.getFileData().toMap();
+        Assertions.assertTrue(root.get("section-1") instanceof LazySection);
+        Assertions.assertFalse(((LazySection) root.get("section-1")).isLoaded());
+        Assertions.assertFalse(root.get("small") instanceof LazySection);
+
+        // Only the touched section is parsed
+        Assertions.assertEquals("value \"7\" \u00e9", lazy.getString("section-1.entry-7"));
+        Assertions.assertTrue(((LazySection) root.get("section-1")).isLoaded());
+        Assertions.assertFalse(((LazySection) root.get("section-2")).isLoaded());
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), lazy.getList("list"));
+        json.forceReload();
+        Assertions.assertEquals(json.getData(), lazy.getData());
+
+        // Changes are written together with the untouched sections
+        lazy.set("section-3.entry-0", "changed");
+        json.forceReload();
+        Assertions.assertEquals("changed", json.getString("section-3.entry-0"));
+        Assertions.assertEquals("value \"9\" \u00e9", json.getString("section-4.entry-9"));
+
+        // Lenient syntax is parsed eagerly
+        Files.write(json.getFile().toPath(), "{'quoted': {'key': 'value'}}".getBytes(StandardCharsets.UTF_8));
+        lazy.forceReload();
+        Assertions.assertEquals("value", lazy.getString("quoted.key"));
+    }
+
+    @Test
+    void testStreamingConversion() throws IOException {
+        final Map<String, Object> stats = new HashMap<>();
+        stats.put("kills", 12);
+        stats.put("ratio", 0.5);
+        stats.put("name", "It's \"quoted\"\n\u00e9");
+        json.set("players.alice.stats", stats);
+        json.set("players.alice.homes", Arrays.asList("spawn", Arrays.asList(1, 2), new HashMap<>()));
+        json.set("players.bob.banned", true);
+        json.set("version", 3);
+        json.set("nothing", null);
+        json.set("empty", new ArrayList<>());
+
+        final File copy = new File(tempDir, "Copy.json");
+        StreamingConverter.convert(json.getFile(), Json.streamFormat(), copy, Json.streamFormat());
+        json.forceReload();
+        Assertions.assertEquals(json.getData(), Json.builder().path(copy).build().getData());
+        Assertions.assertTrue(copy.delete());
+    }
 }
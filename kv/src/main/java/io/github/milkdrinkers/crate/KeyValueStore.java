@@ -0,0 +1,400 @@
+package io.github.milkdrinkers.crate;
+
+import io.github.milkdrinkers.crate.internal.DataStorage;
+import io.github.milkdrinkers.crate.internal.FileData;
+import io.github.milkdrinkers.crate.internal.kv.KeyValueLog;
+import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.sections.KeyValueSection;
+import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.Valid;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * A single-file store for many small records, e.g. one record per player.
+ * <p>
+ * The first part of every key names a record, the rest of the key is a path inside the record:
+ * {@code store.set("<uuid>.stats.kills", 5)} updates the record {@code <uuid>}. Each record is a
+ * subtree like the data of a whole file, so code written against {@link DataStorage} works the
+ * same whether every entity has its own file or all of them share a store.
+ * </p>
+ * <p>
+ * All records live in one append-only log. Changing a record appends its new version instead of
+ * rewriting a file, and an in-memory index locates the latest version of every record, so neither
+ * directories with hundreds of thousands of files nor opening and closing a file per access are
+ * needed. Recently used records are cached in memory. Once replaced versions take up more space
+ * than the live records, the log is compacted.
+ * </p>
+ * <p>
+ * Methods spanning all records, like {@link #keySet()}, read every record and are meant for
+ * maintenance rather than regular access. A store must be {@link #close() closed} when it's no
+ * longer used.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public class KeyValueStore implements DataStorage, Closeable {
+    // Compaction isn't worth it for logs with few dead bytes
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+
+    private final KeyValueLog log;
+    private final DataType dataType;
+    private final boolean autoCompact;
+    private final Map<String, FileData> cache;
+
+    KeyValueStore(
+        final File file,
+        @Nullable final DataType dataType,
+        final int cacheSize,
+        final boolean syncWrites,
+        final boolean autoCompact) {
+        try {
+            FileUtils.getAndMake(file);
+            this.log = KeyValueLog.open(file, syncWrites);
+        } catch (final IOException ex) {
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while opening key-value store '" + file.getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(file) + "'");
+        }
+        this.dataType = dataType == null ? DataType.UNSORTED : dataType;
+        this.autoCompact = autoCompact;
+        this.cache = new LinkedHashMap<String, FileData>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, FileData> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Overridden methods from DataStorage
+    // ----------------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized Object get(final String key) {
+        final FileData record = record(recordKey(key));
+        return record == null ? null : record.get(key);
+    }
+
+    @Override
+    public synchronized boolean contains(final String key) {
+        final String recordKey = recordKey(key);
+        if (recordKey.length() == key.length()) {
+            return this.log.contains(recordKey);
+        }
+
+        final FileData record = record(recordKey);
+        return record != null && record.containsKey(key);
+    }
+
+    @Override
+    public synchronized void set(final String key, final Object value) {
+        final String recordKey = recordKey(key);
+        FileData record = record(recordKey);
+        if (record == null) {
+            record = new FileData(new HashMap<>(), this.dataType);
+        }
+        record.insert(key, value);
+        write(recordKey, record);
+    }
+
+    @Override
+    public synchronized void remove(final String key) {
+        final String recordKey = recordKey(key);
+        final FileData record = record(recordKey);
+        if (record == null) {
+            return;
+        }
+
+        record.remove(key);
+        if (record.containsKey(recordKey)) {
+            write(recordKey, record);
+            return;
+        }
+
+        // Removing the last value of a record deletes the record
+        this.cache.remove(recordKey);
+        try {
+            this.log.delete(recordKey);
+        } catch (final IOException ex) {
+            throw writeException(ex, recordKey);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * @return The keys of all records
+     */
+    @Override
+    public synchronized Set<String> singleLayerKeySet() {
+        return new HashSet<>(this.log.keys());
+    }
+
+    @Override
+    public synchronized Set<String> singleLayerKeySet(final String key) {
+        final FileData record = record(recordKey(key));
+        return record == null ? new HashSet<>() : new HashSet<>(record.singleLayerKeySet(key));
+    }
+
+    /**
+     * Returns the keys of all values in all records. Every record is read to collect them.
+     *
+     * @return The full keys of all values
+     */
+    @Override
+    public synchronized Set<String> keySet() {
+        final Set<String> out = new HashSet<>();
+        for (final String recordKey : this.log.keys()) {
+            final FileData record = record(recordKey);
+            if (record != null) {
+                out.addAll(record.keySet());
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized Set<String> keySet(final String key) {
+        final FileData record = record(recordKey(key));
+        return record == null ? new HashSet<>() : record.keySet(key);
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Specific utility methods for key-value stores
+    // ----------------------------------------------------------------------------------------------------
+
+    public KeyValueSection getSection(final String pathPrefix) {
+        return new KeyValueSection(this, pathPrefix);
+    }
+
+    /**
+     * @return The file of the log backing this store
+     */
+    public final File getFile() {
+        return this.log.getFile();
+    }
+
+    /**
+     * @return The number of records
+     */
+    public synchronized int size() {
+        return this.log.count();
+    }
+
+    /**
+     * @return The bytes taken by replaced and deleted records, reclaimed by {@link #compact()}
+     */
+    public synchronized long getDeadBytes() {
+        return this.log.getDeadBytes();
+    }
+
+    /**
+     * Rewrites the log with the latest version of every record only.
+     */
+    public synchronized void compact() {
+        try {
+            this.log.compact();
+        } catch (final IOException ex) {
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while compacting key-value store '" + getFile().getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(getFile()) + "'");
+        }
+    }
+
+    /**
+     * Drops the cached records, they are read from the log again on their next access.
+     */
+    public synchronized void clearCache() {
+        this.cache.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        this.cache.clear();
+        try {
+            this.log.close();
+        } catch (final IOException ex) {
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while closing key-value store '" + getFile().getName() + "'.");
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Internal helpers
+    // ----------------------------------------------------------------------------------------------------
+
+    private static String recordKey(final String key) {
+        Valid.checkBoolean(!key.isEmpty(), "Key mustn't be empty");
+        final int dot = key.indexOf('.');
+        return dot < 0 ? key : key.substring(0, dot);
+    }
+
+    @Nullable
+    private FileData record(final String recordKey) {
+        FileData record = this.cache.get(recordKey);
+        if (record != null || !this.log.contains(recordKey)) {
+            return record;
+        }
+
+        try {
+            final Object value = this.log.read(recordKey);
+            record = new FileData(Collections.singletonMap(recordKey, value), this.dataType);
+        } catch (final IOException ex) {
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while reading '" + recordKey + "' from key-value store '" + getFile().getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(getFile()) + "'");
+        }
+        this.cache.put(recordKey, record);
+        return record;
+    }
+
+    private void write(final String recordKey, final FileData record) {
+        try {
+            this.log.put(recordKey, record.get(recordKey));
+        } catch (final IOException ex) {
+            this.cache.remove(recordKey);
+            throw writeException(ex, recordKey);
+        }
+        this.cache.put(recordKey, record);
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        final long deadBytes = this.log.getDeadBytes();
+        if (this.autoCompact && deadBytes > MIN_COMPACTION_BYTES && deadBytes > this.log.getLiveBytes()) {
+            compact();
+        }
+    }
+
+    private RuntimeException writeException(final IOException ex, final String recordKey) {
+        return CrateProviders.exceptionHandler().create(
+            ex,
+            "Error while writing '" + recordKey + "' to key-value store '" + getFile().getName() + "'.",
+            "In: '" + FileUtils.getParentDirPath(getFile()) + "'");
+    }
+
+    /**
+     * A builder to build a new KeyValueStore instance.
+     *
+     * @return A new Builder instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private File file;
+        private DataType dataType;
+        private int cacheSize = 1024;
+        private boolean syncWrites = false;
+        private boolean autoCompact = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the file of the store.
+         *
+         * @param file the file of the store
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder path(@NonNull final File file) {
+            Valid.notNull(file, "File cannot be null");
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Sets the file of the store.
+         *
+         * @param path the file of the store
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder path(@NonNull final Path path) {
+            return path(path.toFile());
+        }
+
+        /**
+         * Sets the file of the store.
+         *
+         * @param path the file of the store
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder path(@NonNull final String path) {
+            Valid.checkBoolean(!path.isEmpty(), "Path cannot be null or empty");
+            return path(new File(path));
+        }
+
+        /**
+         * Configures how the maps of the records are stored in memory.
+         *
+         * @param dataType the data type configuration to apply
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder dataType(@NonNull final DataType dataType) {
+            this.dataType = dataType;
+            return this;
+        }
+
+        /**
+         * Configures how many recently used records are kept in memory.
+         *
+         * @param cacheSize the number of cached records, 0 to read every access from the file
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder cacheSize(final int cacheSize) {
+            Valid.checkBoolean(cacheSize >= 0, "Cache size mustn't be negative");
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Configures whether every change is forced to the storage device before returning. This
+         * makes changes survive power loss at the cost of considerably slower writes.
+         *
+         * @param syncWrites true to force every change to the storage device
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder syncWrites(final boolean syncWrites) {
+            this.syncWrites = syncWrites;
+            return this;
+        }
+
+        /**
+         * Configures whether the log is compacted automatically once replaced versions of records
+         * take up more space than the live records.
+         *
+         * @param autoCompact true to compact automatically
+         * @return this builder instance for method chaining
+         * @since 4.0.0
+         */
+        public Builder autoCompact(final boolean autoCompact) {
+            this.autoCompact = autoCompact;
+            return this;
+        }
+
+        public KeyValueStore build() {
+            Valid.notNull(this.file, "File must be set through path(...)");
+            return new KeyValueStore(this.file, this.dataType, this.cacheSize, this.syncWrites, this.autoCompact);
+        }
+    }
+}
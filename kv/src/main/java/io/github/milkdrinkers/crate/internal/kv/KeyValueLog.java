@@ -0,0 +1,398 @@
+package io.github.milkdrinkers.crate.internal.kv;
+
+import io.github.milkdrinkers.crate.internal.binary.BinaryDecoder;
+import io.github.milkdrinkers.crate.internal.binary.BinaryEncoder;
+import io.github.milkdrinkers.crate.metrics.BlockingIoDetector;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * The append-only file behind a {@code KeyValueStore}.
+ * <p>
+ * The file starts with the magic bytes {@code CRKV} and a format version, followed by records.
+ * Every record consists of the length of its payload, the CRC32 of the payload and the payload
+ * itself: an operation byte, the key and, for puts, the value encoded by {@link BinaryEncoder}.
+ * Records are only ever appended. An in-memory index maps every key to its latest record, so
+ * reading a value costs a single positional read.
+ * </p>
+ * <p>
+ * Replaced and deleted records stay in the file as dead bytes until {@link #compact()} rewrites
+ * the file with the live records only. A record torn by a crash while it was appended is detected
+ * by its length or checksum when the file is opened, and the file is truncated before it.
+ * </p>
+ * <p>
+ * A log is not thread-safe, callers synchronize access.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class KeyValueLog implements Closeable {
+    private static final byte[] MAGIC = {'C', 'R', 'K', 'V'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    @Getter
+    private final File file;
+    private final boolean sync;
+    private final Map<String, Location> index = new HashMap<>();
+    private final BinaryEncoder encoder = new BinaryEncoder();
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    // The end of the last valid record, where the next record is appended
+    @Getter
+    private long size;
+    // The bytes of the records in the index
+    @Getter
+    private long liveBytes;
+
+    private KeyValueLog(final File file, final boolean sync) {
+        this.file = file;
+        this.sync = sync;
+    }
+
+    /**
+     * Opens the log in a file, creating the file if it doesn't exist.
+     *
+     * @param file The file of the log
+     * @param sync true to force every appended record to the storage device before returning
+     * @return The opened log
+     * @throws IOException if the file can't be read or isn't a log
+     */
+    public static KeyValueLog open(@NonNull final File file, final boolean sync) throws IOException {
+        final KeyValueLog log = new KeyValueLog(file, sync);
+        log.load();
+        return log;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Reading
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @return The keys of all live records
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(this.index.keySet());
+    }
+
+    public boolean contains(final String key) {
+        return this.index.containsKey(key);
+    }
+
+    /**
+     * @return The number of live records
+     */
+    public int count() {
+        return this.index.size();
+    }
+
+    /**
+     * @return The bytes of replaced and deleted records that compaction would reclaim
+     */
+    public long getDeadBytes() {
+        return this.size - HEADER_SIZE - this.liveBytes;
+    }
+
+    /**
+     * Reads the latest value of a key.
+     *
+     * @param key The key
+     * @return The decoded value, or null if the key has no live record
+     * @throws IOException if the record can't be read
+     */
+    @Nullable
+    public Object read(final String key) throws IOException {
+        final Location location = this.index.get(key);
+        if (location == null) {
+            return null;
+        }
+
+        final long blocking = BlockingIoDetector.begin();
+        try {
+            final int valueLength = location.length - RECORD_HEADER_SIZE - location.valueOffset;
+            final ByteBuffer buffer = ByteBuffer.allocate(valueLength);
+            readFully(this.channel, buffer, location.offset + RECORD_HEADER_SIZE + location.valueOffset);
+            return new BinaryDecoder(buffer.array()).readValue();
+        } finally {
+            BlockingIoDetector.end(blocking, "read", this.file);
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Writing
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Appends a record replacing the value of a key.
+     *
+     * @param key   The key
+     * @param value The new value
+     * @throws IOException if the record can't be written
+     */
+    public void put(@NonNull final String key, final Object value) throws IOException {
+        this.encoder.reset();
+        this.encoder.writeLong(0L).writeByte(PUT).writeString(key);
+        final int valueOffset = this.encoder.size() - RECORD_HEADER_SIZE;
+        this.encoder.writeValue(value);
+        append(key, valueOffset);
+    }
+
+    /**
+     * Appends a record deleting a key. Keys without a live record are ignored.
+     *
+     * @param key The key
+     * @throws IOException if the record can't be written
+     */
+    public void delete(@NonNull final String key) throws IOException {
+        if (!this.index.containsKey(key)) {
+            return;
+        }
+
+        this.encoder.reset();
+        this.encoder.writeLong(0L).writeByte(DELETE).writeString(key);
+        append(key, -1);
+    }
+
+    private void append(final String key, final int valueOffset) throws IOException {
+        final byte[] record = this.encoder.toByteArray();
+        final int payloadLength = record.length - RECORD_HEADER_SIZE;
+        this.crc.reset();
+        this.crc.update(record, RECORD_HEADER_SIZE, payloadLength);
+        final ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putInt(0, payloadLength).putInt(4, (int) this.crc.getValue());
+
+        final long blocking = BlockingIoDetector.begin();
+        try {
+            final long offset = this.size;
+            writeFully(this.channel, buffer, offset);
+            if (this.sync) {
+                this.channel.force(false);
+            }
+            this.size = offset + record.length;
+
+            final Location previous = valueOffset < 0
+                ? this.index.remove(key)
+                : this.index.put(key, new Location(offset, record.length, valueOffset));
+            if (previous != null) {
+                this.liveBytes -= previous.length;
+            }
+            if (valueOffset >= 0) {
+                this.liveBytes += record.length;
+            }
+        } finally {
+            BlockingIoDetector.end(blocking, "write", this.file);
+        }
+    }
+
+    /**
+     * Rewrites the file with the live records only. The new file replaces the old one atomically
+     * where the file system supports it, so a crash during compaction never loses data.
+     *
+     * @throws IOException if the file can't be rewritten
+     */
+    public void compact() throws IOException {
+        final long blocking = BlockingIoDetector.begin();
+        try {
+            final File compacted = new File(this.file.getPath() + ".compact");
+            final Map<String, Location> moved = new HashMap<>(this.index.size() * 4 / 3 + 1);
+            long position = HEADER_SIZE;
+            try (FileChannel out = FileChannel.open(
+                compacted.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+                writeFully(out, header(), 0);
+                for (final Map.Entry<String, Location> entry : this.index.entrySet()) {
+                    final Location location = entry.getValue();
+                    long transferred = 0;
+                    while (transferred < location.length) {
+                        transferred += this.channel.transferTo(
+                            location.offset + transferred,
+                            location.length - transferred,
+                            out.position(position + transferred));
+                    }
+                    moved.put(entry.getKey(), new Location(position, location.length, location.valueOffset));
+                    position += location.length;
+                }
+                out.force(true);
+            }
+
+            // The channel is closed first, as open files can't be replaced on every platform
+            this.channel.close();
+            try {
+                replace(compacted, this.file);
+            } catch (final IOException ex) {
+                this.channel = openChannel();
+                throw ex;
+            }
+            this.channel = openChannel();
+            this.index.clear();
+            this.index.putAll(moved);
+            this.size = position;
+        } finally {
+            BlockingIoDetector.end(blocking, "compact", this.file);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Loading
+    // ----------------------------------------------------------------------------------------------------
+
+    private void load() throws IOException {
+        this.channel = openChannel();
+        try {
+            if (!hasHeader()) {
+                // A new file, or one whose header was torn by a crash while it was created
+                writeFully(this.channel, header(), 0);
+                this.size = HEADER_SIZE;
+                return;
+            }
+            readRecords();
+        } catch (final Throwable throwable) {
+            // An open channel keeps the file locked on some platforms
+            try {
+                this.channel.close();
+            } catch (final IOException ex) {
+                throwable.addSuppressed(ex);
+            }
+            throw throwable;
+        }
+    }
+
+    // Whether the file starts with a complete header, a file holding only a part of it has none yet
+    private boolean hasHeader() throws IOException {
+        final int length = (int) Math.min(this.channel.size(), HEADER_SIZE);
+        final ByteBuffer header = ByteBuffer.allocate(length);
+        readFully(this.channel, header, 0);
+        if (!Arrays.equals(header.array(), Arrays.copyOf(header().array(), length))) {
+            throw new IOException("'" + this.file.getName() + "' isn't a key-value log of version " + VERSION);
+        }
+        return length == HEADER_SIZE;
+    }
+
+    private void readRecords() throws IOException {
+        final long blocking = BlockingIoDetector.begin();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(this.file.toPath()), 1 << 16))) {
+            // Checked by hasHeader()
+            in.readFully(new byte[HEADER_SIZE]);
+
+            final long fileSize = this.channel.size();
+            long position = HEADER_SIZE;
+            byte[] payload = new byte[256];
+            while (position + RECORD_HEADER_SIZE <= fileSize) {
+                final int payloadLength = in.readInt();
+                final int checksum = in.readInt();
+                if (payloadLength <= 0 || payloadLength > fileSize - position - RECORD_HEADER_SIZE) {
+                    break;
+                }
+                if (payload.length < payloadLength) {
+                    payload = new byte[Math.max(payloadLength, payload.length << 1)];
+                }
+                in.readFully(payload, 0, payloadLength);
+                this.crc.reset();
+                this.crc.update(payload, 0, payloadLength);
+                if ((int) this.crc.getValue() != checksum) {
+                    break;
+                }
+
+                final BinaryDecoder decoder = new BinaryDecoder(payload, 0, payloadLength);
+                final byte operation = decoder.readByte();
+                final String key = decoder.readString();
+                final int length = RECORD_HEADER_SIZE + payloadLength;
+                final Location previous = operation == DELETE
+                    ? this.index.remove(key)
+                    : this.index.put(key, new Location(position, length, decoder.position()));
+                if (previous != null) {
+                    this.liveBytes -= previous.length;
+                }
+                if (operation != DELETE) {
+                    this.liveBytes += length;
+                }
+                position += length;
+            }
+
+            // Drops a record torn by a crash, the next record is appended in its place
+            this.size = position;
+            if (position < fileSize) {
+                this.channel.truncate(position);
+            }
+        } finally {
+            BlockingIoDetector.end(blocking, "read", this.file);
+        }
+    }
+
+    private static void replace(final File source, final File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException ex) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(
+            this.file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer header() {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).putInt(VERSION);
+        header.flip();
+        return header;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+        throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the key-value log");
+            }
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+        throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static final class Location {
+        // Where the record starts in the file
+        private final long offset;
+        // The length of the whole record, including its header
+        private final int length;
+        // Where the value starts in the payload
+        private final int valueOffset;
+
+        private Location(final long offset, final int length, final int valueOffset) {
+            this.offset = offset;
+            this.length = length;
+            this.valueOffset = valueOffset;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.milkdrinkers.crate.sections;
+
+import io.github.milkdrinkers.crate.KeyValueStore;
+import io.github.milkdrinkers.crate.internal.DataStorage;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class KeyValueSection implements DataStorage {
+
+    protected final KeyValueStore store;
+    @Getter
+    private final String pathPrefix;
+
+    public KeyValueSection getSection(final String pathPrefix) {
+        return new KeyValueSection(this.store, createFinalKey(pathPrefix));
+    }
+
+    @Override
+    public Set<String> singleLayerKeySet() {
+        return store.singleLayerKeySet(pathPrefix);
+    }
+
+    @Override
+    public Set<String> singleLayerKeySet(final String key) {
+        return store.singleLayerKeySet(createFinalKey(key));
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return store.keySet(pathPrefix);
+    }
+
+    @Override
+    public Set<String> keySet(final String key) {
+        return store.keySet(createFinalKey(key));
+    }
+
+    @Override
+    public void remove(final String key) {
+        store.remove(createFinalKey(key));
+    }
+
+    @Override
+    public void set(final String key, final Object value) {
+        store.set(createFinalKey(key), value);
+    }
+
+    @Override
+    public boolean contains(final String key) {
+        return store.contains(createFinalKey(key));
+    }
+
+    @Override
+    public Object get(final String key) {
+        return store.get(createFinalKey(key));
+    }
+
+    private String createFinalKey(final String key) {
+        return pathPrefix == null || pathPrefix.isEmpty() ? key : pathPrefix + "." + key;
+    }
+}
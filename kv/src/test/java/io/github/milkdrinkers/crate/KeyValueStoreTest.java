@@ -0,0 +1,139 @@
+package io.github.milkdrinkers.crate;
+
+import io.github.milkdrinkers.crate.internal.exception.CrateException;
+import io.github.milkdrinkers.crate.sections.KeyValueSection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+class KeyValueStoreTest {
+    static KeyValueStore store;
+    @TempDir
+    File tempDir;
+
+    @BeforeEach
+    void setUp() {
+        store = KeyValueStore.builder()
+            .path(new File(tempDir, "players.kv"))
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+        Assertions.assertTrue(store.getFile().delete());
+    }
+
+    @Test
+    void testRecords() {
+        store.set("alice.stats.kills", 5);
+        store.set("alice.stats.deaths", 2L);
+        store.set("alice.name", "Alice");
+        store.set("alice.homes", Arrays.asList("spawn", "base"));
+        store.set("bob.joined", LocalDate.of(2024, 5, 1));
+        store.set("bob.ratio", 0.75);
+
+        Assertions.assertEquals(5, store.getInt("alice.stats.kills"));
+        Assertions.assertEquals(2L, store.get("alice.stats.deaths"));
+        Assertions.assertEquals(Arrays.asList("spawn", "base"), store.getStringList("alice.homes"));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("alice", "bob")), store.singleLayerKeySet());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("kills", "deaths")), store.singleLayerKeySet("alice.stats"));
+        Assertions.assertTrue(store.contains("bob"));
+        Assertions.assertTrue(store.contains("alice.stats.kills"));
+        Assertions.assertFalse(store.contains("alice.stats.assists"));
+        Assertions.assertTrue(store.get("alice.stats") instanceof Map);
+
+        final KeyValueSection section = store.getSection("alice").getSection("stats");
+        section.set("kills", 6);
+        Assertions.assertEquals(6, store.getInt("alice.stats.kills"));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("kills", "deaths")), section.singleLayerKeySet());
+
+        store.remove("alice.stats.deaths");
+        store.remove("bob.joined");
+        store.remove("bob.ratio");
+        Assertions.assertFalse(store.contains("bob"));
+        Assertions.assertEquals(1, store.size());
+
+        // Everything is read back from the log after reopening the store
+        store.close();
+        store = KeyValueStore.builder()
+            .path(new File(tempDir, "players.kv"))
+            .cacheSize(0)
+            .build();
+        Assertions.assertEquals(Collections.singleton("alice"), store.singleLayerKeySet());
+        Assertions.assertEquals(6, store.getInt("alice.stats.kills"));
+        Assertions.assertFalse(store.contains("alice.stats.deaths"));
+        Assertions.assertEquals("Alice", store.getString("alice.name"));
+        Assertions.assertEquals(
+            new HashSet<>(Arrays.asList("alice.stats.kills", "alice.name", "alice.homes")),
+            store.keySet());
+    }
+
+    @Test
+    void testCompactionAndRecovery() throws IOException {
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 100; i++) {
+                store.set("player-" + i + ".score", round);
+            }
+        }
+        final long before = store.getFile().length();
+        Assertions.assertTrue(store.getDeadBytes() > 0);
+
+        store.compact();
+        Assertions.assertEquals(0, store.getDeadBytes());
+        Assertions.assertTrue(store.getFile().length() * 10 < before);
+        Assertions.assertEquals(19, store.getInt("player-42.score"));
+
+        // A record torn by a crash while it was appended is dropped when the store is opened
+        store.set("player-0.score", 100);
+        store.close();
+        try (RandomAccessFile file = new RandomAccessFile(store.getFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        store = KeyValueStore.builder()
+            .path(store.getFile())
+            .build();
+        Assertions.assertEquals(19, store.getInt("player-0.score"));
+        Assertions.assertEquals(100, store.size());
+
+        store.set("player-0.score", 101);
+        store.close();
+        store = KeyValueStore.builder()
+            .path(store.getFile())
+            .build();
+        Assertions.assertEquals(101, store.getInt("player-0.score"));
+    }
+
+    @Test
+    void testHeaderRecovery() throws IOException {
+        // A header torn by a crash while the file was created is written again
+        final File torn = new File(tempDir, "torn.kv");
+        Files.write(torn.toPath(), new byte[]{'C', 'R', 'K'});
+        final KeyValueStore recovered = KeyValueStore.builder().path(torn).build();
+        recovered.set("key", "value");
+        recovered.close();
+        final KeyValueStore reopened = KeyValueStore.builder().path(torn).build();
+        Assertions.assertEquals("value", reopened.getString("key"));
+        reopened.close();
+
+        // Other files are rejected and not left open
+        final File foreign = new File(tempDir, "foreign.kv");
+        Files.write(foreign.toPath(), "not a log".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(CrateException.class, () -> KeyValueStore.builder().path(foreign).build());
+        Assertions.assertArrayEquals("not a log".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(foreign.toPath()));
+        Assertions.assertTrue(foreign.delete());
+    }
+}
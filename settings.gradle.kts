@@ -17,5 +17,7 @@ include(
     "api",
     "yaml",
     "json",
-    "toml"
+    "toml",
+    "binary",
+    "kv"
 )
@@ -1,17 +1,25 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.convert.StreamFormat;
+import io.github.milkdrinkers.crate.convert.StreamingConverter;
+import io.github.milkdrinkers.crate.defaults.SharedDefaults;
 import io.github.milkdrinkers.crate.internal.FileData;
 import io.github.milkdrinkers.crate.internal.FileType;
 import io.github.milkdrinkers.crate.internal.FlatFile;
 import io.github.milkdrinkers.crate.internal.editor.toml.TomlManager;
+import io.github.milkdrinkers.crate.internal.editor.toml.TomlStreamFormat;
 import io.github.milkdrinkers.crate.internal.provider.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
+import io.github.milkdrinkers.crate.internal.settings.DataType;
 import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
 import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.StringPool;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -21,19 +29,37 @@ public class Toml extends FlatFile {
         @NonNull final String path,
         @Nullable final InputStream inputStream,
         @Nullable final ReloadSetting reloadSetting,
-        @Nullable final Consumer<FlatFile> reloadConsumer
+        @Nullable final DataType dataType,
+        @Nullable final Consumer<FlatFile> reloadConsumer,
+        @Nullable final StringPool stringPool,
+        @Nullable final Compression compression,
+        final int compressionLevel,
+        final boolean readOnly,
+        final boolean lazy
     ) {
-        super(name, path, FileType.TOML, reloadConsumer);
+        super(name, path, FileType.TOML, reloadConsumer, compression, compressionLevel);
 
         if (create() && inputStream != null) {
-            FileUtils.writeToFile(this.file, inputStream);
+            writeToFile(inputStream);
         }
 
         if (reloadSetting != null) {
             this.reloadSetting = reloadSetting;
         }
 
-        forceReload();
+        if (dataType != null) {
+            this.dataType = dataType;
+        }
+
+        this.stringPool = stringPool;
+
+        if (readOnly) {
+            freeze();
+        }
+
+        if (!lazy) {
+            forceReload();
+        }
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -42,13 +68,15 @@ public class Toml extends FlatFile {
 
     @Override
     protected final Map<String, Object> readToMap() throws IOException {
-        return TomlManager.read(getFile());
+        try (InputStream inputStream = openInputStream()) {
+            return TomlManager.read(inputStream, this.stringPool);
+        }
     }
 
     @Override
     protected final void write(final FileData data) {
-        try {
-            TomlManager.write(data.toMap(), getFile());
+        try (OutputStream outputStream = openOutputStream()) {
+            TomlManager.write(data.toMap(), outputStream);
         } catch (final IOException ioException) {
             System.err.println("Exception while writing fileData to file '" + getName() + "'");
             System.err.println("In '" + FileUtils.getParentDirPath(this.file) + "'");
@@ -56,6 +84,26 @@ public class Toml extends FlatFile {
         }
     }
 
+    /**
+     * Returns the shared defaults of a bundled TOML resource, see {@link SharedDefaults}.
+     *
+     * @param resource The name of the resource
+     * @return The shared defaults of the resource
+     */
+    public static FileData sharedDefaults(@NonNull final String resource) {
+        return SharedDefaults.resource(CrateProviders.inputStreamProvider(), resource, TomlManager::read);
+    }
+
+    /**
+     * Returns the TOML format for {@link StreamingConverter}, which converts documents without
+     * loading them as a whole.
+     *
+     * @return The streaming TOML format
+     */
+    public static StreamFormat streamFormat() {
+        return TomlStreamFormat.INSTANCE;
+    }
+
     /**
      * A builder to build a new Toml instance.
      * @return A new Builder instance.
@@ -75,7 +123,13 @@ public class Toml extends FlatFile {
                 super.getDirectoryPath(),
                 super.getDefaultDataStream(),
                 super.getReloadSetting(),
-                super.getReloadCallback()
+                super.getDataType(),
+                super.getReloadCallback(),
+                super.getStringPool(),
+                super.getCompression(),
+                super.getCompressionLevel(),
+                super.isReadOnly(),
+                super.isLazy()
             );
         }
     }
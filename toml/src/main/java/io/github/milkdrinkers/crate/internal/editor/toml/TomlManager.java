@@ -2,7 +2,9 @@ package io.github.milkdrinkers.crate.internal.editor.toml;
 
 import io.github.milkdrinkers.crate.internal.exceptions.TomlException;
 import io.github.milkdrinkers.crate.util.FastStringWriter;
+import io.github.milkdrinkers.crate.util.StringPool;
 import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -14,6 +16,11 @@ import java.util.Map;
 /**
  * Utility class for reading and writing TOML v0.4.0. This class internally uses {@link TomlReader}
  * and {@link TomlWriter}.
+ * <p>
+ * Every thread reuses its own reader and writer, which keep their scratch buffers between documents.
+ * They live as long as the thread, so threads of a pool that once read a large document keep its
+ * largest scalar buffered. Such threads can release them through {@link #clearThreadCaches()}.
+ * </p>
  *
  * @author TheElectronWill Rewritten by JavaFactoryDev for LighntingStorage.
  */
@@ -34,6 +41,21 @@ public class TomlManager {
             .optionalEnd()
             .toFormatter();
 
+    // Readers and writers keep their buffers between documents, every thread reuses its own
+    private static final ThreadLocal<TomlReader> READER = ThreadLocal.withInitial(() -> new TomlReader("", false));
+    private static final ThreadLocal<TomlWriter> WRITER = ThreadLocal.withInitial(() -> new TomlWriter(null));
+
+    /**
+     * Drops the reader and writer of the current thread, releasing their buffers. They are created
+     * again on the next read or write of the thread.
+     *
+     * @since 4.0.0
+     */
+    public void clearThreadCaches() {
+        READER.remove();
+        WRITER.remove();
+    }
+
     /**
      * Writes the specified data to a String, in the TOML format.
      *
@@ -56,8 +78,9 @@ public class TomlManager {
      * @throws IOException if an error occurs
      */
     public void write(final Map<String, Object> data, final File file) throws IOException {
-        final FileOutputStream out = new FileOutputStream(file);
-        write(data, out);
+        try (final OutputStream out = Files.newOutputStream(file.toPath())) {
+            write(data, out);
+        }
     }
 
     /**
@@ -69,7 +92,8 @@ public class TomlManager {
      * @throws TomlException if a parse error occurs
      */
     public void write(final Map<String, Object> data, final OutputStream out) throws IOException {
-        final OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        // The TOML writer emits small chunks, they are buffered before being encoded
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
         write(data, writer);
     }
 
@@ -83,9 +107,13 @@ public class TomlManager {
      * @throws TomlException if a parse error occurs
      */
     public void write(final Map<String, Object> data, final Writer writer) throws IOException {
-        final TomlWriter tw = new TomlWriter(writer);
-        tw.write(data);
-        tw.close();
+        final TomlWriter tw = WRITER.get().reset(writer);
+        try {
+            tw.write(data);
+            tw.close();
+        } finally {
+            tw.reset(null);
+        }
     }
 
     /**
@@ -132,8 +160,29 @@ public class TomlManager {
      * @throws TomlException if a parse error occurs
      */
     public Map<String, Object> read(final String toml, final boolean strictAsciiBareKeys) {
-        final TomlReader tr = new TomlReader(toml, strictAsciiBareKeys);
-        return tr.read();
+        return read(toml, strictAsciiBareKeys, null);
+    }
+
+    /**
+     * Reads a String that contains TOML data, interning its keys and string values while they are
+     * read.
+     *
+     * @param toml                a String containing TOML data
+     * @param strictAsciiBareKeys <code>true</code> to enforce strict bare keys (see {@link
+     *                            TomlManager}).
+     * @param pool                the pool to intern strings into, or null to not intern them
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws TomlException if a parse error occurs
+     */
+    public Map<String, Object> read(
+        final String toml, final boolean strictAsciiBareKeys, @Nullable final StringPool pool) {
+        final TomlReader tr = READER.get().reset(toml, strictAsciiBareKeys, pool);
+        try {
+            return tr.read();
+        } finally {
+            // Doesn't keep the document reachable from the thread
+            tr.reset("", false);
+        }
     }
 
     /**
@@ -193,6 +242,21 @@ public class TomlManager {
             new InputStreamReader(in, StandardCharsets.UTF_8), in.available(), strictAsciiBareKeys);
     }
 
+    /**
+     * Reads TOML data from an UTF-8 encoded InputStream, interning its keys and string values while
+     * they are read. Lenient bare keys are allowed (see {@link TomlManager}).
+     *
+     * @param in   the InputStream to read data from
+     * @param pool the pool to intern strings into, or null to not intern them
+     * @return a {@code Map<String, Object>} containing the parsed data
+     * @throws IOException   if a read error occurs
+     * @throws TomlException if a parse error occurs
+     */
+    public Map<String, Object> read(final InputStream in, @Nullable final StringPool pool)
+        throws IOException, TomlException {
+        return read(readFully(new InputStreamReader(in, StandardCharsets.UTF_8), in.available()), false, pool);
+    }
+
     /**
      * Reads TOML data from a Reader. The data is read until the end of the stream is reached.
      *
@@ -207,13 +271,16 @@ public class TomlManager {
     public Map<String, Object> read(
         final Reader reader, final int bufferSize, final boolean strictAsciiBareKeys)
         throws IOException, TomlException {
+        return read(readFully(reader, bufferSize), strictAsciiBareKeys);
+    }
+
+    private String readFully(final Reader reader, final int bufferSize) throws IOException {
         final StringBuilder sb = new StringBuilder(bufferSize);
         final char[] buf = new char[8192];
         int read;
         while ((read = reader.read(buf)) != -1) {
             sb.append(buf, 0, read);
         }
-        final TomlReader tr = new TomlReader(sb.toString(), strictAsciiBareKeys);
-        return tr.read();
+        return sb.toString();
     }
 }
@@ -1,9 +1,13 @@
 package io.github.milkdrinkers.crate.internal.editor.toml;
 
 import io.github.milkdrinkers.crate.internal.exceptions.TomlException;
+import io.github.milkdrinkers.crate.util.StringPool;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
 
@@ -37,8 +41,17 @@ import java.util.*;
 @SuppressWarnings("unchecked")
 public final class TomlReader {
 
-    private final String data;
-    private final boolean strictAsciiBareKeys;
+    // Powers of ten that are exactly representable as a double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    // Reused for every scalar, the readers are confined to one thread and reset between documents
+    private final StringBuilder buffer = new StringBuilder();
+    private String data;
+    private boolean strictAsciiBareKeys;
+    @Nullable
+    private StringPool pool;
     private int pos = 0; // current position
     private int line = 1; // current line
 
@@ -55,6 +68,55 @@ public final class TomlReader {
         this.strictAsciiBareKeys = strictAsciiBareKeys;
     }
 
+    /**
+     * Prepares this reader to read another document, so a single instance can be reused.
+     *
+     * @param data                the TOML data to read
+     * @param strictAsciiBareKeys <code>true</code> to allow only strict bare keys,
+     *                            <code>false</code> to allow lenient
+     *                            ones.
+     * @return this reader
+     * @since 4.0.0
+     */
+    public TomlReader reset(final String data, final boolean strictAsciiBareKeys) {
+        return reset(data, strictAsciiBareKeys, null);
+    }
+
+    /**
+     * Prepares this reader to read another document, interning its keys and string values while
+     * they are read.
+     *
+     * @param data                the TOML data to read
+     * @param strictAsciiBareKeys <code>true</code> to allow only strict bare keys,
+     *                            <code>false</code> to allow lenient
+     *                            ones.
+     * @param pool                the pool to intern strings into, or null to not intern them
+     * @return this reader
+     * @since 4.0.0
+     */
+    public TomlReader reset(final String data, final boolean strictAsciiBareKeys, @Nullable final StringPool pool) {
+        this.data = data;
+        this.strictAsciiBareKeys = strictAsciiBareKeys;
+        this.pool = pool;
+        this.pos = 0;
+        this.line = 1;
+        this.buffer.setLength(0);
+        return this;
+    }
+
+    private String key(final String key) {
+        return this.pool == null ? key : this.pool.intern(key);
+    }
+
+    private String value(final String value) {
+        return this.pool == null ? value : this.pool.internValue(value);
+    }
+
+    private StringBuilder buffer() {
+        this.buffer.setLength(0);
+        return this.buffer;
+    }
+
     private boolean hasNext() {
         return pos < data.length();
     }
@@ -112,27 +174,27 @@ public final class TomlReader {
             case '7':
             case '8':
             case '9':
-                return nextNumberOrDate(firstChar);
+                return nextNumberOrDate();
             case '"':
                 if (pos + 1 < data.length()) {
                     final char c2 = data.charAt(pos);
                     final char c3 = data.charAt(pos + 1);
                     if (c2 == '"' && c3 == '"') {
                         pos += 2;
-                        return nextBasicMultilineString();
+                        return value(nextBasicMultilineString());
                     }
                 }
-                return nextBasicString();
+                return value(nextBasicString());
             case '\'':
                 if (pos + 1 < data.length()) {
                     final char c2 = data.charAt(pos);
                     final char c3 = data.charAt(pos + 1);
                     if (c2 == '\'' && c3 == '\'') {
                         pos += 2;
-                        return nextLiteralMultilineString();
+                        return value(nextLiteralMultilineString());
                     }
                 }
-                return nextLiteralString();
+                return value(nextLiteralString());
             case '[':
                 return nextArray();
             case '{':
@@ -218,7 +280,7 @@ public final class TomlReader {
                         name = nextBareKey(']', '.').trim();
                         if (data.charAt(pos) == ']') {
                             if (!name.isEmpty()) {
-                                keyParts.add(name);
+                                keyParts.add(key(name));
                             }
                             insideSquareBrackets = false;
                         } else if (name.isEmpty()) {
@@ -229,7 +291,7 @@ public final class TomlReader {
                         break;
                 }
                 if (insideSquareBrackets) {
-                    keyParts.add(name.trim());
+                    keyParts.add(key(name.trim()));
                 }
             }
 
@@ -360,7 +422,7 @@ public final class TomlReader {
 
             final char valueFirstChar = nextUsefulOrLinebreak();
             final Object value = nextValue(valueFirstChar);
-            map.put(name, value);
+            map.put(key(name), value);
 
             final char after = nextUsefulOrLinebreak();
             if (after == '}' || !hasNext()) {
@@ -440,20 +502,20 @@ public final class TomlReader {
                 throw new TomlException("Duplicate key \"" + name + "\"");
             }
 
-            map.put(name, value);
+            map.put(key(name), value);
         }
     }
 
-    private Object nextNumberOrDate(final char first) {
+    private Object nextNumberOrDate() {
+        // Numbers and dates are parsed straight from the data, the first character was already read
+        final int start = pos - 1;
+        int end = pos;
         boolean maybeDouble = true;
         boolean maybeInteger = true;
         boolean maybeDate = true;
-        final StringBuilder sb = new StringBuilder();
-        sb.append(first);
-        char c;
         whileLoop:
-        while (hasNext()) {
-            c = next();
+        for (; end < data.length(); end++) {
+            final char c = data.charAt(end);
             switch (c) {
                 case ':':
                 case 'T':
@@ -467,11 +529,17 @@ public final class TomlReader {
                 case '.':
                     maybeInteger = false;
                     break;
-                case '-':
-                    if (pos != 0 && data.charAt(pos - 1) != 'e' && data.charAt(pos - 1) != 'E') {
+                case '-': {
+                    // Only the sign of an exponent keeps this a number
+                    final char previous = data.charAt(end - 1);
+                    if (previous != 'e' && previous != 'E') {
                         maybeInteger = maybeDouble = false;
                     }
                     break;
+                }
+                case '_':
+                    maybeDate = false;
+                    break;
                 case ',':
                 case ' ':
                 case '\t':
@@ -479,40 +547,281 @@ public final class TomlReader {
                 case '\r':
                 case ']':
                 case '}':
-                    pos--;
                     break whileLoop;
-            }
-            if (c == '_') {
-                maybeDate = false;
-            } else {
-                sb.append(c);
+                default:
+                    break;
             }
         }
-        final String valueStr = sb.toString();
+        pos = end;
+
         try {
             if (maybeInteger) {
-                if (valueStr.length() < 10) {
-                    return Integer.parseInt(valueStr);
-                }
-                return Long.parseLong(valueStr);
+                return nextInteger(start, end);
             }
 
             if (maybeDouble) {
-                return Double.parseDouble(valueStr);
+                return nextDouble(start, end);
             }
 
             if (maybeDate) {
-                return TomlManager.DATE_FORMATTER.parseBest(
-                    valueStr, ZonedDateTime::from, LocalDateTime::from, LocalDate::from);
+                return nextDate(start, end);
             }
-
+        } catch (final TomlException ex) {
+            throw ex;
         } catch (final Exception ex) {
             throw new TomlException(
                 ex,
-                "Invalid value: \"" + valueStr + "\" at line " + line);
+                "Invalid value: \"" + valueString(start, end) + "\" at line " + line);
+        }
+
+        throw invalidValue(start, end);
+    }
+
+    private Number nextInteger(final int start, final int end) {
+        int i = start;
+        final boolean negative = data.charAt(i) == '-';
+        if (negative || data.charAt(i) == '+') {
+            i++;
+        }
+
+        // Accumulated negatively, so Long.MIN_VALUE can be represented
+        final int signLength = i - start;
+        long value = 0;
+        int digits = 0;
+        for (; i < end; i++) {
+            final char c = data.charAt(i);
+            if (c == '_') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw invalidValue(start, end);
+            }
+
+            final int digit = c - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw invalidValue(start, end);
+            }
+            value = value * 10 - digit;
+            digits++;
+        }
+
+        if (digits == 0 || (!negative && value == Long.MIN_VALUE)) {
+            throw invalidValue(start, end);
+        }
+
+        final long result = negative ? value : -value;
+        // Values written with less than 10 characters always fit an int
+        if (signLength + digits < 10) {
+            return (int) result;
+        }
+        return result;
+    }
+
+    private double nextDouble(final int start, final int end) {
+        int i = start;
+        final boolean negative = data.charAt(i) == '-';
+        if (negative || data.charAt(i) == '+') {
+            i++;
         }
 
-        throw new TomlException("Invalid value: \"" + valueStr + "\" at line " + line);
+        // Exact when the significand fits 15 digits and the power of ten is exactly representable
+        long significand = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean integerDigits = false;
+        for (; i < end; i++) {
+            final char c = data.charAt(i);
+            if (c == '_') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            integerDigits = true;
+            if (significand != 0 || c != '0') {
+                if (++significantDigits > 15) {
+                    return Double.parseDouble(valueString(start, end));
+                }
+                significand = significand * 10 + (c - '0');
+            }
+        }
+        if (!integerDigits) {
+            return Double.parseDouble(valueString(start, end));
+        }
+
+        if (i < end && data.charAt(i) == '.') {
+            i++;
+            boolean fractionDigits = false;
+            for (; i < end; i++) {
+                final char c = data.charAt(i);
+                if (c == '_') {
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                fractionDigits = true;
+                exponent--;
+                if (significand != 0 || c != '0') {
+                    if (++significantDigits > 15) {
+                        return Double.parseDouble(valueString(start, end));
+                    }
+                    significand = significand * 10 + (c - '0');
+                }
+            }
+            if (!fractionDigits) {
+                return Double.parseDouble(valueString(start, end));
+            }
+        }
+
+        if (i < end && (data.charAt(i) == 'e' || data.charAt(i) == 'E')) {
+            i++;
+            final boolean negativeExponent = i < end && data.charAt(i) == '-';
+            if (i < end && (negativeExponent || data.charAt(i) == '+')) {
+                i++;
+            }
+            int explicitExponent = 0;
+            boolean exponentDigits = false;
+            for (; i < end; i++) {
+                final char c = data.charAt(i);
+                if (c == '_') {
+                    continue;
+                }
+                if (c < '0' || c > '9' || explicitExponent > 1000) {
+                    return Double.parseDouble(valueString(start, end));
+                }
+                exponentDigits = true;
+                explicitExponent = explicitExponent * 10 + (c - '0');
+            }
+            if (!exponentDigits) {
+                return Double.parseDouble(valueString(start, end));
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != end) {
+            return Double.parseDouble(valueString(start, end));
+        }
+
+        final double value;
+        if (significand == 0) {
+            value = 0D;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = significand * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = significand / POWERS_OF_TEN[-exponent];
+        } else {
+            return Double.parseDouble(valueString(start, end));
+        }
+        return negative ? -value : value;
+    }
+
+    private Object nextDate(final int start, final int end) {
+        // RFC 3339 with fixed width fields, anything else is left to the formatter
+        if (end - start < 10 || data.charAt(start + 4) != '-' || data.charAt(start + 7) != '-') {
+            return parseDate(start, end);
+        }
+        final int year = digits(start, 4, end);
+        final int month = digits(start + 5, 2, end);
+        final int day = digits(start + 8, 2, end);
+        if (year < 0 || month < 0 || day < 0) {
+            return parseDate(start, end);
+        }
+
+        final LocalDate date = LocalDate.of(year, month, day);
+        int i = start + 10;
+        if (i == end) {
+            return date;
+        }
+        if (data.charAt(i) != 'T' || i + 6 > end || data.charAt(i + 3) != ':') {
+            return parseDate(start, end);
+        }
+
+        final int hour = digits(i + 1, 2, end);
+        final int minute = digits(i + 4, 2, end);
+        int second = 0;
+        int nano = 0;
+        i += 6;
+        if (i < end && data.charAt(i) == ':') {
+            second = digits(i + 1, 2, end);
+            i += 3;
+            if (i < end && data.charAt(i) == '.') {
+                i++;
+                int fractionDigits = 0;
+                while (i < end && data.charAt(i) >= '0' && data.charAt(i) <= '9') {
+                    nano = nano * 10 + (data.charAt(i++) - '0');
+                    if (++fractionDigits > 9) {
+                        return parseDate(start, end);
+                    }
+                }
+                if (fractionDigits == 0) {
+                    return parseDate(start, end);
+                }
+                for (; fractionDigits < 9; fractionDigits++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if (hour < 0 || minute < 0 || second < 0) {
+            return parseDate(start, end);
+        }
+
+        final LocalDateTime dateTime = LocalDateTime.of(date, LocalTime.of(hour, minute, second, nano));
+        if (i == end) {
+            return dateTime;
+        }
+
+        final char offset = data.charAt(i);
+        if (offset == 'Z' && i + 1 == end) {
+            return ZonedDateTime.of(dateTime, ZoneOffset.UTC);
+        }
+        if ((offset == '+' || offset == '-') && i + 6 == end && data.charAt(i + 3) == ':') {
+            final int offsetHours = digits(i + 1, 2, end);
+            final int offsetMinutes = digits(i + 4, 2, end);
+            if (offsetHours >= 0 && offsetMinutes >= 0) {
+                final int sign = offset == '-' ? -1 : 1;
+                return ZonedDateTime.of(
+                    dateTime,
+                    ZoneOffset.ofHoursMinutes(sign * offsetHours, sign * offsetMinutes));
+            }
+        }
+        return parseDate(start, end);
+    }
+
+    private Object parseDate(final int start, final int end) {
+        return TomlManager.DATE_FORMATTER.parseBest(
+            data.substring(start, end), ZonedDateTime::from, LocalDateTime::from, LocalDate::from);
+    }
+
+    // Returns the value of a fixed number of decimal digits, or -1 if they aren't all present
+    private int digits(final int from, final int count, final int end) {
+        if (from + count > end) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            final char c = data.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private String valueString(final int start, final int end) {
+        final StringBuilder sb = buffer();
+        for (int i = start; i < end; i++) {
+            if (data.charAt(i) != '_') {
+                sb.append(data.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    private TomlException invalidValue(final int start, final int end) {
+        return new TomlException("Invalid value: \"" + valueString(start, end) + "\" at line " + line);
     }
 
     private String nextBareKey(final char... allowedEnds) {
@@ -592,7 +901,7 @@ public final class TomlReader {
     }
 
     private String nextBasicString() {
-        final StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = buffer();
         boolean escape = false;
         while (hasNext()) {
             final char c = next();
@@ -614,7 +923,7 @@ public final class TomlReader {
     }
 
     private String nextBasicMultilineString() {
-        final StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = buffer();
         boolean first = true;
         boolean escape = false;
         while (hasNext()) {
@@ -0,0 +1,172 @@
+package io.github.milkdrinkers.crate.internal.editor.toml;
+
+import io.github.milkdrinkers.crate.convert.DataEvents;
+import io.github.milkdrinkers.crate.convert.DataHandler;
+import io.github.milkdrinkers.crate.convert.DataTreeBuilder;
+import io.github.milkdrinkers.crate.convert.StreamFormat;
+import io.github.milkdrinkers.crate.internal.FileType;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes TOML documents as events, buffering as little as TOML allows.
+ * <p>
+ * TOML can't be read as a stream: a table may be continued anywhere later in the document, so the
+ * reader parses the whole document before replaying it. The writer keeps one top-level section at
+ * a time in memory. Sections are written to a temporary file as soon as they are complete, and are
+ * appended after the simple top-level values once the document ends, as TOML requires those to come
+ * first.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class TomlStreamFormat implements StreamFormat {
+    public static final TomlStreamFormat INSTANCE = new TomlStreamFormat();
+
+    private TomlStreamFormat() {
+    }
+
+    @Override
+    public FileType getFileType() {
+        return FileType.TOML;
+    }
+
+    @Override
+    public void read(@NonNull final InputStream in, @NonNull final DataHandler handler) throws IOException {
+        DataEvents.replay(TomlManager.read(in), handler);
+    }
+
+    @Override
+    public DataHandler newWriter(@NonNull final OutputStream out) {
+        return new StreamWriter(out);
+    }
+
+    private static final class StreamWriter implements DataHandler, Closeable {
+        private final OutputStream out;
+        // Simple values and arrays of the root table, written before all tables
+        private final Map<String, Object> rootValues = new LinkedHashMap<>();
+        private int depth;
+        private String key;
+        @Nullable
+        private DataTreeBuilder section;
+        @Nullable
+        private File sections;
+        @Nullable
+        private Writer sectionsWriter;
+
+        private StreamWriter(final OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void startMap() throws IOException {
+            if (this.depth++ > 0) {
+                section().startMap();
+            }
+        }
+
+        @Override
+        public void key(final String key) {
+            if (this.depth == 1) {
+                this.key = key;
+            } else {
+                this.section.key(key);
+            }
+        }
+
+        @Override
+        public void endMap() throws IOException {
+            if (--this.depth == 0) {
+                finish();
+                return;
+            }
+            this.section.endMap();
+            endSection();
+        }
+
+        @Override
+        public void startList() {
+            this.depth++;
+            section().startList();
+        }
+
+        @Override
+        public void endList() throws IOException {
+            this.depth--;
+            this.section.endList();
+            endSection();
+        }
+
+        @Override
+        public void value(@Nullable final Object value) {
+            if (this.depth == 1) {
+                this.rootValues.put(this.key, value);
+            } else {
+                this.section.value(value);
+            }
+        }
+
+        private DataTreeBuilder section() {
+            if (this.section == null) {
+                this.section = new DataTreeBuilder();
+            }
+            return this.section;
+        }
+
+        private void endSection() throws IOException {
+            if (this.depth > 1) {
+                return;
+            }
+
+            final Object value = this.section.getResult();
+            this.section = null;
+            if (!(value instanceof Map)) {
+                this.rootValues.put(this.key, value);
+                return;
+            }
+
+            if (this.sectionsWriter == null) {
+                this.sections = File.createTempFile("crate-", ".toml.part");
+                this.sectionsWriter = Files.newBufferedWriter(this.sections.toPath(), StandardCharsets.UTF_8);
+            }
+            new TomlWriter(this.sectionsWriter).write(Collections.singletonMap(this.key, value));
+            this.sectionsWriter.write(System.lineSeparator());
+        }
+
+        private void finish() throws IOException {
+            try {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(this.out, StandardCharsets.UTF_8));
+                new TomlWriter(writer).write(this.rootValues);
+                writer.write(System.lineSeparator());
+                writer.flush();
+
+                if (this.sectionsWriter != null) {
+                    this.sectionsWriter.close();
+                    Files.copy(this.sections.toPath(), this.out);
+                }
+                this.out.flush();
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Deletes the temporary file of the sections, also if the document wasn't completed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (this.sections != null) {
+                this.sectionsWriter.close();
+                Files.deleteIfExists(this.sections.toPath());
+                this.sections = null;
+            }
+        }
+    }
+}
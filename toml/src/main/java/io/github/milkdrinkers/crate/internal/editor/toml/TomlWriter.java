@@ -8,9 +8,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,11 +33,15 @@ import java.util.Map;
 @SuppressWarnings("unchecked")
 public final class TomlWriter {
 
-    private final Writer writer;
+    // Reused for every escaped String, the writers are confined to one thread and reset between documents
+    private final StringBuilder stringBuilder = new StringBuilder();
+    private Writer writer;
     private final int indentSize;
     private final char indentCharacter;
     private final String lineSeparator;
-    private final LinkedList<String> tablesNames = new LinkedList<>();
+    // The tables of every depth, written after the simple values of their parent
+    private final List<List<Map.Entry<String, Object>>> deferredTables = new ArrayList<>();
+    private String tablePath = ""; // full dotted name of the current table, keys already quoted
     private int lineBreaks = 0;
     private int indentationLevel = -1; // -1 to prevent indenting the first level
 
@@ -83,6 +88,25 @@ public final class TomlWriter {
         this.lineSeparator = lineSeparator;
     }
 
+    /**
+     * Prepares this writer to write another document, so a single instance can be reused.
+     *
+     * @param writer where to write the data
+     * @return this writer
+     * @since 4.0.0
+     */
+    public TomlWriter reset(final Writer writer) {
+        this.writer = writer;
+        this.tablePath = "";
+        for (final List<Map.Entry<String, Object>> tables : this.deferredTables) {
+            tables.clear();
+        }
+        this.lineBreaks = 0;
+        this.indentationLevel = -1;
+        this.stringBuilder.setLength(0);
+        return this;
+    }
+
     private static void addEscaped(final StringBuilder stringBuilder, final char c) {
         switch (c) {
             case '\b':
@@ -140,119 +164,88 @@ public final class TomlWriter {
         writeTableContent(data);
     }
 
-    private void writeTableName() throws IOException {
-        final Iterator<String> it = tablesNames.iterator();
-        while (it.hasNext()) {
-            final String namePart = it.next();
-            writeKey(namePart);
-            if (it.hasNext()) {
-                write('.');
-            }
-        }
-    }
-
-    private void writeTableContent(final Map<String, Object> table) throws IOException {
-        writeTableContent(table, true);
-        writeTableContent(table, false);
-    }
-
     /**
-     * Writes the content of a table.
+     * Writes the content of a table in a single pass. Simple values (and the normal arrays) are
+     * written right away, tables (and the arrays of tables) are collected and written after them.
      *
-     * @param table        the table to write
-     * @param simpleValues true to write only the simple values (and the normal arrays), false to
-     *                     write only the tables (and the arrays of tables).
+     * @param table the table to write
      */
-    private void writeTableContent(final Map<String, Object> table, final boolean simpleValues)
-        throws IOException {
+    private void writeTableContent(final Map<String, Object> table) throws IOException {
+        final int depth = indentationLevel + 1;
+        if (deferredTables.size() <= depth) {
+            deferredTables.add(new ArrayList<>());
+        }
+        final List<Map.Entry<String, Object>> tables = deferredTables.get(depth);
+
         for (final Map.Entry<String, Object> entry : table.entrySet()) {
-            final String name = entry.getKey();
             final Object value = entry.getValue();
-            if (value instanceof Collection) { // array
-                final Collection c = (Collection) value;
-                if (!c.isEmpty() && c.iterator().next() instanceof Map) { // array of tables
-                    if (simpleValues) {
-                        continue;
-                    }
-                    tablesNames.addLast(name);
-                    indentationLevel++;
-                    for (final Object element : c) {
-                        indent();
-                        write("[[");
-                        writeTableName();
-                        write("]]\n");
-                        final Map<String, Object> map = (Map) element;
-                        writeTableContent(map);
-                    }
-                    indentationLevel--;
-                    tablesNames.removeLast();
-                } else { // normal array
-                    if (!simpleValues) {
-                        continue;
-                    }
-                    indent();
-                    writeKey(name);
-                    write(" = ");
-                    writeArray(c);
-                }
-            } else if (value instanceof Object[]) { // array
-                final Object[] array = (Object[]) value;
-                if (array.length > 0 && array[0] instanceof Map) { // array of tables
-                    if (simpleValues) {
-                        continue;
-                    }
-                    tablesNames.addLast(name);
-                    indentationLevel++;
-                    for (final Object element : array) {
-                        indent();
-                        write("[[");
-                        writeTableName();
-                        write("]]\n");
-                        final Map<String, Object> map = (Map) element;
-                        writeTableContent(map);
-                    }
-                    indentationLevel--;
-                    tablesNames.removeLast();
-                } else { // normal array
-                    if (!simpleValues) {
-                        continue;
-                    }
-                    indent();
-                    writeKey(name);
-                    write(" = ");
-                    writeArray(array);
-                }
-            } else if (value instanceof Map) { // table
-                if (simpleValues) {
-                    continue;
-                }
-                tablesNames.addLast(name);
-                indentationLevel++;
+            if (isTable(value)) {
+                tables.add(entry);
+                continue;
+            }
+
+            indent();
+            writeKey(entry.getKey());
+            write(" = ");
+            writeValue(value);
+            newLine();
+        }
+        // A blank line separates the simple values from the first table
+        if (!tables.isEmpty()) {
+            newLine();
+        }
+
+        for (int i = 0; i < tables.size(); i++) {
+            final Map.Entry<String, Object> entry = tables.get(i);
+            final String parentPath = tablePath;
+            tablePath = parentPath.isEmpty()
+                ? keyString(entry.getKey())
+                : parentPath + '.' + keyString(entry.getKey());
+            indentationLevel++;
 
+            final Object value = entry.getValue();
+            if (value instanceof Map) { // table
                 indent();
                 write('[');
-                writeTableName();
+                write(tablePath);
                 write(']');
                 newLine();
-                writeTableContent((Map) value);
-
-                indentationLevel--;
-                tablesNames.removeLast();
-            } else { // simple value
-                if (!simpleValues) {
-                    continue;
+                writeTableContent((Map<String, Object>) value);
+            } else { // array of tables
+                final Collection<?> elements = value instanceof Collection
+                    ? (Collection<?>) value
+                    : Arrays.asList((Object[]) value);
+                for (final Object element : elements) {
+                    indent();
+                    write("[[");
+                    write(tablePath);
+                    write("]]\n");
+                    writeTableContent((Map<String, Object>) element);
                 }
-                indent();
-                writeKey(name);
-                write(" = ");
-                writeValue(value);
             }
+
+            indentationLevel--;
+            tablePath = parentPath;
             newLine();
         }
+        tables.clear();
         newLine();
     }
 
-    private void writeKey(final String key) throws IOException {
+    private static boolean isTable(final Object value) {
+        if (value instanceof Map) {
+            return true;
+        } else if (value instanceof Collection) {
+            final Collection<?> c = (Collection<?>) value;
+            return !c.isEmpty() && c.iterator().next() instanceof Map;
+        } else if (value instanceof Object[]) {
+            final Object[] array = (Object[]) value;
+            return array.length > 0 && array[0] instanceof Map;
+        }
+        return false;
+    }
+
+    private static boolean isBareKey(final String key) {
         for (int i = 0; i < key.length(); i++) {
             final char c = key.charAt(i);
             if (!(
@@ -261,22 +254,64 @@ public final class TomlWriter {
                     || c >= '0' && c <= '9'
                     || c == '-'
                     || c == '_')) {
-                writeString(key);
-                return;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean needsEscape(final String str) {
+        for (int i = 0; i < str.length(); i++) {
+            switch (str.charAt(i)) {
+                case '\b':
+                case '\t':
+                case '\n':
+                case '\\':
+                case '\r':
+                case '\f':
+                case '"':
+                    return true;
+                default:
+                    break;
             }
         }
-        write(key);
+        return false;
+    }
+
+    private String keyString(final String key) {
+        return isBareKey(key) ? key : escapedString(key);
+    }
+
+    private void writeKey(final String key) throws IOException {
+        if (isBareKey(key)) {
+            write(key);
+        } else {
+            writeString(key);
+        }
     }
 
     private void writeString(final String str) throws IOException {
-        final StringBuilder stringBuilder = new StringBuilder();
+        if (needsEscape(str)) {
+            write(escapedString(str));
+            return;
+        }
+
+        // Nothing to escape, the String is written as is
+        write('"');
+        write(str);
+        write('"');
+    }
+
+    private String escapedString(final String str) {
+        final StringBuilder stringBuilder = this.stringBuilder;
+        stringBuilder.setLength(0);
         stringBuilder.append('"');
         for (int i = 0; i < str.length(); i++) {
             final char c = str.charAt(i);
             addEscaped(stringBuilder, c);
         }
         stringBuilder.append('"');
-        write(stringBuilder.toString());
+        return stringBuilder.toString();
     }
 
     private void writeArray(final Collection<?> c) throws IOException {
@@ -375,6 +410,8 @@ public final class TomlWriter {
             write(formatted);
         } else if (value instanceof Collection) {
             writeArray((Collection) value);
+        } else if (value instanceof Object[]) {
+            writeArray((Object[]) value);
         } else if (value instanceof int[]) {
             writeArray((int[]) value);
         } else if (value instanceof byte[]) {
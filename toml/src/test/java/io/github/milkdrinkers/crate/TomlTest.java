@@ -1,12 +1,28 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.convert.StreamingConverter;
+import io.github.milkdrinkers.crate.internal.editor.toml.TomlManager;
+import io.github.milkdrinkers.crate.internal.editor.toml.TomlWriter;
 import io.github.milkdrinkers.crate.internal.exceptions.CrateValidationException;
+import io.github.milkdrinkers.crate.internal.exceptions.TomlException;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.util.StringPool;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -76,4 +92,219 @@ public class TomlTest {
         Assertions.assertTrue(toml.contains("Test-Key-1"));
         Assertions.assertTrue(toml.getBoolean("Test-Key-1"));
     }
+
+    @Test
+    void testLazy() {
+        toml.set("Lazy-Key", 5);
+
+        Toml lazy = Toml.builder()
+            .path(tempDir.getPath(), "Example.toml")
+            .lazy(true)
+            .build();
+        Assertions.assertFalse(lazy.isLoaded());
+        Assertions.assertEquals(5, lazy.getInt("Lazy-Key"));
+        Assertions.assertTrue(lazy.isLoaded());
+    }
+
+    @Test
+    void testStringPool() {
+        final StringPool pool = new StringPool(16);
+        toml.set("player.rank", "member");
+        toml.set("player.motto", "a motto that is far too long to be interned");
+
+        final Toml first = Toml.builder()
+            .path(tempDir.getPath(), "Example.toml")
+            .stringPool(pool)
+            .build();
+        final Toml second = Toml.builder()
+            .path(tempDir.getPath(), "Example.toml")
+            .stringPool(pool)
+            .build();
+
+        Assertions.assertSame(first.getString("player.rank"), second.getString("player.rank"));
+        Assertions.assertSame(
+            first.singleLayerKeySet().iterator().next(),
+            second.singleLayerKeySet().iterator().next());
+        Assertions.assertNotSame(first.getString("player.motto"), second.getString("player.motto"));
+        Assertions.assertEquals(
+            "a motto that is far too long to be interned",
+            second.getString("player.motto"));
+        Assertions.assertTrue(pool.getHitCount() >= 3);
+    }
+
+    @Test
+    void testReusedReaderAndWriter() throws Exception {
+        toml.set("server.name", "Lobby \"1\"");
+        toml.set("server.port", 25565);
+        final String written = TomlManager.writeToString(toml.getData());
+        final Map<String, Object> expected = TomlManager.read(written);
+        Assertions.assertEquals("Lobby \"1\"", ((Map<?, ?>) expected.get("server")).get("name"));
+
+        // A failed document mustn't leave state behind for the next one on the same thread
+        Assertions.assertThrows(TomlException.class, () -> TomlManager.read("key = \"never ends"));
+        for (int i = 0; i < 3; i++) {
+            final Map<String, Object> read = TomlManager.read(written);
+            Assertions.assertEquals(expected, read);
+            Assertions.assertEquals(expected, TomlManager.read(TomlManager.writeToString(read)));
+        }
+        TomlManager.clearThreadCaches();
+        Assertions.assertEquals(expected, TomlManager.read(written));
+
+        final Map<String, Object> other = CompletableFuture.supplyAsync(() -> {
+            try {
+                return TomlManager.read(TomlManager.writeToString(TomlManager.read(written)));
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }).get();
+        Assertions.assertEquals(expected, other);
+    }
+
+    @Test
+    void testNumbersAndDates() {
+        final Map<String, Object> read = TomlManager.read(String.join("\n",
+            "small = 123456789",
+            "large = 1234567890",
+            "min = -9_223_372_036_854_775_808",
+            "signed = +42",
+            "pi = 3.14159",
+            "precise = 3.14159265358979323846",
+            "planck = 6.626e-34",
+            "avogadro = 6.022E+23",
+            "coordinates = [ [0.5, -12.25], [1e3, 100.0] ]",
+            "date = 1979-05-27",
+            "local = 1979-05-27T07:32:00.999",
+            "utc = 1979-05-27T07:32:00Z",
+            "offset = 1979-05-27T00:32:00-07:00"));
+
+        Assertions.assertEquals(123456789, read.get("small"));
+        Assertions.assertEquals(1234567890L, read.get("large"));
+        Assertions.assertEquals(Long.MIN_VALUE, read.get("min"));
+        Assertions.assertEquals(42, read.get("signed"));
+        Assertions.assertEquals(3.14159, read.get("pi"));
+        Assertions.assertEquals(Double.parseDouble("3.14159265358979323846"), read.get("precise"));
+        Assertions.assertEquals(6.626e-34, read.get("planck"));
+        Assertions.assertEquals(6.022E+23, read.get("avogadro"));
+        Assertions.assertEquals(
+            Arrays.asList(Arrays.asList(0.5, -12.25), Arrays.asList(1e3, 100.0)),
+            read.get("coordinates"));
+        Assertions.assertEquals(LocalDate.of(1979, 5, 27), read.get("date"));
+        Assertions.assertEquals(LocalDateTime.of(1979, 5, 27, 7, 32, 0, 999_000_000), read.get("local"));
+        Assertions.assertEquals(
+            ZonedDateTime.of(LocalDateTime.of(1979, 5, 27, 7, 32), ZoneOffset.UTC),
+            read.get("utc"));
+        Assertions.assertEquals(
+            ZonedDateTime.of(LocalDateTime.of(1979, 5, 27, 0, 32), ZoneOffset.ofHours(-7)),
+            read.get("offset"));
+
+        Assertions.assertThrows(TomlException.class, () -> TomlManager.read("overflow = 9223372036854775808"));
+        Assertions.assertThrows(TomlException.class, () -> TomlManager.read("date = 1979-13-27"));
+        Assertions.assertThrows(TomlException.class, () -> TomlManager.read("number = 12ab"));
+    }
+
+    @Test
+    void testNestedTablesWritten() throws IOException {
+        final Map<String, Object> inner = new LinkedHashMap<>();
+        inner.put("quoted key", "tab\tand \"quote\"");
+        inner.put("plain", "ascii only");
+        final Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", 1);
+        final Map<String, Object> server = new LinkedHashMap<>();
+        server.put("inner", inner);
+        server.put("items", Arrays.asList(item, item));
+        server.put("port", 25565);
+        final Map<String, Object> data = new LinkedHashMap<>();
+        data.put("server", server);
+        data.put("name", "root");
+
+        final String written = TomlManager.writeToString(data);
+        // Simple values precede the tables of the same level
+        Assertions.assertTrue(written.indexOf("name = \"root\"") < written.indexOf("[server]"));
+        Assertions.assertTrue(written.indexOf("port = 25565") < written.indexOf("[server.inner]"));
+        Assertions.assertTrue(written.contains("[server.inner]"));
+        Assertions.assertTrue(written.contains("\"quoted key\" = \"tab\\tand \\\"quote\\\"\""));
+        Assertions.assertTrue(written.contains("[[server.items]]"));
+        Assertions.assertEquals(data, TomlManager.read(written));
+
+        final File file = new File(tempDir, "Nested.toml");
+        TomlManager.write(data, file);
+        Assertions.assertEquals(data, TomlManager.read(file));
+        Assertions.assertTrue(file.delete());
+    }
+
+    @Test
+    void testWrittenLayout() throws IOException {
+        final Map<String, Object> deep = new LinkedHashMap<>();
+        deep.put("flag", true);
+        final Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", 1);
+        final Map<String, Object> sub = new LinkedHashMap<>();
+        sub.put("deep", deep);
+        sub.put("b", 2);
+        sub.put("items", Arrays.asList(item, item));
+        sub.put("empty", new LinkedHashMap<>());
+        final Map<String, Object> data = new LinkedHashMap<>();
+        data.put("sub", sub);
+        data.put("a", "text");
+        data.put("quoted key", "tab\there");
+        data.put("date", LocalDate.of(2020, 1, 2));
+        data.put("z", Arrays.asList(1, 2));
+
+        final StringWriter written = new StringWriter();
+        new TomlWriter(written, 1, false, "\n").write(data);
+        // Written by the two-pass writer, existing files must not change when they are saved again
+        Assertions.assertEquals(
+            "a = \"text\"\n"
+                + "\"quoted key\" = \"tab\\there\"\n"
+                + "date = 2020-01-02\n"
+                + "z = [1, 2, ]\n"
+                + "\n"
+                + "[sub]\n"
+                + "b = 2\n"
+                + "\n"
+                + "\t[sub.deep]\n"
+                + "\tflag = true\n"
+                + "\n"
+                + "\t[[sub.items]]\n"
+                + "\tid = 1\n"
+                + "\n"
+                + "\t[[sub.items]]\n"
+                + "\tid = 1\n"
+                + "\n"
+                + "\t[sub.empty]\n"
+                + "\n",
+            written.toString());
+    }
+
+    @Test
+    void testObjectArrayWritten() throws IOException {
+        final Map<String, Object> data = new LinkedHashMap<>();
+        data.put("names", new String[]{"first", "second"});
+        data.put("numbers", new Integer[]{1, 2});
+
+        final Map<String, Object> read = TomlManager.read(TomlManager.writeToString(data));
+        Assertions.assertEquals(Arrays.asList("first", "second"), read.get("names"));
+        Assertions.assertEquals(Arrays.asList(1, 2), read.get("numbers"));
+    }
+
+    @Test
+    void testStreamingConversion() throws IOException {
+        final Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", "root");
+        data.put("ports", Arrays.asList(25565, 25566));
+        final Map<String, Object> server = new LinkedHashMap<>();
+        server.put("motd", "It's \"quoted\"");
+        server.put("inner", new LinkedHashMap<>(Collections.singletonMap("enabled", true)));
+        data.put("server", server);
+        data.put("version", 3L);
+        final File source = new File(tempDir, "Source.toml");
+        TomlManager.write(data, source);
+
+        // Tables are spilled while later root values are written in front of them
+        final File copy = new File(tempDir, "Copy.toml");
+        StreamingConverter.convert(source, Toml.streamFormat(), copy, Toml.streamFormat());
+        Assertions.assertEquals(TomlManager.read(source), TomlManager.read(copy));
+        Assertions.assertTrue(source.delete());
+        Assertions.assertTrue(copy.delete());
+    }
 }
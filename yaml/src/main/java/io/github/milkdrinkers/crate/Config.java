@@ -3,9 +3,11 @@ package io.github.milkdrinkers.crate;
 import io.github.milkdrinkers.crate.internal.FileType;
 import io.github.milkdrinkers.crate.internal.FlatFile;
 import io.github.milkdrinkers.crate.internal.provider.yaml.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
 import io.github.milkdrinkers.crate.internal.settings.ConfigSetting;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
 import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.util.StringPool;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.InputStream;
@@ -20,8 +22,15 @@ public class Config extends Yaml {
         @Nullable final ReloadSetting reloadSetting,
         @Nullable final ConfigSetting configSetting,
         @Nullable final DataType dataType,
-        @Nullable final Consumer<FlatFile> reloadConsumer) {
-        super(name, path, inputStream, reloadSetting, configSetting, dataType, reloadConsumer);
+        @Nullable final Consumer<FlatFile> reloadConsumer,
+        @Nullable final StringPool stringPool,
+        @Nullable final Compression compression,
+        final int compressionLevel,
+        final boolean readOnly,
+        final boolean lazy) {
+        super(
+            name, path, inputStream, reloadSetting, configSetting, dataType, reloadConsumer, stringPool,
+            compression, compressionLevel, readOnly, lazy);
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -60,7 +69,12 @@ public class Config extends Yaml {
                 super.getReloadSetting(),
                 super.getConfigSetting(),
                 super.getDataType(),
-                super.getReloadCallback()
+                super.getReloadCallback(),
+                super.getStringPool(),
+                super.getCompression(),
+                super.getCompressionLevel(),
+                super.isReadOnly(),
+                super.isLazy()
             );
         }
     }
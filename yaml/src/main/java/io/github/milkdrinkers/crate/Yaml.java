@@ -1,25 +1,34 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.convert.StreamFormat;
+import io.github.milkdrinkers.crate.convert.StreamingConverter;
+import io.github.milkdrinkers.crate.defaults.SharedDefaults;
 import io.github.milkdrinkers.crate.internal.FileData;
 import io.github.milkdrinkers.crate.internal.FileType;
 import io.github.milkdrinkers.crate.internal.FlatFile;
 import io.github.milkdrinkers.crate.internal.editor.yaml.YamlEditor;
 import io.github.milkdrinkers.crate.internal.editor.yaml.YamlParser;
+import io.github.milkdrinkers.crate.internal.editor.yaml.YamlStreamFormat;
 import io.github.milkdrinkers.crate.internal.editor.yaml.YamlWriter;
+import io.github.milkdrinkers.crate.internal.jfr.CrateEvent;
+import io.github.milkdrinkers.crate.internal.jfr.CrateEventType;
+import io.github.milkdrinkers.crate.internal.jfr.CrateEvents;
 import io.github.milkdrinkers.crate.internal.provider.yaml.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
 import io.github.milkdrinkers.crate.internal.settings.ConfigSetting;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
 import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.util.FastStringWriter;
 import io.github.milkdrinkers.crate.util.FileUtils;
+import io.github.milkdrinkers.crate.util.StringPool;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 import org.jetbrains.annotations.Nullable;
-import org.snakeyaml.engine.v2.api.Dump;
 import org.snakeyaml.engine.v2.api.Load;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -37,15 +46,20 @@ public class Yaml extends FlatFile {
          @Nullable final ReloadSetting reloadSetting,
          @Nullable final ConfigSetting configSetting,
          @Nullable final DataType dataType,
-         @Nullable final Consumer<FlatFile> reloadConsumer) {
-        super(name, path, FileType.YAML, reloadConsumer);
+         @Nullable final Consumer<FlatFile> reloadConsumer,
+         @Nullable final StringPool stringPool,
+         @Nullable final Compression compression,
+         final int compressionLevel,
+         final boolean readOnly,
+         final boolean lazy) {
+        super(name, path, FileType.YAML, reloadConsumer, compression, compressionLevel);
         this.inputStream = inputStream;
 
         if (create() && inputStream != null) {
-            FileUtils.writeToFile(this.file, inputStream);
+            writeToFile(inputStream);
         }
 
-        this.yamlEditor = new YamlEditor(this.file);
+        this.yamlEditor = new YamlEditor(this.file, this.compression, this.compressionLevel);
         this.parser = new YamlParser(this.yamlEditor);
 
         if (reloadSetting != null) {
@@ -62,7 +76,15 @@ public class Yaml extends FlatFile {
             this.dataType = DataType.forConfigSetting(configSetting);
         }
 
-        forceReload();
+        this.stringPool = stringPool;
+
+        if (readOnly) {
+            freeze();
+        }
+
+        if (!lazy) {
+            forceReload();
+        }
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -74,6 +96,7 @@ public class Yaml extends FlatFile {
     }
 
     public Yaml addDefaultsFromInputStream(@Nullable final InputStream inputStream) {
+        checkWritable();
         reloadIfNeeded();
         // Creating & setting defaults
         if (inputStream == null) {
@@ -84,7 +107,8 @@ public class Yaml extends FlatFile {
             InputStreamReader isr = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
             BufferedReader reader = new BufferedReader(isr)
         ) {
-            final Load yaml = new Load(CrateProviders.yamlLoaderOptions());
+            final CrateEvent event = CrateEvents.begin(CrateEventType.ADD_DEFAULTS);
+            final Load yaml = CrateProviders.yamlLoader();
 
             final Map<String, Object> data = (Map<String, Object>) yaml.loadFromReader(reader);
 
@@ -96,7 +120,9 @@ public class Yaml extends FlatFile {
                 }
             }
 
+            markModified();
             write();
+            event.finish(this.file, this.fileType, this.file.length(), newData.size());
         } catch (final Exception ex) {
             ex.printStackTrace();
         }
@@ -110,9 +136,11 @@ public class Yaml extends FlatFile {
 
     @Override
     protected Map<String, Object> readToMap() throws IOException {
-        final Load yaml = new Load(CrateProviders.yamlLoaderOptions());
+        // The file is read once, the editor keeps its lines for header, comment and patch operations
+        final String content = this.yamlEditor.load();
+        final Load yaml = CrateProviders.yamlLoader(this.stringPool);
 
-        final Map<String, Object> data = (Map<String, Object>) yaml.loadFromInputStream(Files.newInputStream(getFile().toPath()));
+        final Map<String, Object> data = (Map<String, Object>) yaml.loadFromString(content);
 
         return data == null ? new HashMap<>() : data;
     }
@@ -125,27 +153,67 @@ public class Yaml extends FlatFile {
             return;
         }
 
-        FileUtils.writer(file, writer -> {
-            final Dump yaml = new Dump(CrateProviders.yamlDumperOptions());
+        // The dump carries no comments, they are reattached to their keys from the current lines of the file
+        final FastStringWriter content = new FastStringWriter();
+        CrateProviders.yamlDumper().dump(fileData.toMap(), new YamlWriter(content));
+
+        final List<String> lines = this.yamlEditor.read();
+        final List<String> header = this.yamlEditor.readHeader();
+        final List<String> out = new ArrayList<>(header);
+        out.addAll(this.parser.parseLines(
+            lines.subList(header.size(), lines.size()),
+            splitLines(content.toString())));
+        this.yamlEditor.write(out);
+    }
+
+    private static List<String> splitLines(final String content) {
+        final List<String> out = new ArrayList<>();
+        int start = 0;
+        while (start < content.length()) {
+            final int newline = content.indexOf('\n', start);
+            if (newline < 0) {
+                out.add(content.substring(start));
+                break;
+            }
+            out.add(content.substring(start, newline));
+            start = newline + 1;
+        }
+        return out;
+    }
+
+    @Override
+    protected boolean writeChange(final String key, @Nullable final Object previous, final Object value) {
+        // Only scalar replacements keep the structure of the document, anything else is dumped again
+        if (!ConfigSetting.PRESERVE_COMMENTS.equals(this.configSetting) || !isScalar(previous) || !isScalar(value)) {
+            return false;
+        }
 
-            yaml.dump(fileData.toMap(), new YamlWriter(writer));
-        });
+        final String rendered = CrateProviders.yamlDumper().dumpToString(value).trim();
+        return rendered.indexOf('\n') < 0 && this.yamlEditor.patchScalar(key, rendered);
+    }
+
+    private static boolean isScalar(@Nullable final Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean;
     }
 
     // Writing without comments
     private void write0(final FileData fileData) throws IOException {
-        try {
-            FileUtils.writer(file, writer -> {
-                final Dump yaml = new Dump(CrateProviders.yamlDumperOptionsNoComments());
+        final FastStringWriter content = new FastStringWriter();
+        CrateProviders.yamlDumperNoComments().dump(fileData.toMap(), new YamlWriter(content));
+        writeContent(content.toString());
+    }
 
-                yaml.dump(fileData.toMap(), new YamlWriter(writer));
-            });
+    private void writeContent(final String content) {
+        try (Writer writer = openWriter()) {
+            writer.write(content);
         } catch (final IOException ex) {
+            this.yamlEditor.invalidate();
             throw CrateProviders.exceptionHandler().create(
                 ex,
                 "Error while writing to '" + file.getName() + "'.",
                 "In: '" + FileUtils.getParentDirPath(file) + "'");
         }
+        this.yamlEditor.update(content);
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -157,6 +225,7 @@ public class Yaml extends FlatFile {
     }
 
     public final void setHeader(final List<String> header) {
+        checkWritable();
         this.yamlEditor.setHeader(header);
     }
 
@@ -165,6 +234,7 @@ public class Yaml extends FlatFile {
     }
 
     public final void addHeader(final List<String> toAdd) {
+        checkWritable();
         this.yamlEditor.addHeader(toAdd);
     }
 
@@ -208,6 +278,30 @@ public class Yaml extends FlatFile {
         return Optional.ofNullable(this.inputStream);
     }
 
+    /**
+     * Returns the shared defaults of a bundled YAML resource, see {@link SharedDefaults}.
+     *
+     * @param resource The name of the resource
+     * @return The shared defaults of the resource
+     */
+    @SuppressWarnings("unchecked")
+    public static FileData sharedDefaults(@NonNull final String resource) {
+        return SharedDefaults.resource(
+            CrateProviders.inputStreamProvider(),
+            resource,
+            inputStream -> (Map<String, Object>) CrateProviders.yamlLoader().loadFromInputStream(inputStream));
+    }
+
+    /**
+     * Returns the YAML format for {@link StreamingConverter}, which converts documents without
+     * loading them as a whole.
+     *
+     * @return The streaming YAML format
+     */
+    public static StreamFormat streamFormat() {
+        return YamlStreamFormat.INSTANCE;
+    }
+
     /**
      * A builder to build a new Yaml instance.
      * @return A new Builder instance.
@@ -229,7 +323,12 @@ public class Yaml extends FlatFile {
                 super.getReloadSetting(),
                 super.getConfigSetting(),
                 super.getDataType(),
-                super.getReloadCallback()
+                super.getReloadCallback(),
+                super.getStringPool(),
+                super.getCompression(),
+                super.getCompressionLevel(),
+                super.isReadOnly(),
+                super.isLazy()
             );
         }
     }
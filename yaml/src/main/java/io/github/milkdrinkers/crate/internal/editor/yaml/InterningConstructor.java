@@ -0,0 +1,72 @@
+package io.github.milkdrinkers.crate.internal.editor.yaml;
+
+import io.github.milkdrinkers.crate.util.StringPool;
+import org.jetbrains.annotations.Nullable;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.constructor.StandardConstructor;
+import org.snakeyaml.engine.v2.nodes.MappingNode;
+import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.NodeTuple;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Constructs YAML documents like {@link StandardConstructor}, interning mapping keys and string values
+ * into a {@link StringPool} as they are constructed, so no second pass over the data is needed.
+ * <p>
+ * Without a pool, documents are constructed unchanged. Like the loader using it, a constructor is
+ * confined to one thread.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+public final class InterningConstructor extends StandardConstructor {
+    // The key nodes of the mappings currently being filled, keys are always interned
+    private final Set<Node> keys = Collections.newSetFromMap(new IdentityHashMap<>());
+    @Nullable
+    private StringPool pool;
+
+    public InterningConstructor(final LoadSettings settings) {
+        super(settings);
+    }
+
+    /**
+     * @param pool The pool to intern strings into, or null to not intern them
+     * @return this constructor
+     */
+    public InterningConstructor pool(@Nullable final StringPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    @Override
+    protected Object constructObject(final Node node) {
+        final Object value = super.constructObject(node);
+        if (this.pool == null || !(value instanceof String)) {
+            return value;
+        }
+        return this.keys.contains(node) ? this.pool.intern((String) value) : this.pool.internValue((String) value);
+    }
+
+    @Override
+    protected void constructMapping2ndStep(final MappingNode node, final Map<Object, Object> mapping) {
+        if (this.pool == null) {
+            super.constructMapping2ndStep(node, mapping);
+            return;
+        }
+
+        for (final NodeTuple tuple : node.getValue()) {
+            this.keys.add(tuple.getKeyNode());
+        }
+        try {
+            super.constructMapping2ndStep(node, mapping);
+        } finally {
+            for (final NodeTuple tuple : node.getValue()) {
+                this.keys.remove(tuple.getKeyNode());
+            }
+        }
+    }
+}
@@ -1,21 +1,116 @@
 package io.github.milkdrinkers.crate.internal.editor.yaml;
 
+import io.github.milkdrinkers.crate.internal.provider.yaml.CrateProviders;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
+import io.github.milkdrinkers.crate.metrics.BlockingIoDetector;
 import io.github.milkdrinkers.crate.util.FileUtils;
 import io.github.milkdrinkers.crate.util.YamlUtils;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.Deflater;
 
+/**
+ * Reads and edits the raw lines of a YAML file.
+ * <p>
+ * The lines of the file are kept in memory together with the modification time and length of the
+ * file, so reading the header, footer or comments and editing the header cost no I/O as long as
+ * the file wasn't changed by someone else. The model is updated with everything written through
+ * this editor, and is refreshed from the content read on reload.
+ * </p>
+ * <p>
+ * Modification time and length miss an edit of the same length within one tick of the file system
+ * clock. Patching a value at a stale offset would corrupt the file, so a patch first reads the bytes
+ * of the old value at its offset and reloads the model if they aren't the cached value.
+ * </p>
+ * <p>
+ * Compressed files are decompressed on read and compressed on write. Their values can't be
+ * patched in place, so {@link #patchScalar(String, String)} always declines them.
+ * </p>
+ */
 @Getter
 @RequiredArgsConstructor
 public class YamlEditor {
 
     private final File file;
+    private final Compression compression;
+    private final int compressionLevel;
 
-    public List<String> read() {
-        return FileUtils.readAllLines(file);
+    // The cached lines of the file and their original separators, null until read and after invalidation
+    @Getter(AccessLevel.NONE)
+    private List<String> lines;
+    @Getter(AccessLevel.NONE)
+    private List<String> separators;
+    @Getter(AccessLevel.NONE)
+    private long lastModified;
+    @Getter(AccessLevel.NONE)
+    private long length;
+
+    // Derived from the cached lines on first use
+    @Getter(AccessLevel.NONE)
+    private int headerSize = -1;
+    @Getter(AccessLevel.NONE)
+    private int footerSize = -1;
+    @Getter(AccessLevel.NONE)
+    private long[] offsets;
+    @Getter(AccessLevel.NONE)
+    private YamlScalarIndex scalarIndex;
+
+    public YamlEditor(final File file) {
+        this(file, Compression.NONE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public synchronized List<String> read() {
+        ensureLoaded();
+        return new ArrayList<>(this.lines);
+    }
+
+    /**
+     * Reads the file and replaces the cached model with its content.
+     *
+     * @return The content of the file
+     */
+    public synchronized String load() {
+        final long blocking = BlockingIoDetector.begin();
+        try {
+            final String content = new String(readBytes(), StandardCharsets.UTF_8);
+            parse(content);
+            return content;
+        } catch (final IOException ex) {
+            invalidate();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while reading '" + this.file.getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(this.file) + "'");
+        } finally {
+            BlockingIoDetector.end(blocking, "read", this.file);
+        }
+    }
+
+    /**
+     * Replaces the cached model with content that was just written to the file by other means.
+     *
+     * @param content The content written to the file
+     */
+    public synchronized void update(final String content) {
+        parse(content);
+    }
+
+    /**
+     * Drops the cached model. Must be called whenever the file is written without {@link #update(String)}.
+     */
+    public synchronized void invalidate() {
+        this.lines = null;
+        this.separators = null;
+        resetDerived();
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -30,53 +125,285 @@ public class YamlEditor {
         return YamlUtils.getKeys(read());
     }
 
-    public List<String> readHeader() {
-        return YamlUtils.getHeaderFromLines(read());
+    public synchronized List<String> readHeader() {
+        ensureLoaded();
+        return new ArrayList<>(this.lines.subList(0, headerSize()));
     }
 
-    public List<String> readFooter() {
-        return YamlUtils.getFooterFromLines(read());
+    public synchronized List<String> readFooter() {
+        ensureLoaded();
+        return new ArrayList<>(this.lines.subList(this.lines.size() - footerSize(), this.lines.size()));
     }
 
-    public List<String> readPureComments() {
-        return YamlUtils.getPureCommentsFromLines(read());
+    public synchronized List<String> readPureComments() {
+        ensureLoaded();
+        final List<String> result = new ArrayList<>();
+        for (final String line : this.lines.subList(headerSize(), this.lines.size() - footerSize())) {
+            if (line.startsWith("#")) {
+                result.add(line);
+            }
+        }
+        return result;
     }
 
-    public List<String> readWithoutHeaderAndFooter() {
-        return YamlUtils.getLinesWithoutFooterAndHeaderFromLines(read());
+    public synchronized List<String> readWithoutHeaderAndFooter() {
+        ensureLoaded();
+        return new ArrayList<>(this.lines.subList(headerSize(), this.lines.size() - footerSize()));
     }
 
     // ----------------------------------------------------------------------------------------------------
     // Writing specific things from File
     // ----------------------------------------------------------------------------------------------------
-    public void write(final List<String> lines) {
-        FileUtils.write(file, lines);
+    public synchronized void write(final List<String> lines) {
+        final long blocking = BlockingIoDetector.begin();
+        try (BufferedWriter writer = this.compression.newWriter(this.file, this.compressionLevel)) {
+            for (final String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (final IOException ex) {
+            invalidate();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while writing to '" + this.file.getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(this.file) + "'");
+        } finally {
+            BlockingIoDetector.end(blocking, "write", this.file);
+        }
+
+        this.lines = new ArrayList<>(lines);
+        this.separators = new ArrayList<>(Collections.nCopies(lines.size(), System.lineSeparator()));
+        resetDerived();
+        stamp();
+    }
+
+    public synchronized void setHeader(final List<String> header) {
+        ensureLoaded();
+
+        // Replaces the old header in front of the remaining lines
+        final List<String> out = normalizeHeader(header);
+        out.addAll(this.lines.subList(headerSize(), this.lines.size()));
+        write(out);
+    }
+
+    public synchronized void addHeader(final List<String> header) {
+        ensureLoaded();
+
+        final List<String> out = normalizeHeader(header);
+        out.addAll(this.lines);
+        write(out);
+    }
+
+    private static List<String> normalizeHeader(final List<String> header) {
+        final List<String> out = new ArrayList<>();
+        for (final String toAdd : header) {
+            out.add(toAdd.startsWith("#") ? toAdd : "#" + toAdd);
+        }
+        return out;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Patching single values
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Replaces a single-line scalar value in the file without touching any other line, so comments
+     * and formatting are kept. If the new value has the same encoded length, only its bytes are
+     * overwritten, otherwise the file is rewritten from the cached lines.
+     *
+     * @param path     The full dotted path of the value
+     * @param rendered The new value, rendered as a single-line YAML scalar
+     * @return true if the value was patched, false if it isn't a patchable scalar in this file
+     */
+    public synchronized boolean patchScalar(final String path, final String rendered) {
+        if (this.compression != Compression.NONE) {
+            return false;
+        }
+
+        final long blocking = BlockingIoDetector.begin();
+        try {
+            ensureLoaded();
+            final YamlScalarIndex.Position position = locate(path);
+            if (position == null) {
+                return false;
+            }
+
+            final String line = this.lines.get(position.line);
+            final String patched = line.substring(0, position.start) + rendered + line.substring(position.end);
+            final byte[] oldBytes = line.substring(position.start, position.end).getBytes(StandardCharsets.UTF_8);
+            final byte[] newBytes = rendered.getBytes(StandardCharsets.UTF_8);
+
+            if (oldBytes.length == newBytes.length) {
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw")) {
+                    randomAccessFile.seek(offset(position));
+                    randomAccessFile.write(newBytes);
+                }
+                this.lines.set(position.line, patched);
+            } else {
+                this.lines.set(position.line, patched);
+                this.offsets = null;
+                FileUtils.writer(this.file, this::writeLines);
+            }
+            position.end = position.start + rendered.length();
+
+            stamp();
+            return true;
+        } catch (final IOException ex) {
+            invalidate();
+            throw CrateProviders.exceptionHandler().create(
+                ex,
+                "Error while patching '" + path + "' in '" + this.file.getName() + "'.",
+                "In: '" + FileUtils.getParentDirPath(this.file) + "'");
+        } finally {
+            BlockingIoDetector.end(blocking, "write", this.file);
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Internal helpers
+    // ----------------------------------------------------------------------------------------------------
+
+    private byte[] readBytes() throws IOException {
+        if (this.compression == Compression.NONE) {
+            return Files.readAllBytes(this.file.toPath());
+        }
+
+        try (InputStream in = this.compression.newInputStream(this.file)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            final byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (this.lines == null
+            || this.file.lastModified() != this.lastModified
+            || this.file.length() != this.length) {
+            load();
+        }
+    }
+
+    // Finds a scalar, reloading the model first if the file doesn't hold the cached value at its offset
+    private YamlScalarIndex.Position locate(final String path) throws IOException {
+        final YamlScalarIndex.Position position = scalarIndex().get(path);
+        if (position == null || isCurrent(position)) {
+            return position;
+        }
+
+        load();
+        return scalarIndex().get(path);
+    }
+
+    // Reads only the bytes of the old value, see the class documentation
+    private boolean isCurrent(final YamlScalarIndex.Position position) throws IOException {
+        final String line = this.lines.get(position.line);
+        final byte[] expected = line.substring(position.start, position.end).getBytes(StandardCharsets.UTF_8);
+        final byte[] actual = new byte[expected.length];
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "r")) {
+            final long offset = offset(position);
+            if (offset + actual.length > randomAccessFile.length()) {
+                return false;
+            }
+            randomAccessFile.seek(offset);
+            randomAccessFile.readFully(actual);
+        }
+        return Arrays.equals(expected, actual);
     }
 
-    public void setHeader(final List<String> header) {
-        final List<String> lines = read();
+    private YamlScalarIndex scalarIndex() {
+        if (this.scalarIndex == null) {
+            this.scalarIndex = new YamlScalarIndex(this.lines);
+        }
+        return this.scalarIndex;
+    }
+
+    private long offset(final YamlScalarIndex.Position position) {
+        final String line = this.lines.get(position.line);
+        return offsets()[position.line] + line.substring(0, position.start).getBytes(StandardCharsets.UTF_8).length;
+    }
 
-        // Remove old header
-        lines.removeAll(readHeader());
+    private void parse(final String content) {
+        final List<String> lines = new ArrayList<>();
+        final List<String> separators = new ArrayList<>();
 
-        // Adding new header in front
-        for (int i = 0; i < header.size(); i++) {
-            final String toAdd = header.get(i);
-            lines.add(i, toAdd.startsWith("#") ? toAdd : "#" + toAdd);
+        // Keeps the original line separators, so unchanged lines are written back as they were
+        int start = 0;
+        while (start < content.length()) {
+            final int newline = content.indexOf('\n', start);
+            if (newline < 0) {
+                lines.add(content.substring(start));
+                separators.add("");
+                break;
+            }
+            final boolean crlf = newline > start && content.charAt(newline - 1) == '\r';
+            lines.add(content.substring(start, crlf ? newline - 1 : newline));
+            separators.add(crlf ? "\r\n" : "\n");
+            start = newline + 1;
         }
 
-        // Write to file
-        write(lines);
+        this.lines = lines;
+        this.separators = separators;
+        resetDerived();
+        stamp();
+    }
+
+    private void resetDerived() {
+        this.headerSize = -1;
+        this.footerSize = -1;
+        this.offsets = null;
+        this.scalarIndex = null;
+    }
+
+    private void stamp() {
+        this.lastModified = this.file.lastModified();
+        this.length = this.file.length();
     }
 
-    public void addHeader(final List<String> header) {
-        final List<String> lines = read();
-        for (int i = 0; i < header.size(); i++) {
-            final String toAdd = header.get(i);
-            lines.add(i, toAdd.startsWith("#") ? toAdd : "#" + toAdd);
+    private int headerSize() {
+        if (this.headerSize < 0) {
+            int size = 0;
+            while (size < this.lines.size() && this.lines.get(size).startsWith("#")) {
+                size++;
+            }
+            this.headerSize = size;
         }
+        return this.headerSize;
+    }
+
+    private int footerSize() {
+        if (this.footerSize < 0) {
+            // The footer never overlaps the header, even if the file consists of comments only
+            final int limit = this.lines.size() - headerSize();
+            int size = 0;
+            while (size < limit && this.lines.get(this.lines.size() - 1 - size).startsWith("#")) {
+                size++;
+            }
+            this.footerSize = size;
+        }
+        return this.footerSize;
+    }
 
-        // Write to file
-        write(lines);
+    private long[] offsets() {
+        if (this.offsets == null) {
+            final long[] out = new long[this.lines.size()];
+            long offset = 0;
+            for (int i = 0; i < this.lines.size(); i++) {
+                out[i] = offset;
+                offset += this.lines.get(i).getBytes(StandardCharsets.UTF_8).length + this.separators.get(i).length();
+            }
+            this.offsets = out;
+        }
+        return this.offsets;
+    }
+
+    private void writeLines(final Writer writer) throws IOException {
+        for (int i = 0; i < this.lines.size(); i++) {
+            writer.write(this.lines.get(i));
+            writer.write(this.separators.get(i));
+        }
     }
 }
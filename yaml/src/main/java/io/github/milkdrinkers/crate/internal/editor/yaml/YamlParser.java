@@ -1,10 +1,18 @@
 package io.github.milkdrinkers.crate.internal.editor.yaml;
 
 import lombok.RequiredArgsConstructor;
-import lombok.val;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
+/**
+ * Reattaches the comments of a YAML document to a newly dumped version of it.
+ * <p>
+ * Comments and blank lines are assigned to the full dotted path of the key following them, so equal
+ * key names at different depths don't collide. Both documents are walked once with an indentation
+ * stack and the comments are looked up by path, which keeps reattachment linear in the number of lines.
+ * </p>
+ */
 @RequiredArgsConstructor
 public final class YamlParser {
 
@@ -12,43 +20,37 @@ public final class YamlParser {
 
     private final YamlEditor yamlEditor;
 
+    /**
+     * Inserts the comments of the original lines in front of the matching keys of the updated lines.
+     * Comments whose key no longer exists are dropped, trailing comments are kept at the end.
+     *
+     * @param comments The original lines, containing comments
+     * @param updated  The updated lines, without comments
+     * @return The updated lines with the comments reattached
+     */
     public List<String> parseLines(
         final List<String> comments,
         final List<String> updated) {
-        final List<String> out = new ArrayList<>();
         final Map<String, List<String>> parsed = assignCommentsToKey(comments);
+        final List<String> out = new ArrayList<>(updated.size() + comments.size());
 
+        final PathTracker tracker = new PathTracker();
         for (final String line : updated) {
-            val rawList = getKeyAndRemove(line, parsed);
-            if (rawList == null || rawList.isEmpty()) {
-
-                out.add(line);
-                continue;
-            }
-
-            Collections.reverse(rawList);
-            out.addAll(rawList);
-            if (!line.equals(FOOTER)) {
-                out.add(line);
+            final String path = tracker.next(line);
+            if (path != null) {
+                final List<String> attached = parsed.remove(path);
+                if (attached != null) {
+                    out.addAll(attached);
+                }
             }
+            out.add(line);
         }
 
-        return out;
-    }
-
-    private List<String> getKeyAndRemove(String key, final Map<String, List<String>> data) {
-        key = key.split(":")[0];
-        for (val entry : data.entrySet()) {
-            final String entryKey = entry.getKey().split(":")[0];
-
-            // using substring since indentation might differ a bit
-            if (key.equals(entryKey) || key.substring(1).equals(entryKey)) {
-                data.remove(entry.getKey());
-                return entry.getValue();
-            }
+        final List<String> footer = parsed.get(FOOTER);
+        if (footer != null) {
+            out.addAll(footer);
         }
-
-        return new ArrayList<>();
+        return out;
     }
 
     public Map<String, List<String>> assignCommentsToKey() {
@@ -56,31 +58,168 @@ public final class YamlParser {
     }
 
     /**
-     * Method to map the #-comments in your YAML-File to the according key
+     * Method to map the #-comments in your YAML-File to the full path of the key they precede
      *
      * @param lines Initial lines to read
-     * @return Mapped comments (Key, comments)
+     * @return Mapped comments (Path, comments in file order)
      */
     public Map<String, List<String>> assignCommentsToKey(final List<String> lines) {
         final Map<String, List<String>> out = new HashMap<>();
 
-        String currentKey = FOOTER;
-        for (int i = lines.size() - 1; i >= 0; i--) {
-            final String line = lines.get(i);
-            if (!line.trim().startsWith("#") && !line.isEmpty()) {
-                currentKey = line;
-            } else {
-                final List<String> storage = out.get(currentKey.split(":")[0]);
-
-                if (storage == null) {
-                    out.put(
-                        currentKey.split(":")[0],
-                        new ArrayList<>(Collections.singletonList(line)));
-                } else if (!storage.contains(line)) {
-                    storage.add(line);
+        final PathTracker tracker = new PathTracker();
+        List<String> pending = new ArrayList<>();
+        for (final String line : lines) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                pending.add(line);
+                continue;
+            }
+
+            final String path = tracker.next(line);
+            if (path != null && !pending.isEmpty()) {
+                // The first occurrence wins if a path is defined twice
+                if (!out.containsKey(path)) {
+                    out.put(path, pending);
                 }
+                pending = new ArrayList<>();
             }
         }
+
+        if (!pending.isEmpty()) {
+            out.put(FOOTER, pending);
+        }
         return out;
     }
+
+    /**
+     * Computes the path of each line of a block style document.
+     */
+    private static final class PathTracker {
+        private final Deque<Integer> indents = new ArrayDeque<>();
+        private final Deque<String> paths = new ArrayDeque<>();
+        private final Deque<Integer> items = new ArrayDeque<>();
+        // Lines indented deeper than this belong to a block scalar
+        private int blockScalarIndent = -1;
+
+        /**
+         * @param line The next line of the document
+         * @return The path of the line, or null if it isn't the start of a key or sequence item
+         */
+        @Nullable
+        private String next(final String line) {
+            int indent = 0;
+            while (indent < line.length() && line.charAt(indent) == ' ') {
+                indent++;
+            }
+            if (indent == line.length() || line.charAt(indent) == '#') {
+                return null;
+            }
+
+            if (this.blockScalarIndent >= 0) {
+                if (indent > this.blockScalarIndent) {
+                    return null;
+                }
+                this.blockScalarIndent = -1;
+            }
+
+            if (line.charAt(indent) == '-' && (indent + 1 == line.length() || line.charAt(indent + 1) == ' ')) {
+                // Sequence items are addressed by their index below the enclosing key
+                while (!this.indents.isEmpty() && this.indents.peek() > indent) {
+                    pop();
+                }
+                if (this.paths.isEmpty()) {
+                    return null;
+                }
+                final int index = this.items.pop();
+                this.items.push(index + 1);
+                return this.paths.peek() + "[" + index + "]";
+            }
+
+            final int end = keyEnd(line, indent);
+            if (end < 0) {
+                return null;
+            }
+
+            while (!this.indents.isEmpty() && this.indents.peek() >= indent) {
+                pop();
+            }
+            final String key = unquote(line.substring(indent, end).trim());
+            final String path = this.paths.isEmpty() ? key : this.paths.peek() + "." + key;
+            this.indents.push(indent);
+            this.paths.push(path);
+            this.items.push(0);
+
+            final String value = line.substring(end + 1).trim();
+            if (value.startsWith("|") || value.startsWith(">")) {
+                this.blockScalarIndent = indent;
+            }
+            return path;
+        }
+
+        private void pop() {
+            this.indents.pop();
+            this.paths.pop();
+            this.items.pop();
+        }
+
+        // Returns the index of the colon ending the key, or -1 if the line isn't a key
+        private static int keyEnd(final String line, final int start) {
+            final char first = line.charAt(start);
+            int i = start;
+            if (first == '"' || first == '\'') {
+                i++;
+                while (i < line.length()) {
+                    final char c = line.charAt(i);
+                    if (first == '"' && c == '\\') {
+                        i += 2;
+                        continue;
+                    }
+                    if (c == first) {
+                        if (first == '\'' && i + 1 < line.length() && line.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+            }
+
+            for (; i < line.length(); i++) {
+                if (line.charAt(i) == ':' && (i + 1 == line.length() || line.charAt(i + 1) == ' ')) {
+                    return i;
+                }
+                if (line.charAt(i) == '#' && line.charAt(i - 1) == ' ') {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private static String unquote(final String key) {
+            if (key.length() < 2) {
+                return key;
+            }
+
+            final char quote = key.charAt(0);
+            if (quote == '\'' && key.charAt(key.length() - 1) == '\'') {
+                return key.substring(1, key.length() - 1).replace("''", "'");
+            }
+            if (quote != '"' || key.charAt(key.length() - 1) != '"') {
+                return key;
+            }
+
+            final StringBuilder out = new StringBuilder(key.length());
+            for (int i = 1; i < key.length() - 1; i++) {
+                final char c = key.charAt(i);
+                if (c == '\\' && i + 1 < key.length() - 1) {
+                    out.append(key.charAt(++i));
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+    }
 }
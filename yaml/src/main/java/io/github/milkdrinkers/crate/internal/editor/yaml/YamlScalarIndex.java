@@ -0,0 +1,288 @@
+package io.github.milkdrinkers.crate.internal.editor.yaml;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the positions of the single-line scalar values in the lines of a YAML document, by their
+ * full dotted path.
+ * <p>
+ * Only block mappings are indexed. Values that can't safely be replaced on their own line, like
+ * multi-line, flow, anchored or aliased values, entries of sequences and duplicated paths, are left
+ * out, so looking them up fails and callers fall back to dumping the whole document.
+ * </p>
+ *
+ * @since 4.0.0
+ */
+final class YamlScalarIndex {
+    // Marks paths that were found more than once
+    private static final Position AMBIGUOUS = new Position(-1, -1, -1);
+
+    private final Map<String, Position> positions = new HashMap<>();
+
+    YamlScalarIndex(final List<String> lines) {
+        final Deque<Key> keys = new ArrayDeque<>();
+        Position pending = null;
+        int pendingIndent = -1;
+
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i);
+            final int indent = indentOf(line);
+            if (indent == line.length() || line.charAt(indent) == '#') {
+                continue;
+            }
+
+            // A more indented line continues the previous value, which therefore spans multiple lines
+            if (pending != null && indent > pendingIndent) {
+                this.positions.values().remove(pending);
+            }
+            pending = null;
+
+            if (indent == 0 && (line.startsWith("---") || line.startsWith("..."))) {
+                keys.clear();
+                continue;
+            }
+            while (!keys.isEmpty() && keys.peek().indent >= indent) {
+                keys.pop();
+            }
+            if (line.charAt(indent) == '-' || line.charAt(indent) == '\t') {
+                // Entries of sequences aren't addressable by path
+                keys.push(new Key(indent, null));
+                continue;
+            }
+
+            final int[] keyEnd = new int[1];
+            final String key = parseKey(line, indent, keyEnd);
+            keys.push(new Key(indent, key));
+            if (key == null) {
+                continue;
+            }
+
+            final String path = pathOf(keys);
+            final Position position = path == null ? null : parseValue(i, line, keyEnd[0] + 1);
+            if (position != null) {
+                this.positions.put(path, this.positions.containsKey(path) ? AMBIGUOUS : position);
+                pending = position;
+                pendingIndent = indent;
+            }
+        }
+    }
+
+    /**
+     * @param path The full dotted path of a value
+     * @return The position of the value, or null if it isn't a replaceable single-line scalar
+     */
+    @Nullable
+    Position get(final String path) {
+        final Position position = this.positions.get(path);
+        return position == AMBIGUOUS ? null : position;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Parsing
+    // ----------------------------------------------------------------------------------------------------
+
+    private static int indentOf(final String line) {
+        int indent = 0;
+        while (indent < line.length() && line.charAt(indent) == ' ') {
+            indent++;
+        }
+        return indent;
+    }
+
+    @Nullable
+    private static String pathOf(final Deque<Key> keys) {
+        final StringBuilder builder = new StringBuilder();
+        final Iterator<Key> iterator = keys.descendingIterator();
+        while (iterator.hasNext()) {
+            final Key key = iterator.next();
+            if (key.name == null) {
+                return null;
+            }
+            if (builder.length() > 0) {
+                builder.append('.');
+            }
+            builder.append(key.name);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Parses the key of a mapping entry starting at the given column.
+     *
+     * @param end Receives the column of the ':' ending the key
+     * @return The key, or null if the line isn't a simple mapping entry with a key addressable by path
+     */
+    @Nullable
+    private static String parseKey(final String line, final int start, final int[] end) {
+        final char first = line.charAt(start);
+        String key;
+        int colon;
+
+        if (first == '"' || first == '\'') {
+            final StringBuilder builder = new StringBuilder();
+            final int close = parseQuoted(line, start, builder);
+            if (close < 0 || close + 1 >= line.length() || line.charAt(close + 1) != ':') {
+                return null;
+            }
+            key = builder.toString();
+            colon = close + 1;
+        } else {
+            if ("[]{}?&*!|>%@`,".indexOf(first) >= 0) {
+                return null;
+            }
+            colon = line.indexOf(':', start);
+            while (colon >= 0 && colon + 1 < line.length() && line.charAt(colon + 1) != ' ') {
+                colon = line.indexOf(':', colon + 1);
+            }
+            if (colon < 0) {
+                return null;
+            }
+            key = line.substring(start, colon).trim();
+        }
+
+        if (key.isEmpty() || key.indexOf('.') >= 0) {
+            return null;
+        }
+        end[0] = colon;
+        return key;
+    }
+
+    /**
+     * Locates the value of a mapping entry following the ':' of its key.
+     *
+     * @return The position of the value, or null if it isn't a replaceable single-line scalar
+     */
+    @Nullable
+    private static Position parseValue(final int lineIndex, final String line, final int afterColon) {
+        int start = afterColon;
+        while (start < line.length() && line.charAt(start) == ' ') {
+            start++;
+        }
+        if (start == line.length() || line.charAt(start) == '#') {
+            // Nested section, sequence or null value
+            return null;
+        }
+
+        int scalarStart = start;
+        if (line.startsWith("!!", start)) {
+            // Standard tags emitted by the dumper, replaced together with the value
+            final int space = line.indexOf(' ', start);
+            if (space < 0) {
+                return null;
+            }
+            scalarStart = space + 1;
+        }
+        if (scalarStart >= line.length()) {
+            return null;
+        }
+
+        final char first = line.charAt(scalarStart);
+        final int end;
+        if (first == '"' || first == '\'') {
+            final int close = parseQuoted(line, scalarStart, null);
+            if (close < 0) {
+                return null;
+            }
+            end = close + 1;
+        } else if ("[]{}&*!|>%@`,".indexOf(first) >= 0) {
+            return null;
+        } else {
+            final int comment = line.indexOf(" #", scalarStart);
+            int plainEnd = comment < 0 ? line.length() : comment;
+            while (plainEnd > scalarStart && line.charAt(plainEnd - 1) == ' ') {
+                plainEnd--;
+            }
+            end = plainEnd;
+        }
+
+        // Only whitespace and a comment may follow the value
+        for (int i = end; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '#' && i > end) {
+                break;
+            }
+            if (c != ' ') {
+                return null;
+            }
+        }
+        return new Position(lineIndex, start, end);
+    }
+
+    /**
+     * Parses a quoted scalar starting at the given column.
+     *
+     * @param out Receives the unescaped content, may be null
+     * @return The column of the closing quote, or -1 if the scalar isn't closed on this line
+     * or uses escapes that aren't supported in keys
+     */
+    private static int parseQuoted(final String line, final int start, @Nullable final StringBuilder out) {
+        final char quote = line.charAt(start);
+        int i = start + 1;
+        while (i < line.length()) {
+            final char c = line.charAt(i);
+            if (quote == '\'' && c == '\'') {
+                if (i + 1 < line.length() && line.charAt(i + 1) == '\'') {
+                    if (out != null) {
+                        out.append('\'');
+                    }
+                    i += 2;
+                    continue;
+                }
+                return i;
+            } else if (quote == '"' && c == '\\') {
+                if (i + 1 >= line.length()) {
+                    return -1;
+                }
+                final char escaped = line.charAt(i + 1);
+                if (out != null) {
+                    if (escaped != '"' && escaped != '\\') {
+                        return -1;
+                    }
+                    out.append(escaped);
+                }
+                i += 2;
+                continue;
+            } else if (quote == '"' && c == '"') {
+                return i;
+            }
+            if (out != null) {
+                out.append(c);
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static final class Key {
+        private final int indent;
+        @Nullable
+        private final String name;
+
+        private Key(final int indent, @Nullable final String name) {
+            this.indent = indent;
+            this.name = name;
+        }
+    }
+
+    /**
+     * The location of a value: its line and the columns it spans, tag included.
+     */
+    static final class Position {
+        final int line;
+        final int start;
+        int end;
+
+        private Position(final int line, final int start, final int end) {
+            this.line = line;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
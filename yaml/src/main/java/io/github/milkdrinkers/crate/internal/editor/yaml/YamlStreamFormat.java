@@ -0,0 +1,278 @@
+package io.github.milkdrinkers.crate.internal.editor.yaml;
+
+import io.github.milkdrinkers.crate.convert.DataHandler;
+import io.github.milkdrinkers.crate.convert.StreamFormat;
+import io.github.milkdrinkers.crate.internal.FileType;
+import io.github.milkdrinkers.crate.internal.provider.yaml.CrateProviders;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+import org.snakeyaml.engine.v2.api.ConstructNode;
+import org.snakeyaml.engine.v2.api.DumpSettings;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.StreamDataWriter;
+import org.snakeyaml.engine.v2.api.lowlevel.Parse;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.emitter.Emitter;
+import org.snakeyaml.engine.v2.events.*;
+import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.ScalarNode;
+import org.snakeyaml.engine.v2.nodes.Tag;
+import org.snakeyaml.engine.v2.representer.StandardRepresenter;
+import org.snakeyaml.engine.v2.resolver.ScalarResolver;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams YAML documents in both directions, through the event parser and emitter of SnakeYAML.
+ * Scalars are resolved and represented with the settings of {@link CrateProviders}, like documents
+ * loaded and written by Yaml. Only the first document of a stream is read, aliases aren't
+ * supported and comments are dropped.
+ *
+ * @since 4.0.0
+ */
+public final class YamlStreamFormat implements StreamFormat {
+    public static final YamlStreamFormat INSTANCE = new YamlStreamFormat();
+
+    private YamlStreamFormat() {
+    }
+
+    @Override
+    public FileType getFileType() {
+        return FileType.YAML;
+    }
+
+    @Override
+    public void read(@NonNull final InputStream in, @NonNull final DataHandler handler) throws IOException {
+        final LoadSettings settings = CrateProviders.yamlLoaderOptions();
+        final ScalarResolver resolver = settings.getSchema().getScalarResolver();
+        // Whether the open mappings expect a key next, the innermost last; null for sequences
+        final List<Boolean> expectKey = new ArrayList<>();
+        // Whether a document started whose root mapping hasn't started yet
+        boolean pendingRoot = false;
+
+        final Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        for (final Event event : new Parse(settings).parseReader(reader)) {
+            final boolean isKey = !expectKey.isEmpty()
+                && Boolean.TRUE.equals(expectKey.get(expectKey.size() - 1));
+            if (isKey && event.getEventId() != Event.ID.MappingEnd && event.getEventId() != Event.ID.Scalar
+                && event.getEventId() != Event.ID.Comment) {
+                throw new IOException("Only scalar keys are supported, found " + event.getEventId() + mark(event));
+            }
+
+            switch (event.getEventId()) {
+                case DocumentStart:
+                    pendingRoot = true;
+                    break;
+                case DocumentEnd:
+                    if (pendingRoot) {
+                        handler.startMap();
+                        handler.endMap();
+                    }
+                    return;
+                case MappingStart:
+                    afterValue(expectKey);
+                    handler.startMap();
+                    expectKey.add(Boolean.TRUE);
+                    pendingRoot = false;
+                    break;
+                case MappingEnd:
+                    expectKey.remove(expectKey.size() - 1);
+                    handler.endMap();
+                    break;
+                case SequenceStart:
+                    if (expectKey.isEmpty()) {
+                        throw new IOException("The root of a document must be a mapping" + mark(event));
+                    }
+                    afterValue(expectKey);
+                    handler.startList();
+                    expectKey.add(null);
+                    break;
+                case SequenceEnd:
+                    expectKey.remove(expectKey.size() - 1);
+                    handler.endList();
+                    break;
+                case Scalar:
+                    final ScalarEvent scalar = (ScalarEvent) event;
+                    if (expectKey.isEmpty()) {
+                        // An empty document is read as an empty map
+                        if (construct(settings, resolver, scalar) == null) {
+                            break;
+                        }
+                        throw new IOException("The root of a document must be a mapping" + mark(event));
+                    }
+                    if (isKey) {
+                        handler.key(String.valueOf(construct(settings, resolver, scalar)));
+                        expectKey.set(expectKey.size() - 1, Boolean.FALSE);
+                    } else {
+                        afterValue(expectKey);
+                        handler.value(construct(settings, resolver, scalar));
+                    }
+                    break;
+                case Alias:
+                    throw new IOException("Aliases aren't supported when streaming YAML" + mark(event));
+                default:
+                    // Stream events and comments carry no data
+                    break;
+            }
+        }
+
+        // A stream without documents is read as an empty map
+        handler.startMap();
+        handler.endMap();
+    }
+
+    // The value of a mapping entry was read, its next key follows
+    private static void afterValue(final List<Boolean> expectKey) {
+        final int last = expectKey.size() - 1;
+        if (last >= 0 && Boolean.FALSE.equals(expectKey.get(last))) {
+            expectKey.set(last, Boolean.TRUE);
+        }
+    }
+
+    @Nullable
+    private static Object construct(final LoadSettings settings, final ScalarResolver resolver, final ScalarEvent event) {
+        final Tag tag;
+        if (event.getTag().isPresent() && !"!".equals(event.getTag().get())) {
+            tag = new Tag(event.getTag().get());
+        } else {
+            tag = resolver.resolve(event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+        }
+
+        ConstructNode constructor = settings.getTagConstructors().get(tag);
+        if (constructor == null) {
+            constructor = settings.getSchema().getSchemaTagConstructors().get(tag);
+        }
+        return constructor == null
+            ? event.getValue()
+            : constructor.construct(new ScalarNode(tag, event.getValue(), event.getScalarStyle()));
+    }
+
+    private static String mark(final Event event) {
+        return event.getStartMark().map(mark -> " at line " + (mark.getLine() + 1)).orElse("");
+    }
+
+    @Override
+    public DataHandler newWriter(@NonNull final OutputStream out) {
+        return new StreamWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    private static final class StreamWriter implements DataHandler, StreamDataWriter {
+        private final Writer writer;
+        private final DumpSettings settings = CrateProviders.yamlDumperOptionsNoComments();
+        private final ScalarResolver resolver = this.settings.getSchema().getScalarResolver();
+        private final StandardRepresenter representer = new StandardRepresenter(this.settings);
+        private final Emitter emitter = new Emitter(this.settings, this);
+        private int depth;
+        // The first error of the writer, the emitter can't pass it on
+        private IOException error;
+
+        private StreamWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startMap() throws IOException {
+            if (this.depth++ == 0) {
+                emit(new StreamStartEvent());
+                emit(new DocumentStartEvent(false, Optional.empty(), Collections.emptyMap()));
+            }
+            emit(new MappingStartEvent(Optional.empty(), Optional.empty(), true, flowStyle()));
+        }
+
+        @Override
+        public void key(final String key) throws IOException {
+            value(key);
+        }
+
+        @Override
+        public void endMap() throws IOException {
+            emit(new MappingEndEvent());
+            if (--this.depth == 0) {
+                emit(new DocumentEndEvent(false));
+                emit(new StreamEndEvent());
+                flush();
+                check();
+            }
+        }
+
+        @Override
+        public void startList() throws IOException {
+            this.depth++;
+            emit(new SequenceStartEvent(Optional.empty(), Optional.empty(), true, flowStyle()));
+        }
+
+        @Override
+        public void endList() throws IOException {
+            this.depth--;
+            emit(new SequenceEndEvent());
+        }
+
+        @Override
+        public void value(@Nullable final Object value) throws IOException {
+            // Represented like the serializer of SnakeYAML represents scalars of a whole document
+            final Node node = this.representer.represent(value);
+            if (!(node instanceof ScalarNode)) {
+                throw new IOException("Unable to stream a value of type " + value.getClass().getName() + " as a scalar");
+            }
+            final ScalarNode scalar = (ScalarNode) node;
+            final Tag tag = scalar.getTag();
+            final ImplicitTuple implicit = new ImplicitTuple(
+                tag.equals(this.resolver.resolve(scalar.getValue(), true)),
+                tag.equals(this.resolver.resolve(scalar.getValue(), false)));
+            emit(new ScalarEvent(Optional.empty(), Optional.of(tag.getValue()), implicit,
+                scalar.getValue(), scalar.getScalarStyle()));
+        }
+
+        private FlowStyle flowStyle() {
+            // Sizes aren't known in advance, so automatic styles are written as blocks
+            return this.settings.getDefaultFlowStyle() == FlowStyle.FLOW ? FlowStyle.FLOW : FlowStyle.BLOCK;
+        }
+
+        private void emit(final Event event) throws IOException {
+            this.emitter.emit(event);
+            check();
+        }
+
+        private void check() throws IOException {
+            if (this.error != null) {
+                throw this.error;
+            }
+        }
+
+        // ----------------------------------------------------------------------------------------------------
+        // StreamDataWriter
+        // ----------------------------------------------------------------------------------------------------
+
+        @Override
+        public void write(final String str) {
+            write(str, 0, str.length());
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) {
+            if (this.error == null) {
+                try {
+                    this.writer.write(str, off, len);
+                } catch (final IOException ex) {
+                    this.error = ex;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (this.error == null) {
+                try {
+                    this.writer.flush();
+                } catch (final IOException ex) {
+                    this.error = ex;
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package io.github.milkdrinkers.crate.internal.provider.yaml;
 
+import io.github.milkdrinkers.crate.internal.editor.yaml.InterningConstructor;
 import io.github.milkdrinkers.crate.internal.provider.ExceptionHandler;
 import io.github.milkdrinkers.crate.internal.provider.InputStreamProvider;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.util.StringPool;
 import lombok.experimental.Accessors;
 import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+import org.snakeyaml.engine.v2.api.Dump;
 import org.snakeyaml.engine.v2.api.DumpSettings;
+import org.snakeyaml.engine.v2.api.Load;
 import org.snakeyaml.engine.v2.api.LoadSettings;
 import org.snakeyaml.engine.v2.common.ScalarStyle;
 
@@ -22,6 +27,16 @@ public class CrateProviders {
     private InputStreamProvider inputStreamProvider;
     private ExceptionHandler exceptionHandler;
 
+    // Load and Dump aren't thread safe, but keep no state between documents, so every thread reuses its own.
+    // They live as long as the thread, see clearThreadCaches()
+    private final ThreadLocal<InterningConstructor> yamlConstructor =
+        ThreadLocal.withInitial(() -> new InterningConstructor(yamlLoaderOptions()));
+    private final ThreadLocal<Load> yamlLoader =
+        ThreadLocal.withInitial(() -> new Load(yamlLoaderOptions(), yamlConstructor.get()));
+    private final ThreadLocal<Dump> yamlDumper = ThreadLocal.withInitial(() -> new Dump(yamlDumperOptions()));
+    private final ThreadLocal<Dump> yamlDumperNoComments =
+        ThreadLocal.withInitial(() -> new Dump(yamlDumperOptionsNoComments()));
+
     public LoadSettings yamlLoaderOptions() {
         if (yamlLoaderOptions == null) {
             yamlLoaderOptions = LoadSettings.builder()
@@ -64,6 +79,64 @@ public class CrateProviders {
         return yamlDumperOptionsNoComments;
     }
 
+    /**
+     * Returns the {@link Load} of the current thread, created from {@link #yamlLoaderOptions()} on first use.
+     *
+     * @return A loader confined to the current thread
+     * @since 4.0.0
+     */
+    public Load yamlLoader() {
+        return yamlLoader(null);
+    }
+
+    /**
+     * Returns the {@link Load} of the current thread, interning the keys and string values of the
+     * documents it loads into the given pool.
+     *
+     * @param pool The pool to intern strings into, or null to not intern them
+     * @return A loader confined to the current thread
+     * @since 4.0.0
+     */
+    public Load yamlLoader(@Nullable final StringPool pool) {
+        yamlConstructor.get().pool(pool);
+        return yamlLoader.get();
+    }
+
+    /**
+     * Returns the {@link Dump} of the current thread, created from {@link #yamlDumperOptions()} on first use.
+     *
+     * @return A dumper confined to the current thread
+     * @since 4.0.0
+     */
+    public Dump yamlDumper() {
+        return yamlDumper.get();
+    }
+
+    /**
+     * Returns the {@link Dump} of the current thread, created from {@link #yamlDumperOptionsNoComments()} on
+     * first use.
+     *
+     * @return A dumper confined to the current thread
+     * @since 4.0.0
+     */
+    public Dump yamlDumperNoComments() {
+        return yamlDumperNoComments.get();
+    }
+
+    /**
+     * Drops the {@link Load} and {@link Dump} instances of the current thread. They are created again from the
+     * current settings on next use, so this also applies changed settings to threads that already loaded or
+     * dumped a document, and releases the instances held by pooled threads.
+     *
+     * @since 4.0.0
+     */
+    public void clearThreadCaches() {
+        yamlConstructor.remove();
+        yamlLoader.remove();
+        yamlDumper.remove();
+        yamlDumperNoComments.remove();
+    }
+
     public InputStreamProvider inputStreamProvider() {
         if (inputStreamProvider == null) {
             inputStreamProvider = new InputStreamProvider() {
@@ -2,7 +2,11 @@ package io.github.milkdrinkers.crate;
 
 import io.github.milkdrinkers.crate.annotation.ConfigPath;
 import io.github.milkdrinkers.crate.internal.exceptions.CrateValidationException;
+import io.github.milkdrinkers.crate.internal.settings.Compression;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.metrics.BlockingIoDetector;
+import io.github.milkdrinkers.crate.metrics.BlockingIoReport;
 import lombok.Getter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -11,8 +15,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -100,6 +108,246 @@ class ConfigTest {
         Assertions.assertEquals(2, test.getAnnotationTest2());
     }
 
+    @Test
+    void testAnnotationsRebindOnReload() {
+        config.set("annotation-test", "Before Reload");
+        config.set("section.annotations", "3");
+
+        AnnotationTests test = new AnnotationTests();
+        config.annotateClass(test, true);
+        Assertions.assertEquals("Before Reload", test.getAnnotationTest());
+        Assertions.assertEquals(3, test.getAnnotationTest2());
+
+        config.set("annotation-test", "After Reload");
+        config.forceReload();
+        Assertions.assertEquals("After Reload", test.getAnnotationTest());
+
+        // Binding the same instance again replaces its registration, unbinding stops the refresh
+        config.annotateClass(test, true);
+        Assertions.assertTrue(config.unbind(test));
+        Assertions.assertFalse(config.unbind(test));
+        config.set("annotation-test", "After Unbind");
+        config.forceReload();
+        Assertions.assertEquals("After Reload", test.getAnnotationTest());
+    }
+
+    @Test
+    void testAnnotationsRebindOnAutomaticReload() {
+        config.set("annotation-test", "Before Reload");
+        final Config automatic = Config.builderConfig()
+            .path(config.getFile())
+            .reload(ReloadSetting.AUTOMATICALLY)
+            .build();
+
+        // Every getter reloads the file, rebinding mustn't trigger another reload
+        AnnotationTests test = new AnnotationTests();
+        automatic.annotateClass(test, true);
+        Assertions.assertEquals("Before Reload", test.getAnnotationTest());
+
+        config.set("annotation-test", "After Reload");
+        Assertions.assertEquals("After Reload", automatic.getString("annotation-test"));
+        Assertions.assertEquals("After Reload", test.getAnnotationTest());
+    }
+
+    @Test
+    void testScalarPatch() throws IOException {
+        final List<String> lines = Arrays.asList(
+            "# Header comment",
+            "server:",
+            "  # The name shown to players",
+            "  name: \"Lobby\" # inline comment",
+            "  port: 25565",
+            "  motd: 'Welcome'",
+            "  rules:",
+            "  - first",
+            "tags: [a, b]");
+        Files.write(config.getFile().toPath(), lines, StandardCharsets.UTF_8);
+        config.forceReload();
+
+        config.set("server.port", 25566);
+        config.set("server.name", "Survival");
+        config.set("server.motd", "Hello there");
+
+        final List<String> written = Files.readAllLines(config.getFile().toPath(), StandardCharsets.UTF_8);
+        Assertions.assertEquals(lines.size(), written.size());
+        Assertions.assertEquals("# Header comment", written.get(0));
+        Assertions.assertEquals("  # The name shown to players", written.get(2));
+        Assertions.assertEquals("  name: \"Survival\" # inline comment", written.get(3));
+        Assertions.assertTrue(written.get(4).startsWith("  port: ") && written.get(4).contains("25566"));
+        Assertions.assertEquals("  motd: \"Hello there\"", written.get(5));
+        Assertions.assertEquals("tags: [a, b]", written.get(8));
+
+        config.forceReload();
+        Assertions.assertEquals(25566, config.getInt("server.port"));
+        Assertions.assertEquals("Survival", config.getString("server.name"));
+        Assertions.assertEquals("Hello there", config.getString("server.motd"));
+
+        // Structural changes fall back to dumping the whole document
+        config.set("server.rules", Arrays.asList("first", "second"));
+        config.set("server.name", Arrays.asList("not", "a", "scalar"));
+        config.forceReload();
+        Assertions.assertEquals(Arrays.asList("first", "second"), config.getStringList("server.rules"));
+        Assertions.assertEquals(Arrays.asList("not", "a", "scalar"), config.getStringList("server.name"));
+        Assertions.assertEquals(25566, config.getInt("server.port"));
+    }
+
+    @Test
+    void testScalarPatchAfterSameLengthEdit() throws IOException {
+        final File file = config.getFile();
+        Files.write(file.toPath(), Arrays.asList("first: \"aa\"", "second: \"bb\""), StandardCharsets.UTF_8);
+        config.forceReload();
+
+        // An edit of the same length that keeps the modification time isn't noticed by the stamp
+        final long lastModified = file.lastModified();
+        Files.write(file.toPath(), Arrays.asList("second: \"bb\"", "first: \"aa\""), StandardCharsets.UTF_8);
+        Assertions.assertTrue(file.setLastModified(lastModified));
+
+        config.set("first", "cc");
+        Assertions.assertEquals(
+            Arrays.asList("second: \"bb\"", "first: \"cc\""),
+            Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHeaderModel() throws IOException {
+        Files.write(config.getFile().toPath(), Arrays.asList(
+            "# First",
+            "# Second",
+            "key: value",
+            "# Inside",
+            "other: 1",
+            "# Footer"), StandardCharsets.UTF_8);
+        config.forceReload();
+
+        Assertions.assertEquals(Arrays.asList("# First", "# Second"), config.getHeader());
+        Assertions.assertEquals(Arrays.asList("# Footer"), config.yamlEditor.readFooter());
+        Assertions.assertEquals(Arrays.asList("# Inside"), config.yamlEditor.readPureComments());
+
+        // Only the leading header is replaced, equal comment lines elsewhere are kept
+        config.setHeader("Inside");
+        Assertions.assertEquals(Arrays.asList("#Inside"), config.getHeader());
+        Assertions.assertEquals(Arrays.asList("# Inside"), config.yamlEditor.readPureComments());
+
+        // The header survives dumping the whole document
+        config.set("list", Arrays.asList("a", "b"));
+        final List<String> written = Files.readAllLines(config.getFile().toPath(), StandardCharsets.UTF_8);
+        Assertions.assertEquals("#Inside", written.get(0));
+        Assertions.assertEquals(Arrays.asList("#Inside"), config.getHeader());
+        config.forceReload();
+        Assertions.assertEquals(Arrays.asList("a", "b"), config.getStringList("list"));
+
+        // External changes are picked up
+        Files.write(config.getFile().toPath(), Arrays.asList("# External", "key: value", ""), StandardCharsets.UTF_8);
+        Assertions.assertEquals(Arrays.asList("# External"), config.getHeader());
+    }
+
+    @Test
+    void testCommentReattachment() throws IOException {
+        Files.write(config.getFile().toPath(), Arrays.asList(
+            "# Header",
+            "",
+            "first:",
+            "  # Name of the first",
+            "  name: a",
+            "second:",
+            "  # Name of the second",
+            "  name: b",
+            "  list:",
+            "  # First item",
+            "  - x",
+            "# Footer"), StandardCharsets.UTF_8);
+        config.forceReload();
+
+        config.set("third", Arrays.asList("y", "z"));
+        final List<String> written = Files.readAllLines(config.getFile().toPath(), StandardCharsets.UTF_8);
+        Assertions.assertEquals("# Header", written.get(0));
+        Assertions.assertEquals("# Footer", written.get(written.size() - 1));
+        Assertions.assertEquals("  # Name of the first", written.get(written.indexOf("\"first\":") + 1));
+        Assertions.assertTrue(written.indexOf("  # Name of the second") > written.indexOf("\"second\":"));
+        Assertions.assertTrue(written.get(written.indexOf("  # Name of the second") + 1).startsWith("  \"name\":"));
+        Assertions.assertTrue(written.get(written.indexOf("  # First item") + 1).trim().startsWith("- "));
+        Assertions.assertEquals(1, written.stream().filter(line -> line.contains("# First item")).count());
+
+        config.forceReload();
+        Assertions.assertEquals("b", config.getString("second.name"));
+        Assertions.assertEquals(Arrays.asList("y", "z"), config.getStringList("third"));
+
+        // Large commented documents are reattached in a single pass
+        final List<String> large = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            large.add("# Section " + i);
+            large.add("section-" + i + ":");
+            large.add("  # Value of " + i);
+            large.add("  value: " + i);
+        }
+        Files.write(config.getFile().toPath(), large, StandardCharsets.UTF_8);
+        config.forceReload();
+
+        config.set("extra", Arrays.asList("a", "b"));
+        final List<String> rewritten = Files.readAllLines(config.getFile().toPath(), StandardCharsets.UTF_8);
+        Assertions.assertEquals(
+            "  # Value of 1234",
+            rewritten.get(rewritten.indexOf("\"section-1234\":") + 1));
+        Assertions.assertEquals(
+            "# Section 1234",
+            rewritten.get(rewritten.indexOf("\"section-1234\":") - 1));
+    }
+
+    @Test
+    void testBlockingIoDetector() {
+        final List<BlockingIoReport> reports = new ArrayList<>();
+        BlockingIoDetector.threshold(0, TimeUnit.MILLISECONDS);
+        BlockingIoDetector.reporter(reports::add);
+
+        // Threads are only watched once registered
+        config.set("before", 1);
+        Assertions.assertTrue(reports.isEmpty());
+
+        BlockingIoDetector.register(Thread.currentThread());
+        try {
+            config.set("key", Arrays.asList("a", "b"));
+            config.forceReload();
+        } finally {
+            BlockingIoDetector.unregister(Thread.currentThread());
+        }
+
+        // Nested reads and writes of the editor are part of the outer operations
+        Assertions.assertEquals(2, reports.size());
+        Assertions.assertEquals("write", reports.get(0).getOperation());
+        Assertions.assertEquals("reload", reports.get(1).getOperation());
+        Assertions.assertEquals(config.getFile(), reports.get(1).getFile());
+        Assertions.assertEquals(Thread.currentThread().getName(), reports.get(1).getThreadName());
+        Assertions.assertEquals("forceReload", reports.get(1).getStackTrace()[0].getMethodName());
+
+        config.set("after", 1);
+        Assertions.assertEquals(2, reports.size());
+    }
+
+    @Test
+    void testCompressedConfig() throws IOException {
+        final Config compressed = Config.builderConfig()
+            .path(tempDir.getPath(), "Compressed.yml")
+            .compression(Compression.DEFLATE)
+            .build();
+        Assertions.assertEquals("Compressed.yml.deflate", compressed.getName());
+
+        compressed.set("server.port", 25565);
+        compressed.set("server.name", "Lobby");
+        compressed.setHeader("Compressed header");
+        // Scalars of compressed files can't be patched in place, the document is rewritten instead
+        compressed.set("server.port", 25566);
+
+        final byte[] bytes = Files.readAllBytes(compressed.getFile().toPath());
+        Assertions.assertEquals((byte) 0x78, bytes[0]);
+        Assertions.assertFalse(new String(bytes, StandardCharsets.UTF_8).contains("server"));
+
+        compressed.forceReload();
+        Assertions.assertEquals(Arrays.asList("#Compressed header"), compressed.getHeader());
+        Assertions.assertEquals(25566, compressed.getInt("server.port"));
+        Assertions.assertEquals("Lobby", compressed.getString("server.name"));
+        Assertions.assertTrue(compressed.getFile().delete());
+    }
+
     @Getter
     static class AnnotationTests {
         @ConfigPath("annotation-test")
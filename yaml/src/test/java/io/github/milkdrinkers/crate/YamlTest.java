@@ -1,13 +1,32 @@
 package io.github.milkdrinkers.crate;
 
+import io.github.milkdrinkers.crate.annotation.ConfigPath;
+import io.github.milkdrinkers.crate.cache.FlatFileCache;
+import io.github.milkdrinkers.crate.convert.ConversionResult;
+import io.github.milkdrinkers.crate.convert.StreamingConverter;
+import io.github.milkdrinkers.crate.defaults.LayeredDataStorage;
+import io.github.milkdrinkers.crate.internal.FileData;
+import io.github.milkdrinkers.crate.internal.FileType;
 import io.github.milkdrinkers.crate.internal.exceptions.CrateValidationException;
 import io.github.milkdrinkers.crate.internal.settings.DataType;
+import io.github.milkdrinkers.crate.internal.settings.ReloadSetting;
+import io.github.milkdrinkers.crate.util.StringPool;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -84,6 +103,26 @@ public class YamlTest {
         Assertions.assertTrue(yaml.getBoolean("Test-Key-1"));
     }
 
+    @Test
+    void testView() {
+        yaml.set("shop.tax", 0.25);
+        yaml.set("shop.name", "General Store");
+
+        ShopView view = yaml.view(ShopView.class);
+        Assertions.assertEquals(0.25, view.tax());
+        Assertions.assertEquals("General Store", view.name());
+        Assertions.assertFalse(view.open());
+
+        yaml.set("shop.tax", 0.5);
+        yaml.set("shop.open", true);
+        Assertions.assertEquals(0.5, view.tax());
+        Assertions.assertTrue(view.open());
+
+        // Unimplementable methods fail when the view is created, not when they are called
+        Assertions.assertThrows(CrateValidationException.class, () -> yaml.view(UnannotatedView.class));
+        Assertions.assertThrows(CrateValidationException.class, () -> yaml.view(DefaultMethodView.class));
+    }
+
     @Test
     void testDefaults() {
         // Test 1: Resource in root of resources folder
@@ -141,4 +180,247 @@ public class YamlTest {
                 .build();
         }, "Should throw exception when default resource doesn't exist");
     }
+
+    @Test
+    void testCompactDataType() {
+        final Yaml compact = Yaml.builder()
+            .path(tempDir.getPath(), "Compact.yml")
+            .dataType(DataType.COMPACT)
+            .build();
+        compact.set("section.b", 2);
+        compact.set("section.a", 1);
+        compact.set("other", true);
+
+        final Yaml reloaded = Yaml.builder()
+            .path(tempDir.getPath(), "Compact.yml")
+            .dataType(DataType.COMPACT)
+            .build();
+        Assertions.assertEquals(DataType.COMPACT, reloaded.getDataType());
+        Assertions.assertEquals(Arrays.asList("b", "a"), new ArrayList<>(reloaded.singleLayerKeySet("section")));
+        Assertions.assertEquals(2, reloaded.getInt("section.b"));
+        Assertions.assertTrue(reloaded.getBoolean("other"));
+    }
+
+    @Test
+    void testStringPool() throws IOException {
+        final StringPool pool = new StringPool(16);
+        Files.write(
+            new File(tempDir, "Pooled.yml").toPath(),
+            "player:\n  rank: member\n  motto: a motto that is far too long to be interned\n".getBytes(StandardCharsets.UTF_8));
+
+        final Yaml first = Yaml.builder().path(tempDir.getPath(), "Pooled.yml").stringPool(pool).build();
+        final Yaml second = Yaml.builder().path(tempDir.getPath(), "Pooled.yml").stringPool(pool).build();
+
+        Assertions.assertSame(first.getString("player.rank"), second.getString("player.rank"));
+        Assertions.assertSame(
+            first.singleLayerKeySet().iterator().next(),
+            second.singleLayerKeySet().iterator().next());
+        Assertions.assertNotSame(first.getString("player.motto"), second.getString("player.motto"));
+        Assertions.assertEquals("a motto that is far too long to be interned", second.getString("player.motto"));
+    }
+
+    @Test
+    void testReadOnly() {
+        yaml.set("settings.limits.max", 5);
+        yaml.set("settings.name", "Example");
+
+        final Yaml frozen = Yaml.builder()
+            .path(tempDir.getPath(), "Example.yml")
+            .reload(ReloadSetting.MANUALLY)
+            .readOnly(true)
+            .build();
+        Assertions.assertTrue(frozen.isReadOnly());
+        Assertions.assertEquals(5, frozen.getInt("settings.limits.max"));
+        Assertions.assertEquals("Example", frozen.getString("settings.name"));
+        Assertions.assertTrue(frozen.contains("settings.limits"));
+        Assertions.assertFalse(frozen.contains("settings.missing"));
+        Assertions.assertEquals(5, frozen.getSection("settings.limits").getInt("max"));
+
+        Assertions.assertThrows(CrateValidationException.class, () -> frozen.set("settings.name", "Changed"));
+        Assertions.assertThrows(CrateValidationException.class, () -> frozen.remove("settings.name"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.getData().put("key", 1));
+
+        yaml.set("settings.limits.max", 10);
+        frozen.forceReload();
+        Assertions.assertEquals(10, frozen.getInt("settings.limits.max"));
+    }
+
+    @Test
+    void testLayeredDefaults() {
+        final FileData defaults = Yaml.sharedDefaults("testextract1.yml");
+        Assertions.assertSame(defaults, Yaml.sharedDefaults("testextract1.yml"));
+
+        final Map<String, Object> hardcoded = new HashMap<>();
+        hardcoded.put("hardcoded", "value");
+        final LayeredDataStorage layered = new LayeredDataStorage(yaml, defaults).withDefaults(hardcoded);
+
+        yaml.set("database.port", 1234);
+        Assertions.assertEquals(1234, layered.getInt("database.port"));
+        Assertions.assertEquals("Test Application", layered.getString("app.name"));
+        Assertions.assertEquals("value", layered.getString("hardcoded"));
+        Assertions.assertTrue(layered.contains("settings.timeout"));
+        Assertions.assertTrue(layered.singleLayerKeySet().containsAll(Arrays.asList("app", "database", "hardcoded")));
+
+        // Defaults are resolved without being copied into the file
+        Assertions.assertFalse(yaml.contains("app.name"));
+        layered.set("app.name", "Overridden");
+        Assertions.assertEquals("Overridden", layered.getString("app.name"));
+        Assertions.assertEquals("Test Application", defaults.get("app.name"));
+
+        // The layers are looked up under the path prefix of the file
+        yaml.setPathPrefix("database");
+        try {
+            Assertions.assertEquals("testdb", layered.getString("name"));
+            Assertions.assertTrue(layered.contains("host"));
+        } finally {
+            yaml.clearPathPrefix();
+        }
+    }
+
+    @Test
+    void testFlatFileCache() throws IOException {
+        final File directory = new File(tempDir, "players");
+        final FlatFileCache<Yaml> cache = FlatFileCache.builder(directory, FileType.YAML, Yaml::builder)
+            .maximumSize(2)
+            .build();
+
+        final Yaml first = cache.get("first");
+        first.set("coins", 10);
+        Assertions.assertSame(first, cache.get("first"));
+        cache.get("second");
+        cache.get("third");
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNull(cache.getIfPresent("first"));
+        Assertions.assertEquals(1, cache.stats().getHitCount());
+        Assertions.assertEquals(3, cache.stats().getMissCount());
+        Assertions.assertEquals(1, cache.stats().getEvictionCount());
+
+        final Yaml reopened = cache.get("first");
+        Assertions.assertNotSame(first, reopened);
+        Assertions.assertEquals(10, reopened.getInt("coins"));
+        Assertions.assertTrue(new File(directory, "first.yml").exists());
+
+        // Unchanged files aren't written again when they are evicted
+        final File manual = new File(directory, "manual.yml");
+        final byte[] content = "coins:    5 # kept as written\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(manual.toPath(), content);
+        Assertions.assertEquals(5, cache.get("manual").getInt("coins"));
+        cache.invalidate("manual");
+        Assertions.assertArrayEquals(content, Files.readAllBytes(manual.toPath()));
+
+        cache.invalidateAll();
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertThrows(CrateValidationException.class, () -> cache.get("../escape"));
+    }
+
+    interface ShopView {
+        @ConfigPath("shop.tax")
+        double tax();
+
+        @ConfigPath("shop.name")
+        String name();
+
+        @ConfigPath("shop.open")
+        boolean open();
+    }
+
+    interface UnannotatedView {
+        @ConfigPath("shop.tax")
+        double tax();
+
+        String name();
+    }
+
+    interface DefaultMethodView {
+        @ConfigPath("shop.tax")
+        double tax();
+
+        default double taxPercent() {
+            return tax() * 100;
+        }
+    }
+
+    @Test
+    void testFlightRecorderEvents() throws IOException {
+        final File dump = new File(tempDir, "crate.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("crate.Reload");
+            recording.enable("crate.Parse");
+            recording.enable("crate.Write");
+            recording.start();
+
+            yaml.set("recorded", "value");
+            yaml.forceReload();
+
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(dump.toPath());
+        Assertions.assertTrue(events.stream().anyMatch(event ->
+            event.getEventType().getName().equals("crate.Write")
+                && event.getString("path").equals(yaml.getFile().getPath())
+                && event.getLong("bytes") > 0));
+        Assertions.assertTrue(events.stream().anyMatch(event ->
+            event.getEventType().getName().equals("crate.Reload")
+                && event.getString("fileType").equals("YAML")
+                && event.getInt("keys") >= 1));
+        Assertions.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("crate.Parse")));
+    }
+
+    @Test
+    void testStreamingConversion() throws IOException {
+        final Map<String, Object> stats = new HashMap<>();
+        stats.put("kills", 12);
+        stats.put("ratio", 0.5);
+        stats.put("name with spaces", "It's \"quoted\": yes");
+        yaml.set("players.alice.stats", stats);
+        yaml.set("players.alice.homes", Arrays.asList("spawn", "base"));
+        yaml.set("players.bob.banned", true);
+        yaml.set("version", 3);
+        yaml.set("motd", "123");
+        yaml.set("empty", new HashMap<>());
+
+        // The document is streamed through the reader and writer events
+        final File copy = new File(tempDir, "Copy.yml");
+        StreamingConverter.convert(yaml.getFile(), Yaml.streamFormat(), copy, Yaml.streamFormat());
+        final Yaml converted = Yaml.builder().path(copy).build();
+        Assertions.assertEquals(yaml.getData(), converted.getData());
+        Assertions.assertEquals("123", converted.get("motd"));
+
+        // A failed conversion leaves no target behind
+        final File broken = new File(tempDir, "Broken.yml");
+        Files.write(broken.toPath(), "key: [1, 2".getBytes(StandardCharsets.UTF_8));
+        final File target = new File(tempDir, "Target.yml");
+        Assertions.assertThrows(CrateValidationException.class,
+            () -> StreamingConverter.convert(broken, Yaml.streamFormat(), target, Yaml.streamFormat()));
+        Assertions.assertFalse(target.exists());
+        Assertions.assertFalse(new File(tempDir, "Target.yml.part").exists());
+        Assertions.assertTrue(broken.delete());
+    }
+
+    @Test
+    void testBatchConversion() throws IOException {
+        final File source = new File(tempDir, "source");
+        for (int i = 0; i < 8; i++) {
+            final Yaml file = Yaml.builder().path(new File(source, "file-" + i + ".yml")).build();
+            file.set("index", i);
+            file.set("section.name", "file " + i);
+        }
+        Files.write(new File(source, "broken.yml").toPath(), "key: [1, 2".getBytes(StandardCharsets.UTF_8));
+
+        final File target = new File(tempDir, "target");
+        final ConversionResult result = StreamingConverter
+            .builder(source, Yaml.streamFormat(), target, Yaml.streamFormat())
+            .parallelism(4)
+            .build()
+            .convertAll();
+
+        Assertions.assertEquals(8, result.getFiles().size());
+        Assertions.assertEquals(Collections.singleton(new File(source, "broken.yml")), result.getFailures().keySet());
+        Assertions.assertEquals(
+            "file 5",
+            Yaml.builder().path(new File(target, "file-5.yml")).build().getString("section.name"));
+    }
 }